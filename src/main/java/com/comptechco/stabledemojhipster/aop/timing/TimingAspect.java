@@ -0,0 +1,135 @@
+package com.comptechco.stabledemojhipster.aop.timing;
+
+import com.comptechco.stabledemojhipster.management.MethodTimingMetersService;
+import io.micrometer.core.instrument.Timer;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Aspect for timing the execution of the repository, service and Web REST methods, with the pointcuts of the
+ * {@link com.comptechco.stabledemojhipster.aop.logging.LoggingAspect}.
+ *
+ * It only runs when {@code application.timing.enabled} is set: otherwise the beans are not proxied for it at all.
+ *
+ * The timers are tagged with the class of the bean, not with the class declaring the method: the methods the Spring
+ * Data repositories inherit, like {@code findById}, are timed for each repository.
+ */
+@Aspect
+public class TimingAspect {
+
+    private final MethodTimingMetersService methodTimingMetersService;
+
+    private final double sampleRate;
+
+    // By proxy class and method, as Spring AOP creates a new signature for each call
+    private final Map<TimerKey, Timer> timers = new ConcurrentHashMap<>();
+
+    public TimingAspect(MethodTimingMetersService methodTimingMetersService, double sampleRate) {
+        this.methodTimingMetersService = methodTimingMetersService;
+        this.sampleRate = sampleRate;
+    }
+
+    /**
+     * Advice that records the time taken by a sample of the calls of a method.
+     *
+     * @param joinPoint join point for advice.
+     * @return result.
+     * @throws Throwable whatever the method throws.
+     */
+    @Around(
+        "com.comptechco.stabledemojhipster.aop.logging.LoggingAspect.applicationPackagePointcut()" +
+        " && com.comptechco.stabledemojhipster.aop.logging.LoggingAspect.springBeanPointcut()"
+    )
+    public Object timeAround(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (sampleRate < 1 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return joinPoint.proceed();
+        }
+        long start = System.nanoTime();
+        Object result;
+        try {
+            result = joinPoint.proceed();
+        } catch (Throwable e) {
+            timer(joinPoint, e.getClass()).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+        timer(joinPoint, null).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return result;
+    }
+
+    private Timer timer(JoinPoint joinPoint, Class<? extends Throwable> exceptionClass) {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        TimerKey key = new TimerKey(joinPoint.getThis().getClass(), method, exceptionClass);
+        Timer timer = timers.get(key);
+        if (timer == null) {
+            timer =
+                timers.computeIfAbsent(
+                    key,
+                    k ->
+                        methodTimingMetersService.getTimer(
+                            className(joinPoint),
+                            method.getName(),
+                            exceptionClass != null ? exceptionClass.getSimpleName() : null
+                        )
+                );
+        }
+        return timer;
+    }
+
+    private static String className(JoinPoint joinPoint) {
+        Object proxy = joinPoint.getThis();
+        if (Proxy.isProxyClass(proxy.getClass()) && proxy instanceof Advised) {
+            // A Spring Data repository, whose implementation is shared by all the repositories, but not its interface
+            Class<?>[] interfaces = AopProxyUtils.proxiedUserInterfaces(proxy);
+            if (interfaces.length > 0) {
+                return interfaces[0].getSimpleName();
+            }
+        }
+        return ClassUtils.getUserClass(AopUtils.getTargetClass(joinPoint.getTarget())).getSimpleName();
+    }
+
+    private static final class TimerKey {
+
+        private final Class<?> proxyClass;
+
+        private final Method method;
+
+        private final Class<?> exceptionClass;
+
+        TimerKey(Class<?> proxyClass, Method method, Class<?> exceptionClass) {
+            this.proxyClass = proxyClass;
+            this.method = method;
+            this.exceptionClass = exceptionClass;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof TimerKey)) {
+                return false;
+            }
+            TimerKey other = (TimerKey) o;
+            return proxyClass == other.proxyClass && method.equals(other.method) && exceptionClass == other.exceptionClass;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(proxyClass, method, exceptionClass);
+        }
+    }
+}
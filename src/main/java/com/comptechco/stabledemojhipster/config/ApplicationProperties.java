@@ -1,5 +1,10 @@
 package com.comptechco.stabledemojhipster.config;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 /**
@@ -9,4 +14,689 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
  * See {@link tech.jhipster.config.JHipsterProperties} for a good example.
  */
 @ConfigurationProperties(prefix = "application", ignoreUnknownFields = false)
-public class ApplicationProperties {}
+public class ApplicationProperties {
+
+    private final Bulk bulk = new Bulk();
+
+    private final Cache cache = new Cache();
+
+    private final Security security = new Security();
+
+    private final Mail mail = new Mail();
+
+    private final Datasource datasource = new Datasource();
+
+    private final Search search = new Search();
+
+    private final Catalog catalog = new Catalog();
+
+    private final Jackson jackson = new Jackson();
+
+    private final Timing timing = new Timing();
+
+    private final SqlStats sqlStats = new SqlStats();
+
+    public Bulk getBulk() {
+        return bulk;
+    }
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    public Security getSecurity() {
+        return security;
+    }
+
+    public Mail getMail() {
+        return mail;
+    }
+
+    public Datasource getDatasource() {
+        return datasource;
+    }
+
+    public Search getSearch() {
+        return search;
+    }
+
+    public Catalog getCatalog() {
+        return catalog;
+    }
+
+    public Jackson getJackson() {
+        return jackson;
+    }
+
+    public Timing getTiming() {
+        return timing;
+    }
+
+    public SqlStats getSqlStats() {
+        return sqlStats;
+    }
+
+    public static class Bulk {
+
+        /**
+         * Number of rows written in each transaction of a bulk import.
+         */
+        private int chunkSize = 500;
+
+        /**
+         * Maximum number of rows accepted by a single bulk request.
+         */
+        private int maxRows = 10000;
+
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+
+        public int getMaxRows() {
+            return maxRows;
+        }
+
+        public void setMaxRows(int maxRows) {
+            this.maxRows = maxRows;
+        }
+    }
+
+    public static class Cache {
+
+        /**
+         * Directory of the disk tier, required when a cache has a {@code disk-mb} size.
+         */
+        private String diskPath;
+
+        /**
+         * Settings of the caches that should not use the {@code jhipster.cache.ehcache} defaults, by cache name.
+         */
+        private final Map<String, Region> regions = new HashMap<>();
+
+        public String getDiskPath() {
+            return diskPath;
+        }
+
+        public void setDiskPath(String diskPath) {
+            this.diskPath = diskPath;
+        }
+
+        public Map<String, Region> getRegions() {
+            return regions;
+        }
+
+        public static class Region {
+
+            /**
+             * Maximum number of entries, defaults to {@code jhipster.cache.ehcache.max-entries}.
+             */
+            private Long maxEntries;
+
+            /**
+             * Size of the off-heap tier in MB, none by default. Needs a large enough {@code -XX:MaxDirectMemorySize}.
+             */
+            private Long offHeapMb;
+
+            /**
+             * Size of the disk tier in MB, none by default.
+             */
+            private Long diskMb;
+
+            /**
+             * Whether the disk tier survives restarts.
+             */
+            private boolean diskPersistent = false;
+
+            /**
+             * Time to live of the entries, defaults to {@code jhipster.cache.ehcache.time-to-live-seconds}.
+             */
+            private Integer timeToLiveSeconds;
+
+            /**
+             * Time to idle of the entries: when set, it is used instead of the time to live.
+             */
+            private Integer timeToIdleSeconds;
+
+            public Long getMaxEntries() {
+                return maxEntries;
+            }
+
+            public void setMaxEntries(Long maxEntries) {
+                this.maxEntries = maxEntries;
+            }
+
+            public Long getOffHeapMb() {
+                return offHeapMb;
+            }
+
+            public void setOffHeapMb(Long offHeapMb) {
+                this.offHeapMb = offHeapMb;
+            }
+
+            public Long getDiskMb() {
+                return diskMb;
+            }
+
+            public void setDiskMb(Long diskMb) {
+                this.diskMb = diskMb;
+            }
+
+            public boolean isDiskPersistent() {
+                return diskPersistent;
+            }
+
+            public void setDiskPersistent(boolean diskPersistent) {
+                this.diskPersistent = diskPersistent;
+            }
+
+            public Integer getTimeToLiveSeconds() {
+                return timeToLiveSeconds;
+            }
+
+            public void setTimeToLiveSeconds(Integer timeToLiveSeconds) {
+                this.timeToLiveSeconds = timeToLiveSeconds;
+            }
+
+            public Integer getTimeToIdleSeconds() {
+                return timeToIdleSeconds;
+            }
+
+            public void setTimeToIdleSeconds(Integer timeToIdleSeconds) {
+                this.timeToIdleSeconds = timeToIdleSeconds;
+            }
+        }
+    }
+
+    public static class Security {
+
+        /**
+         * Maximum number of verified JWT tokens kept with their authentication, 0 to verify every token on each request.
+         */
+        private int tokenCacheMaxEntries = 10000;
+
+        public int getTokenCacheMaxEntries() {
+            return tokenCacheMaxEntries;
+        }
+
+        public void setTokenCacheMaxEntries(int tokenCacheMaxEntries) {
+            this.tokenCacheMaxEntries = tokenCacheMaxEntries;
+        }
+    }
+
+    public static class Mail {
+
+        /**
+         * Whether this instance sends the emails of the outbox.
+         */
+        private boolean dispatcherEnabled = true;
+
+        /**
+         * Delay between two polls of the outbox.
+         */
+        private Duration pollInterval = Duration.ofSeconds(5);
+
+        /**
+         * Maximum number of emails sent over one SMTP connection.
+         */
+        private int batchSize = 50;
+
+        /**
+         * Maximum number of emails sent per second, 0 for no limit.
+         */
+        private double maxMessagesPerSecond = 10;
+
+        /**
+         * Number of attempts after which an email is given up.
+         */
+        private int maxAttempts = 8;
+
+        /**
+         * Delay before the second attempt, doubled for each of the next ones.
+         */
+        private Duration initialBackoff = Duration.ofSeconds(30);
+
+        /**
+         * Maximum delay between two attempts.
+         */
+        private Duration maxBackoff = Duration.ofHours(1);
+
+        /**
+         * Time after which an email claimed by an instance that stopped before sending it is sent again.
+         */
+        private Duration claimTimeout = Duration.ofMinutes(5);
+
+        /**
+         * Number of threads rendering the emails of bulk sends.
+         */
+        private int renderingThreads = Runtime.getRuntime().availableProcessors();
+
+        /**
+         * Number of emails waiting to be rendered, beyond which the caller renders them itself.
+         */
+        private int renderingQueueCapacity = 1000;
+
+        public boolean isDispatcherEnabled() {
+            return dispatcherEnabled;
+        }
+
+        public void setDispatcherEnabled(boolean dispatcherEnabled) {
+            this.dispatcherEnabled = dispatcherEnabled;
+        }
+
+        public Duration getPollInterval() {
+            return pollInterval;
+        }
+
+        public void setPollInterval(Duration pollInterval) {
+            this.pollInterval = pollInterval;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public double getMaxMessagesPerSecond() {
+            return maxMessagesPerSecond;
+        }
+
+        public void setMaxMessagesPerSecond(double maxMessagesPerSecond) {
+            this.maxMessagesPerSecond = maxMessagesPerSecond;
+        }
+
+        public int getMaxAttempts() {
+            return maxAttempts;
+        }
+
+        public void setMaxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+        }
+
+        public Duration getInitialBackoff() {
+            return initialBackoff;
+        }
+
+        public void setInitialBackoff(Duration initialBackoff) {
+            this.initialBackoff = initialBackoff;
+        }
+
+        public Duration getMaxBackoff() {
+            return maxBackoff;
+        }
+
+        public void setMaxBackoff(Duration maxBackoff) {
+            this.maxBackoff = maxBackoff;
+        }
+
+        public Duration getClaimTimeout() {
+            return claimTimeout;
+        }
+
+        public void setClaimTimeout(Duration claimTimeout) {
+            this.claimTimeout = claimTimeout;
+        }
+
+        public int getRenderingThreads() {
+            return renderingThreads;
+        }
+
+        public void setRenderingThreads(int renderingThreads) {
+            this.renderingThreads = renderingThreads;
+        }
+
+        public int getRenderingQueueCapacity() {
+            return renderingQueueCapacity;
+        }
+
+        public void setRenderingQueueCapacity(int renderingQueueCapacity) {
+            this.renderingQueueCapacity = renderingQueueCapacity;
+        }
+    }
+
+    public static class Datasource {
+
+        private final Replica replica = new Replica();
+
+        public Replica getReplica() {
+            return replica;
+        }
+
+        public static class Replica {
+
+            /**
+             * JDBC URL of the read replica: when set, the read-only transactions use it.
+             */
+            private String url;
+
+            /**
+             * Login of the read replica, defaults to {@code spring.datasource.username}.
+             */
+            private String username;
+
+            /**
+             * Password of the read replica, defaults to {@code spring.datasource.password}.
+             */
+            private String password;
+
+            /**
+             * Query returning the replication lag in seconds, e.g. for PostgreSQL
+             * {@code select extract(epoch from now() - pg_last_xact_replay_timestamp())}. No lag check when not set.
+             */
+            private String lagQuery;
+
+            /**
+             * Lag beyond which the read-only transactions go back to the primary.
+             */
+            private Duration maxLag = Duration.ofSeconds(10);
+
+            /**
+             * Delay between two health and lag checks of the replica.
+             */
+            private Duration checkInterval = Duration.ofSeconds(5);
+
+            /**
+             * Hikari settings of the replica pool, like the {@code spring.datasource.hikari} ones of the primary.
+             */
+            private final Map<String, String> hikari = new HashMap<>();
+
+            public String getUrl() {
+                return url;
+            }
+
+            public void setUrl(String url) {
+                this.url = url;
+            }
+
+            public String getUsername() {
+                return username;
+            }
+
+            public void setUsername(String username) {
+                this.username = username;
+            }
+
+            public String getPassword() {
+                return password;
+            }
+
+            public void setPassword(String password) {
+                this.password = password;
+            }
+
+            public String getLagQuery() {
+                return lagQuery;
+            }
+
+            public void setLagQuery(String lagQuery) {
+                this.lagQuery = lagQuery;
+            }
+
+            public Duration getMaxLag() {
+                return maxLag;
+            }
+
+            public void setMaxLag(Duration maxLag) {
+                this.maxLag = maxLag;
+            }
+
+            public Duration getCheckInterval() {
+                return checkInterval;
+            }
+
+            public void setCheckInterval(Duration checkInterval) {
+                this.checkInterval = checkInterval;
+            }
+
+            public Map<String, String> getHikari() {
+                return hikari;
+            }
+        }
+    }
+
+    public static class Search {
+
+        /**
+         * Directory of the full-text indexes, one sub-directory per entity. The indexes are kept in memory when not set.
+         */
+        private String directory;
+
+        /**
+         * Maximum delay before a committed change is visible to the searches.
+         */
+        private Duration refreshInterval = Duration.ofSeconds(1);
+
+        /**
+         * Whether the indexes are rebuilt from the database when the application starts.
+         */
+        private boolean rebuildOnStartup = true;
+
+        public String getDirectory() {
+            return directory;
+        }
+
+        public void setDirectory(String directory) {
+            this.directory = directory;
+        }
+
+        public Duration getRefreshInterval() {
+            return refreshInterval;
+        }
+
+        public void setRefreshInterval(Duration refreshInterval) {
+            this.refreshInterval = refreshInterval;
+        }
+
+        public boolean isRebuildOnStartup() {
+            return rebuildOnStartup;
+        }
+
+        public void setRebuildOnStartup(boolean rebuildOnStartup) {
+            this.rebuildOnStartup = rebuildOnStartup;
+        }
+    }
+
+    public static class Catalog {
+
+        /**
+         * Whether {@code GET /api/coffees} is answered from a serialized snapshot of all the coffees.
+         */
+        private boolean snapshotEnabled = true;
+
+        /**
+         * Whether the snapshot is also kept gzipped, for the clients that accept it.
+         */
+        private boolean gzip = true;
+
+        public boolean isSnapshotEnabled() {
+            return snapshotEnabled;
+        }
+
+        public void setSnapshotEnabled(boolean snapshotEnabled) {
+            this.snapshotEnabled = snapshotEnabled;
+        }
+
+        public boolean isGzip() {
+            return gzip;
+        }
+
+        public void setGzip(boolean gzip) {
+            this.gzip = gzip;
+        }
+    }
+
+    public static class Jackson {
+
+        /**
+         * Whether Jackson reads and writes the properties through generated accessors (the Blackbird module), instead of
+         * reflection.
+         */
+        private boolean blackbird = false;
+
+        public boolean isBlackbird() {
+            return blackbird;
+        }
+
+        public void setBlackbird(boolean blackbird) {
+            this.blackbird = blackbird;
+        }
+    }
+
+    public static class Timing {
+
+        /**
+         * Whether the repository, service and REST methods are timed. When disabled, they are not even proxied for it.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Fraction of the calls that are timed, from 0 to 1: the counts of the timers are sampled too.
+         */
+        private double sampleRate = 1;
+
+        /**
+         * Percentiles computed in the application for each method, for example 0.5, 0.95 and 0.99. They cannot be
+         * aggregated across instances.
+         */
+        private List<Double> percentiles = new ArrayList<>();
+
+        /**
+         * Whether the percentile histogram of each method is published, for percentiles computed by Prometheus.
+         */
+        private boolean percentileHistogram = false;
+
+        /**
+         * Service level objectives, published as histogram buckets, for example 50ms and 200ms.
+         */
+        private List<Duration> slo = new ArrayList<>();
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public double getSampleRate() {
+            return sampleRate;
+        }
+
+        public void setSampleRate(double sampleRate) {
+            this.sampleRate = sampleRate;
+        }
+
+        public List<Double> getPercentiles() {
+            return percentiles;
+        }
+
+        public void setPercentiles(List<Double> percentiles) {
+            this.percentiles = percentiles;
+        }
+
+        public boolean isPercentileHistogram() {
+            return percentileHistogram;
+        }
+
+        public void setPercentileHistogram(boolean percentileHistogram) {
+            this.percentileHistogram = percentileHistogram;
+        }
+
+        public List<Duration> getSlo() {
+            return slo;
+        }
+
+        public void setSlo(List<Duration> slo) {
+            this.slo = slo;
+        }
+    }
+
+    public static class SqlStats {
+
+        /**
+         * Whether the SQL statements are timed by fingerprint: the statement with its literals replaced by placeholders.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Maximum number of fingerprints timed separately, the statements of any other fingerprint are timed together.
+         */
+        private int maxFingerprints = 200;
+
+        /**
+         * Minimum time taken by a statement for it to be logged as slow.
+         */
+        private Duration slowThreshold = Duration.ofMillis(500);
+
+        /**
+         * Fraction of the slow statements that are logged, from 0 to 1. The bind parameters are never logged, only
+         * their types.
+         */
+        private double slowLogSampleRate = 0.1;
+
+        /**
+         * Whether the percentile histogram of each fingerprint is published, for percentiles computed by Prometheus
+         * across instances.
+         */
+        private boolean percentileHistogram = true;
+
+        /**
+         * Service level objectives, published as histogram buckets, for example 10ms and 100ms.
+         */
+        private List<Duration> slo = new ArrayList<>();
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMaxFingerprints() {
+            return maxFingerprints;
+        }
+
+        public void setMaxFingerprints(int maxFingerprints) {
+            this.maxFingerprints = maxFingerprints;
+        }
+
+        public Duration getSlowThreshold() {
+            return slowThreshold;
+        }
+
+        public void setSlowThreshold(Duration slowThreshold) {
+            this.slowThreshold = slowThreshold;
+        }
+
+        public double getSlowLogSampleRate() {
+            return slowLogSampleRate;
+        }
+
+        public void setSlowLogSampleRate(double slowLogSampleRate) {
+            this.slowLogSampleRate = slowLogSampleRate;
+        }
+
+        public boolean isPercentileHistogram() {
+            return percentileHistogram;
+        }
+
+        public void setPercentileHistogram(boolean percentileHistogram) {
+            this.percentileHistogram = percentileHistogram;
+        }
+
+        public List<Duration> getSlo() {
+            return slo;
+        }
+
+        public void setSlo(List<Duration> slo) {
+            this.slo = slo;
+        }
+    }
+}
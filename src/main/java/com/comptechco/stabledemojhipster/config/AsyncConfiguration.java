@@ -1,6 +1,7 @@
 package com.comptechco.stabledemojhipster.config;
 
 import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
@@ -23,8 +24,11 @@ public class AsyncConfiguration implements AsyncConfigurer {
 
     private final TaskExecutionProperties taskExecutionProperties;
 
-    public AsyncConfiguration(TaskExecutionProperties taskExecutionProperties) {
+    private final ApplicationProperties applicationProperties;
+
+    public AsyncConfiguration(TaskExecutionProperties taskExecutionProperties, ApplicationProperties applicationProperties) {
         this.taskExecutionProperties = taskExecutionProperties;
+        this.applicationProperties = applicationProperties;
     }
 
     @Override
@@ -39,6 +43,23 @@ public class AsyncConfiguration implements AsyncConfigurer {
         return new ExceptionHandlingAsyncTaskExecutor(executor);
     }
 
+    /**
+     * Executor rendering the emails of bulk sends, kept apart from the {@code taskExecutor}. When its queue is full,
+     * the caller renders the email itself, which slows the producer down instead of failing.
+     */
+    @Bean(name = "mailRenderingExecutor", destroyMethod = "shutdown")
+    public ThreadPoolTaskExecutor mailRenderingExecutor() {
+        log.debug("Creating Mail Rendering Executor");
+        ApplicationProperties.Mail mail = applicationProperties.getMail();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(mail.getRenderingThreads());
+        executor.setMaxPoolSize(mail.getRenderingThreads());
+        executor.setQueueCapacity(mail.getRenderingQueueCapacity());
+        executor.setThreadNamePrefix("mail-rendering-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return executor;
+    }
+
     @Override
     public AsyncUncaughtExceptionHandler getAsyncUncaughtExceptionHandler() {
         return new SimpleAsyncUncaughtExceptionHandler();
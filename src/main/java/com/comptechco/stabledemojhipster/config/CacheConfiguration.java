@@ -1,10 +1,22 @@
 package com.comptechco.stabledemojhipster.config;
 
+import java.io.File;
 import java.time.Duration;
+import javax.cache.Caching;
 import org.ehcache.config.builders.*;
+import org.ehcache.config.units.EntryUnit;
+import org.ehcache.config.units.MemoryUnit;
+import org.ehcache.core.config.DefaultConfiguration;
+import org.ehcache.impl.config.persistence.DefaultPersistenceConfiguration;
+import org.ehcache.impl.serialization.PlainJavaSerializer;
 import org.ehcache.jsr107.Eh107Configuration;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.cache.JCacheManagerCustomizer;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
 import org.springframework.boot.info.BuildProperties;
 import org.springframework.boot.info.GitProperties;
 import org.springframework.cache.annotation.EnableCaching;
@@ -23,17 +35,36 @@ public class CacheConfiguration {
     private GitProperties gitProperties;
     private BuildProperties buildProperties;
     private final javax.cache.configuration.Configuration<Object, Object> jcacheConfiguration;
+    private final JHipsterProperties.Cache.Ehcache ehcache;
+    private final ApplicationProperties.Cache cacheProperties;
 
-    public CacheConfiguration(JHipsterProperties jHipsterProperties) {
-        JHipsterProperties.Cache.Ehcache ehcache = jHipsterProperties.getCache().getEhcache();
+    public CacheConfiguration(JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties) {
+        this.ehcache = jHipsterProperties.getCache().getEhcache();
+        this.cacheProperties = applicationProperties.getCache();
 
-        jcacheConfiguration =
-            Eh107Configuration.fromEhcacheCacheConfiguration(
-                CacheConfigurationBuilder
-                    .newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(ehcache.getMaxEntries()))
-                    .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(Duration.ofSeconds(ehcache.getTimeToLiveSeconds())))
-                    .build()
-            );
+        jcacheConfiguration = jcacheConfiguration(ehcache.getMaxEntries(), ehcache.getTimeToLiveSeconds());
+    }
+
+    /**
+     * Ehcache manager, declared here rather than by Spring Boot so that the disk tier can be given its directory.
+     */
+    @Bean(destroyMethod = "close")
+    public javax.cache.CacheManager jCacheCacheManager(ObjectProvider<JCacheManagerCustomizer> cacheManagerCustomizers) {
+        ClassLoader classLoader = getClass().getClassLoader();
+        DefaultConfiguration configuration = cacheProperties.getDiskPath() == null
+            ? new DefaultConfiguration(classLoader)
+            : new DefaultConfiguration(classLoader, new DefaultPersistenceConfiguration(new File(cacheProperties.getDiskPath())));
+        EhcacheCachingProvider cachingProvider = (EhcacheCachingProvider) Caching.getCachingProvider(
+            EhcacheCachingProvider.class.getName()
+        );
+        javax.cache.CacheManager cacheManager = cachingProvider.getCacheManager(cachingProvider.getDefaultURI(), configuration);
+        cacheManagerCustomizers.orderedStream().forEach(customizer -> customizer.customize(cacheManager));
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernatePropertiesCustomizer(javax.cache.CacheManager cacheManager) {
+        return hibernateProperties -> hibernateProperties.put(ConfigSettings.CACHE_MANAGER, cacheManager);
     }
 
     @Bean
@@ -41,17 +72,87 @@ public class CacheConfiguration {
         return cm -> {
             createCache(cm, com.comptechco.stabledemojhipster.repository.UserRepository.USERS_BY_LOGIN_CACHE);
             createCache(cm, com.comptechco.stabledemojhipster.repository.UserRepository.USERS_BY_EMAIL_CACHE);
+            createCache(cm, com.comptechco.stabledemojhipster.domain.Coffee.class.getName());
+            createCache(cm, com.comptechco.stabledemojhipster.domain.Customer.class.getName());
+            createCache(cm, com.comptechco.stabledemojhipster.repository.CustomerRepository.CUSTOMERS_BY_PHONE_DIGITS_CACHE);
+            createCache(cm, RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME);
+            // The update timestamps must outlive the query results they invalidate, so they never expire
+            createCache(
+                cm,
+                RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+                Eh107Configuration.fromEhcacheCacheConfiguration(
+                    CacheConfigurationBuilder
+                        .newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(ehcache.getMaxEntries()))
+                        .withExpiry(ExpiryPolicyBuilder.noExpiration())
+                        .build()
+                )
+            );
             // jhipster-needle-ehcache-add-entry
         };
     }
 
     private void createCache(javax.cache.CacheManager cm, String cacheName) {
+        ApplicationProperties.Cache.Region region = cacheProperties.getRegions().get(cacheName);
+        createCache(cm, cacheName, region == null ? jcacheConfiguration : jcacheConfiguration(region));
+    }
+
+    private void createCache(
+        javax.cache.CacheManager cm,
+        String cacheName,
+        javax.cache.configuration.Configuration<Object, Object> configuration
+    ) {
         javax.cache.Cache<Object, Object> cache = cm.getCache(cacheName);
         if (cache != null) {
             cache.clear();
         } else {
-            cm.createCache(cacheName, jcacheConfiguration);
+            cm.createCache(cacheName, configuration);
+        }
+        // Needed for the hit, miss and eviction meters
+        cm.enableStatistics(cacheName, true);
+    }
+
+    private static javax.cache.configuration.Configuration<Object, Object> jcacheConfiguration(long maxEntries, long timeToLiveSeconds) {
+        return Eh107Configuration.fromEhcacheCacheConfiguration(
+            CacheConfigurationBuilder
+                .newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(maxEntries))
+                .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(Duration.ofSeconds(timeToLiveSeconds)))
+                .build()
+        );
+    }
+
+    private javax.cache.configuration.Configuration<Object, Object> jcacheConfiguration(ApplicationProperties.Cache.Region region) {
+        ResourcePoolsBuilder resourcePools = ResourcePoolsBuilder
+            .newResourcePoolsBuilder()
+            .heap(region.getMaxEntries() != null ? region.getMaxEntries() : ehcache.getMaxEntries(), EntryUnit.ENTRIES);
+        if (region.getOffHeapMb() != null) {
+            resourcePools = resourcePools.offheap(region.getOffHeapMb(), MemoryUnit.MB);
+        }
+        if (region.getDiskMb() != null) {
+            if (cacheProperties.getDiskPath() == null) {
+                throw new IllegalStateException("application.cache.disk-path must be set to use a disk tier");
+            }
+            resourcePools = resourcePools.disk(region.getDiskMb(), MemoryUnit.MB, region.isDiskPersistent());
+        }
+        CacheConfigurationBuilder<Object, Object> builder = CacheConfigurationBuilder
+            .newCacheConfigurationBuilder(Object.class, Object.class, resourcePools)
+            .withExpiry(
+                region.getTimeToIdleSeconds() != null
+                    ? ExpiryPolicyBuilder.timeToIdleExpiration(Duration.ofSeconds(region.getTimeToIdleSeconds()))
+                    : ExpiryPolicyBuilder.timeToLiveExpiration(
+                        Duration.ofSeconds(
+                            region.getTimeToLiveSeconds() != null ? region.getTimeToLiveSeconds() : ehcache.getTimeToLiveSeconds()
+                        )
+                    )
+            );
+        if (region.getOffHeapMb() != null || region.getDiskMb() != null) {
+            // The entries leave the Java heap, so they are stored serialized
+            ClassLoader classLoader = getClass().getClassLoader();
+            builder =
+                builder
+                    .withKeySerializer(new PlainJavaSerializer<>(classLoader))
+                    .withValueSerializer(new PlainJavaSerializer<>(classLoader));
         }
+        return Eh107Configuration.fromEhcacheCacheConfiguration(builder.build());
     }
 
     @Autowired(required = false)
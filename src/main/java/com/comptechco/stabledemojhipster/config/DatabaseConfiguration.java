@@ -1,11 +1,23 @@
 package com.comptechco.stabledemojhipster.config;
 
+import com.comptechco.stabledemojhipster.management.SqlStatsService;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import javax.sql.DataSource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 import tech.jhipster.config.JHipsterConstants;
 
@@ -13,4 +25,78 @@ import tech.jhipster.config.JHipsterConstants;
 @EnableJpaRepositories({ "com.comptechco.stabledemojhipster.repository" })
 @EnableJpaAuditing(auditorAwareRef = "springSecurityAuditorAware")
 @EnableTransactionManagement
-public class DatabaseConfiguration {}
+public class DatabaseConfiguration {
+
+    /**
+     * Times the SQL statements by fingerprint when {@code application.sql-stats.enabled} is true: the primary data
+     * source is wrapped in a {@link SqlStatsDataSource}.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "application.sql-stats", name = "enabled", havingValue = "true")
+    public static BeanPostProcessor sqlStatsDataSourcePostProcessor(ObjectProvider<SqlStatsService> sqlStatsService) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource && "dataSource".equals(beanName)) {
+                    return new SqlStatsDataSource((DataSource) bean, sqlStatsService.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * Read/write splitting, enabled by setting {@code application.datasource.replica.url}: the read-only transactions
+     * use the replica pool, everything else uses the primary pool configured by {@code spring.datasource}.
+     */
+    @Configuration
+    @ConditionalOnProperty(prefix = "application.datasource.replica", name = "url")
+    static class ReplicaRoutingConfiguration {
+
+        private final Logger log = LoggerFactory.getLogger(ReplicaRoutingConfiguration.class);
+
+        @Bean
+        @ConfigurationProperties("spring.datasource.hikari")
+        public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+            return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        }
+
+        @Bean
+        @ConfigurationProperties("application.datasource.replica.hikari")
+        public HikariDataSource replicaDataSource(DataSourceProperties properties, ApplicationProperties applicationProperties) {
+            ApplicationProperties.Datasource.Replica replica = applicationProperties.getDatasource().getReplica();
+            log.debug("Configuring read replica {}", replica.getUrl());
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setJdbcUrl(replica.getUrl());
+            dataSource.setUsername(replica.getUsername() != null ? replica.getUsername() : properties.determineUsername());
+            dataSource.setPassword(replica.getPassword() != null ? replica.getPassword() : properties.determinePassword());
+            dataSource.setPoolName("HikariReplica");
+            dataSource.setReadOnly(true);
+            // Like the primary pool: Hibernate does not disable the auto-commit itself, see provider_disables_autocommit,
+            // and the PostgreSQL driver only streams the result sets with a fetch size outside of it
+            dataSource.setAutoCommit(false);
+            return dataSource;
+        }
+
+        @Bean
+        public ReplicaRoutingDataSource routingDataSource(
+            @Qualifier("primaryDataSource") DataSource primaryDataSource,
+            @Qualifier("replicaDataSource") DataSource replicaDataSource,
+            ApplicationProperties applicationProperties,
+            MeterRegistry meterRegistry
+        ) {
+            return new ReplicaRoutingDataSource(
+                primaryDataSource,
+                replicaDataSource,
+                applicationProperties.getDatasource().getReplica(),
+                meterRegistry
+            );
+        }
+
+        @Bean
+        @Primary
+        public DataSource dataSource(ReplicaRoutingDataSource routingDataSource) {
+            return new LazyConnectionDataSourceProxy(routingDataSource);
+        }
+    }
+}
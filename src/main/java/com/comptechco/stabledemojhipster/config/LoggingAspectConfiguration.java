@@ -1,6 +1,9 @@
 package com.comptechco.stabledemojhipster.config;
 
 import com.comptechco.stabledemojhipster.aop.logging.LoggingAspect;
+import com.comptechco.stabledemojhipster.aop.timing.TimingAspect;
+import com.comptechco.stabledemojhipster.management.MethodTimingMetersService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.*;
 import org.springframework.core.env.Environment;
 import tech.jhipster.config.JHipsterConstants;
@@ -14,4 +17,10 @@ public class LoggingAspectConfiguration {
     public LoggingAspect loggingAspect(Environment env) {
         return new LoggingAspect(env);
     }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "application.timing", name = "enabled", havingValue = "true")
+    public TimingAspect timingAspect(MethodTimingMetersService methodTimingMetersService, ApplicationProperties applicationProperties) {
+        return new TimingAspect(methodTimingMetersService, applicationProperties.getTiming().getSampleRate());
+    }
 }
@@ -0,0 +1,152 @@
+package com.comptechco.stabledemojhipster.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Sends the connections of read-only transactions to the read replica, and all the others to the primary.
+ * <p>
+ * The replica is checked periodically: while it is unreachable, or lags behind the primary by more than the maximum
+ * lag, the read-only transactions use the primary too. It is not used until the first check, which runs on the
+ * scheduler once the application has started, so that an unreachable replica does not delay the startup.
+ * <p>
+ * The routing depends on the transaction, so this data source must be wrapped in a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: the transaction managers get their
+ * connection before the transaction is marked read-only, and the proxy defers the choice until the first statement.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY = "primary";
+    public static final String REPLICA = "replica";
+
+    public static final String CONNECTIONS_METER_NAME = "datasource.routing.connections";
+    public static final String CONNECTIONS_METER_DESCRIPTION = "Indicates the connections obtained from each pool.";
+    public static final String CONNECTIONS_METER_POOL_DIMENSION = "pool";
+    public static final String CONNECTIONS_METER_READ_ONLY_DIMENSION = "read-only";
+    public static final String REPLICA_AVAILABLE_METER_NAME = "datasource.replica.available";
+    public static final String REPLICA_LAG_METER_NAME = "datasource.replica.lag";
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private final DataSource replica;
+
+    private final String lagQuery;
+
+    private final Duration maxLag;
+
+    private final Map<String, Counter> readOnlyCounters = new HashMap<>();
+
+    private final Map<String, Counter> readWriteCounters = new HashMap<>();
+
+    private volatile boolean replicaAvailable;
+
+    private volatile double replicaLagSeconds;
+
+    public ReplicaRoutingDataSource(
+        DataSource primary,
+        DataSource replica,
+        ApplicationProperties.Datasource.Replica replicaProperties,
+        MeterRegistry registry
+    ) {
+        this.replica = replica;
+        this.lagQuery = replicaProperties.getLagQuery();
+        this.maxLag = replicaProperties.getMaxLag();
+
+        Map<Object, Object> targetDataSources = new HashMap<>();
+        targetDataSources.put(PRIMARY, primary);
+        targetDataSources.put(REPLICA, replica);
+        setTargetDataSources(targetDataSources);
+        setDefaultTargetDataSource(primary);
+
+        for (String pool : new String[] { PRIMARY, REPLICA }) {
+            readOnlyCounters.put(pool, connectionsCounter(pool, true).register(registry));
+            readWriteCounters.put(pool, connectionsCounter(pool, false).register(registry));
+        }
+        Gauge
+            .builder(REPLICA_AVAILABLE_METER_NAME, this, dataSource -> dataSource.isReplicaAvailable() ? 1 : 0)
+            .description("Indicates whether the read-only transactions use the replica.")
+            .register(registry);
+        Gauge
+            .builder(REPLICA_LAG_METER_NAME, this, dataSource -> dataSource.replicaLagSeconds)
+            .baseUnit("seconds")
+            .description("Indicates the replication lag measured at the last check.")
+            .register(registry);
+    }
+
+    private static Counter.Builder connectionsCounter(String pool, boolean readOnly) {
+        return Counter
+            .builder(CONNECTIONS_METER_NAME)
+            .description(CONNECTIONS_METER_DESCRIPTION)
+            .tag(CONNECTIONS_METER_POOL_DIMENSION, pool)
+            .tag(CONNECTIONS_METER_READ_ONLY_DIMENSION, String.valueOf(readOnly));
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        boolean readOnly = TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        String pool = readOnly && replicaAvailable ? REPLICA : PRIMARY;
+        (readOnly ? readOnlyCounters : readWriteCounters).get(pool).increment();
+        return pool;
+    }
+
+    /**
+     * Check that the replica answers, and that its lag is below the maximum lag.
+     */
+    @Scheduled(
+        initialDelay = 0,
+        fixedDelayString = "${application.datasource.replica.check-interval:PT5S}"
+    )
+    public void checkReplica() {
+        try (Connection connection = replica.getConnection()) {
+            if (!connection.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+                setReplicaAvailable(false, "the connection is not valid");
+                return;
+            }
+            double lagSeconds = lagQuery != null ? queryLagSeconds(connection) : 0;
+            replicaLagSeconds = lagSeconds;
+            if (lagSeconds * 1000 > maxLag.toMillis()) {
+                setReplicaAvailable(false, "it lags " + lagSeconds + " seconds behind the primary");
+            } else {
+                setReplicaAvailable(true, null);
+            }
+        } catch (SQLException e) {
+            setReplicaAvailable(false, e.getMessage());
+        }
+    }
+
+    private double queryLagSeconds(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement(); ResultSet resultSet = statement.executeQuery(lagQuery)) {
+            // No row or null: nothing to replay, e.g. no write since the replica started
+            return resultSet.next() ? resultSet.getDouble(1) : 0;
+        }
+    }
+
+    private void setReplicaAvailable(boolean available, String reason) {
+        if (available && !replicaAvailable) {
+            log.info("Read replica is available, read-only transactions use it");
+        } else if (!available && replicaAvailable) {
+            log.warn("Read replica is not available, read-only transactions use the primary: {}", reason);
+        }
+        replicaAvailable = available;
+    }
+
+    public boolean isReplicaAvailable() {
+        return replicaAvailable;
+    }
+}
@@ -0,0 +1,217 @@
+package com.comptechco.stabledemojhipster.config;
+
+import com.comptechco.stabledemojhipster.management.SqlStatsService;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Times each SQL statement run on the connections of the target data source, see {@link SqlStatsService}.
+ * <p>
+ * The connections and the statements are wrapped in JDK proxies, which time the {@code execute*} methods and remember
+ * the types of the bind parameters for the slow statement log, never their values. The result sets are wrapped too,
+ * only so that {@link ResultSet#getStatement()} returns the statement proxy: reading them is not timed.
+ * <p>
+ * The proxies never hand out their targets: {@link Statement#getConnection()} and {@link ResultSet#getStatement()}
+ * return the proxies, and so does {@code unwrap} for the JDBC interfaces. Only the vendor interfaces, e.g. to copy
+ * rows in bulk, unwrap to the target, whose statements are not timed.
+ */
+public class SqlStatsDataSource extends DelegatingDataSource {
+
+    private static final String NULL_PARAMETER = "null";
+
+    private final SqlStatsService sqlStatsService;
+
+    public SqlStatsDataSource(DataSource targetDataSource, SqlStatsService sqlStatsService) {
+        super(targetDataSource);
+        this.sqlStatsService = sqlStatsService;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return proxy(Connection.class, new ConnectionInvocationHandler(obtainTargetDataSource().getConnection()));
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return proxy(Connection.class, new ConnectionInvocationHandler(obtainTargetDataSource().getConnection(username, password)));
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(SqlStatsDataSource.class.getClassLoader(), new Class<?>[] { type }, handler));
+    }
+
+    private static Object invokeTarget(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    /**
+     * Answers the methods that must see the proxy rather than its target: the proxies are compared by identity, as
+     * their targets do not know them, and are what {@code unwrap} returns when they implement the requested interface.
+     *
+     * @return the result, or {@code null} if the method is to be invoked on the target.
+     */
+    private static Object proxyMethod(Object proxy, Object target, Method method, Object[] args) throws Throwable {
+        String name = method.getName();
+        if ("equals".equals(name) && args != null && args.length == 1) {
+            return proxy == args[0];
+        }
+        if ("hashCode".equals(name) && (args == null || args.length == 0)) {
+            return System.identityHashCode(proxy);
+        }
+        if (("unwrap".equals(name) || "isWrapperFor".equals(name)) && args != null && args.length == 1) {
+            if (((Class<?>) args[0]).isInstance(proxy)) {
+                return "unwrap".equals(name) ? proxy : Boolean.TRUE;
+            }
+            return invokeTarget(target, method, args);
+        }
+        return null;
+    }
+
+    private final class ConnectionInvocationHandler implements InvocationHandler {
+
+        private final Connection connection;
+
+        ConnectionInvocationHandler(Connection connection) {
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object proxyResult = proxyMethod(proxy, connection, method, args);
+            if (proxyResult != null) {
+                return proxyResult;
+            }
+            Object result = invokeTarget(connection, method, args);
+            if (result instanceof Statement && Statement.class.isAssignableFrom(method.getReturnType())) {
+                // prepareStatement and prepareCall take the statement first, createStatement has none
+                String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : null;
+                return proxy(method.getReturnType(), new StatementInvocationHandler((Statement) result, (Connection) proxy, sql));
+            }
+            return result;
+        }
+    }
+
+    private final class StatementInvocationHandler implements InvocationHandler {
+
+        private final Statement statement;
+
+        private final Connection connectionProxy;
+
+        private final String preparedSql;
+
+        private final List<String> parameterTypes;
+
+        private String batchSql;
+
+        StatementInvocationHandler(Statement statement, Connection connectionProxy, String preparedSql) {
+            this.statement = statement;
+            this.connectionProxy = connectionProxy;
+            this.preparedSql = preparedSql;
+            this.parameterTypes = new ArrayList<>();
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object proxyResult = proxyMethod(proxy, statement, method, args);
+            if (proxyResult != null) {
+                return proxyResult;
+            }
+            String name = method.getName();
+            if ("getConnection".equals(name)) {
+                return connectionProxy;
+            }
+            Object result = name.startsWith("execute") ? execute(method, args) : invokeStatement(name, method, args);
+            if (result instanceof ResultSet) {
+                // executeQuery, getResultSet and getGeneratedKeys
+                return proxy(ResultSet.class, new ResultSetInvocationHandler((ResultSet) result, (Statement) proxy));
+            }
+            return result;
+        }
+
+        private Object invokeStatement(String name, Method method, Object[] args) throws Throwable {
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                // The parameter setters of the prepared statements, the setters of the statement itself take one argument
+                boolean isNull = "setNull".equals(name) || args[1] == null;
+                setParameterType((Integer) args[0], isNull ? NULL_PARAMETER : args[1].getClass().getSimpleName());
+            } else if ("clearParameters".equals(name)) {
+                parameterTypes.clear();
+            } else if ("addBatch".equals(name) && args != null && args.length == 1 && batchSql == null) {
+                batchSql = (String) args[0];
+            }
+            return invokeTarget(statement, method, args);
+        }
+
+        private Object execute(Method method, Object[] args) throws Throwable {
+            String sql = preparedSql != null ? preparedSql : batchSql;
+            if (args != null && args.length > 0 && args[0] instanceof String) {
+                sql = (String) args[0];
+            }
+            if ("executeBatch".equals(method.getName()) || "executeLargeBatch".equals(method.getName())) {
+                batchSql = null;
+            }
+            if (sql == null) {
+                parameterTypes.clear();
+                return invokeTarget(statement, method, args);
+            }
+            long start = System.nanoTime();
+            boolean failed = true;
+            try {
+                Object result = invokeTarget(statement, method, args);
+                failed = false;
+                return result;
+            } finally {
+                sqlStatsService.record(sql, System.nanoTime() - start, failed, parameterTypes);
+                // The parameters of the next execution are set again, the types of these ones must not be logged with it
+                parameterTypes.clear();
+            }
+        }
+
+        private void setParameterType(int index, String type) {
+            if (index < 1) {
+                return;
+            }
+            while (parameterTypes.size() < index) {
+                parameterTypes.add(NULL_PARAMETER);
+            }
+            parameterTypes.set(index - 1, type);
+        }
+    }
+
+    private static final class ResultSetInvocationHandler implements InvocationHandler {
+
+        private final ResultSet resultSet;
+
+        private final Statement statementProxy;
+
+        ResultSetInvocationHandler(ResultSet resultSet, Statement statementProxy) {
+            this.resultSet = resultSet;
+            this.statementProxy = statementProxy;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object proxyResult = proxyMethod(proxy, resultSet, method, args);
+            if (proxyResult != null) {
+                return proxyResult;
+            }
+            if ("getStatement".equals(method.getName())) {
+                return statementProxy;
+            }
+            return invokeTarget(resultSet, method, args);
+        }
+    }
+}
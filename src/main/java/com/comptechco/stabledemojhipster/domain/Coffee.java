@@ -3,19 +3,23 @@ package com.comptechco.stabledemojhipster.domain;
 import java.io.Serializable;
 import javax.persistence.*;
 import javax.validation.constraints.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
 
 /**
  * A Coffee.
  */
 @Entity
 @Table(name = "coffee")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Coffee implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
-    @SequenceGenerator(name = "sequenceGenerator")
+    @GenericGenerator(name = "sequenceGenerator", strategy = SequenceIdGenerator.STRATEGY)
     @Column(name = "id")
     private Long id;
 
@@ -28,6 +32,13 @@ public class Coffee implements Serializable {
     @Column(name = "price")
     private Double price;
 
+    /**
+     * Incremented on each update, which only applies if the version is still the one that was read.
+     */
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     // jhipster-needle-entity-add-field - JHipster will add fields here
 
     public Long getId() {
@@ -69,6 +80,19 @@ public class Coffee implements Serializable {
         this.price = price;
     }
 
+    public Long getVersion() {
+        return this.version;
+    }
+
+    public Coffee version(Long version) {
+        this.setVersion(version);
+        return this;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
 
     @Override
@@ -95,6 +119,7 @@ public class Coffee implements Serializable {
             "id=" + getId() +
             ", name='" + getName() + "'" +
             ", price=" + getPrice() +
+            ", version=" + getVersion() +
             "}";
     }
 }
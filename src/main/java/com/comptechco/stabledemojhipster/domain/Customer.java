@@ -1,21 +1,26 @@
 package com.comptechco.stabledemojhipster.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import java.io.Serializable;
 import javax.persistence.*;
 import javax.validation.constraints.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
 
 /**
  * A Customer.
  */
 @Entity
 @Table(name = "customer")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Customer implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
-    @SequenceGenerator(name = "sequenceGenerator")
+    @GenericGenerator(name = "sequenceGenerator", strategy = SequenceIdGenerator.STRATEGY)
     @Column(name = "id")
     private Long id;
 
@@ -23,11 +28,25 @@ public class Customer implements Serializable {
     @Column(name = "name", length = 50, unique = true)
     private String name;
 
-    @Size(min = 10, max = 12)
-    @Pattern(regexp = "(\\d{3}\\)\\d{3}-?\\d{6}")
-    @Column(name = "phone_number", length = 12, unique = true)
+    @Size(min = 12, max = 15)
+    @Pattern(regexp = "(\\(\\d{3}\\)|\\d{3})\\d{3}-?\\d{6}")
+    @Column(name = "phone_number", length = 15, unique = true)
     private String phoneNumber;
 
+    /**
+     * The digits of the phone number, whatever its formatting, so that a number can be looked up.
+     */
+    @JsonIgnore
+    @Column(name = "phone_digits", length = 12, unique = true)
+    private String phoneDigits;
+
+    /**
+     * Incremented on each update, which only applies if the version is still the one that was read.
+     */
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     // jhipster-needle-entity-add-field - JHipster will add fields here
 
     public Long getId() {
@@ -67,6 +86,41 @@ public class Customer implements Serializable {
 
     public void setPhoneNumber(String phoneNumber) {
         this.phoneNumber = phoneNumber;
+        this.phoneDigits = phoneNumber != null ? phoneDigitsOf(phoneNumber) : null;
+    }
+
+    public String getPhoneDigits() {
+        return this.phoneDigits;
+    }
+
+    /**
+     * Get the digits of a phone number, which is how the phone numbers are compared.
+     *
+     * @param phoneNumber a phone number, in any format.
+     * @return the digits of the phone number.
+     */
+    public static String phoneDigitsOf(String phoneNumber) {
+        StringBuilder digits = new StringBuilder(phoneNumber.length());
+        for (int i = 0; i < phoneNumber.length(); i++) {
+            char c = phoneNumber.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits.append(c);
+            }
+        }
+        return digits.toString();
+    }
+
+    public Long getVersion() {
+        return this.version;
+    }
+
+    public Customer version(Long version) {
+        this.setVersion(version);
+        return this;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
     }
 
     // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
@@ -95,6 +149,8 @@ public class Customer implements Serializable {
             "id=" + getId() +
             ", name='" + getName() + "'" +
             ", phoneNumber='" + getPhoneNumber() + "'" +
+            ", phoneDigits='" + getPhoneDigits() + "'" +
+            ", version=" + getVersion() +
             "}";
     }
 }
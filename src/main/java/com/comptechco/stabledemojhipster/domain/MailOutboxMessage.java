@@ -0,0 +1,199 @@
+package com.comptechco.stabledemojhipster.domain;
+
+import com.comptechco.stabledemojhipster.domain.enumeration.MailOutboxStatus;
+import java.io.Serializable;
+import java.time.Instant;
+import javax.persistence.*;
+import javax.validation.constraints.*;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Type;
+
+/**
+ * An email waiting in the outbox, or already sent from it.
+ * <p>
+ * Emails are written in the transaction of the business operation that sends them, and delivered by the
+ * {@link com.comptechco.stabledemojhipster.service.MailOutboxDispatcher} once that transaction has committed.
+ */
+@Entity
+@Table(name = "mail_outbox")
+public class MailOutboxMessage implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
+    @GenericGenerator(name = "sequenceGenerator", strategy = SequenceIdGenerator.STRATEGY)
+    @Column(name = "id")
+    private Long id;
+
+    @NotNull
+    @Size(max = 254)
+    @Column(name = "recipient", length = 254, nullable = false)
+    private String recipient;
+
+    @Size(max = 255)
+    @Column(name = "subject")
+    private String subject;
+
+    @Lob
+    @Type(type = "org.hibernate.type.TextType")
+    @Column(name = "content", nullable = false)
+    private String content;
+
+    @Column(name = "multipart", nullable = false)
+    private boolean multipart;
+
+    @Column(name = "html", nullable = false)
+    private boolean html;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", length = 10, nullable = false)
+    private MailOutboxStatus status;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @NotNull
+    @Column(name = "next_attempt_at", nullable = false)
+    private Instant nextAttemptAt;
+
+    @NotNull
+    @Column(name = "created_date", nullable = false, updatable = false)
+    private Instant createdDate;
+
+    @Column(name = "sent_date")
+    private Instant sentDate;
+
+    @Size(max = 1000)
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getRecipient() {
+        return recipient;
+    }
+
+    public void setRecipient(String recipient) {
+        this.recipient = recipient;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public void setSubject(String subject) {
+        this.subject = subject;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public void setContent(String content) {
+        this.content = content;
+    }
+
+    public boolean isMultipart() {
+        return multipart;
+    }
+
+    public void setMultipart(boolean multipart) {
+        this.multipart = multipart;
+    }
+
+    public boolean isHtml() {
+        return html;
+    }
+
+    public void setHtml(boolean html) {
+        this.html = html;
+    }
+
+    public MailOutboxStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(MailOutboxStatus status) {
+        this.status = status;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public Instant getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    public void setNextAttemptAt(Instant nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
+
+    public Instant getCreatedDate() {
+        return createdDate;
+    }
+
+    public void setCreatedDate(Instant createdDate) {
+        this.createdDate = createdDate;
+    }
+
+    public Instant getSentDate() {
+        return sentDate;
+    }
+
+    public void setSentDate(Instant sentDate) {
+        this.sentDate = sentDate;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof MailOutboxMessage)) {
+            return false;
+        }
+        return id != null && id.equals(((MailOutboxMessage) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "MailOutboxMessage{" +
+            "id=" + getId() +
+            ", recipient='" + getRecipient() + "'" +
+            ", subject='" + getSubject() + "'" +
+            ", status='" + getStatus() + "'" +
+            ", attempts=" + getAttempts() +
+            ", nextAttemptAt='" + getNextAttemptAt() + "'" +
+            ", createdDate='" + getCreatedDate() + "'" +
+            ", sentDate='" + getSentDate() + "'" +
+            "}";
+    }
+}
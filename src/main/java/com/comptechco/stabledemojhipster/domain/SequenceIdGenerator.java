@@ -0,0 +1,38 @@
+package com.comptechco.stabledemojhipster.domain;
+
+import java.util.Properties;
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.config.spi.StandardConverters;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+/**
+ * Identifier generator shared by the entities, backed by the {@code sequence_generator} database sequence.
+ * <p>
+ * Ids are allocated in blocks, so only one {@code nextval} round trip is needed per block of inserts. The block
+ * size defaults to {@link #DEFAULT_INCREMENT_SIZE} and can be changed with the {@link #INCREMENT_SIZE_SETTING}
+ * Hibernate setting, but it must stay in line with the {@code incrementBy} of the Liquibase sequence definition.
+ * The optimizer is the one set by {@code hibernate.id.optimizer.pooled.preferred} ({@code pooled-lo}).
+ */
+public class SequenceIdGenerator extends SequenceStyleGenerator {
+
+    public static final String STRATEGY = "com.comptechco.stabledemojhipster.domain.SequenceIdGenerator";
+
+    public static final String SEQUENCE_NAME = "sequence_generator";
+
+    public static final String INCREMENT_SIZE_SETTING = "stabledemojhipster.id.increment_size";
+
+    public static final int DEFAULT_INCREMENT_SIZE = 50;
+
+    @Override
+    public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) throws MappingException {
+        Integer incrementSize = serviceRegistry
+            .getService(ConfigurationService.class)
+            .getSetting(INCREMENT_SIZE_SETTING, StandardConverters.INTEGER, DEFAULT_INCREMENT_SIZE);
+        params.putIfAbsent(SEQUENCE_PARAM, SEQUENCE_NAME);
+        params.putIfAbsent(INCREMENT_PARAM, incrementSize.toString());
+        super.configure(type, params, serviceRegistry);
+    }
+}
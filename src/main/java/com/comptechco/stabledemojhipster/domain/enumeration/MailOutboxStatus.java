@@ -0,0 +1,10 @@
+package com.comptechco.stabledemojhipster.domain.enumeration;
+
+/**
+ * The MailOutboxStatus enumeration.
+ */
+public enum MailOutboxStatus {
+    PENDING,
+    SENT,
+    FAILED,
+}
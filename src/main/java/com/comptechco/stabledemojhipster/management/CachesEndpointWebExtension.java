@@ -0,0 +1,134 @@
+package com.comptechco.stabledemojhipster.management;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.search.Search;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.springframework.boot.actuate.autoconfigure.endpoint.condition.ConditionalOnAvailableEndpoint;
+import org.springframework.boot.actuate.cache.CachesEndpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.web.annotation.EndpointWebExtension;
+import org.springframework.stereotype.Component;
+
+/**
+ * Adds the hit, miss and eviction ratios of each cache to the {@code /management/caches} endpoint.
+ * <p>
+ * The statistics come from the cache meters bound by Spring Boot, which are also published to Prometheus.
+ */
+@Component
+@ConditionalOnAvailableEndpoint(endpoint = CachesEndpoint.class)
+@EndpointWebExtension(endpoint = CachesEndpoint.class)
+public class CachesEndpointWebExtension {
+
+    private final CachesEndpoint delegate;
+
+    private final MeterRegistry meterRegistry;
+
+    public CachesEndpointWebExtension(CachesEndpoint delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @ReadOperation
+    public Map<String, Object> caches() {
+        Map<String, Object> cacheManagers = new LinkedHashMap<>();
+        delegate
+            .caches()
+            .getCacheManagers()
+            .forEach((cacheManagerName, cacheManager) -> {
+                Map<String, CacheStatisticsDescriptor> caches = new LinkedHashMap<>();
+                cacheManager.getCaches().forEach((cacheName, cache) -> caches.put(cacheName, statistics(cacheName, cache.getTarget())));
+                cacheManagers.put(cacheManagerName, Map.of("caches", caches));
+            });
+        return Map.of("cacheManagers", cacheManagers);
+    }
+
+    private CacheStatisticsDescriptor statistics(String cacheName, String target) {
+        double hits = count(meterRegistry.find("cache.gets").tag("cache", cacheName).tag("result", "hit"));
+        double misses = count(meterRegistry.find("cache.gets").tag("cache", cacheName).tag("result", "miss"));
+        double puts = count(meterRegistry.find("cache.puts").tag("cache", cacheName));
+        double evictions = count(meterRegistry.find("cache.evictions").tag("cache", cacheName));
+        return new CacheStatisticsDescriptor(
+            target,
+            hits,
+            misses,
+            evictions,
+            ratio(hits, hits + misses),
+            ratio(misses, hits + misses),
+            ratio(evictions, puts)
+        );
+    }
+
+    private static double count(Search search) {
+        FunctionCounter counter = search.functionCounter();
+        return counter != null ? counter.count() : 0;
+    }
+
+    private static double ratio(double value, double total) {
+        return total > 0 ? value / total : 0;
+    }
+
+    /**
+     * Description of a cache, with its statistics.
+     */
+    public static final class CacheStatisticsDescriptor {
+
+        private final String target;
+        private final double hits;
+        private final double misses;
+        private final double evictions;
+        private final double hitRatio;
+        private final double missRatio;
+        private final double evictionRatio;
+
+        CacheStatisticsDescriptor(
+            String target,
+            double hits,
+            double misses,
+            double evictions,
+            double hitRatio,
+            double missRatio,
+            double evictionRatio
+        ) {
+            this.target = target;
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.hitRatio = hitRatio;
+            this.missRatio = missRatio;
+            this.evictionRatio = evictionRatio;
+        }
+
+        public String getTarget() {
+            return target;
+        }
+
+        public double getHits() {
+            return hits;
+        }
+
+        public double getMisses() {
+            return misses;
+        }
+
+        public double getEvictions() {
+            return evictions;
+        }
+
+        public double getHitRatio() {
+            return hitRatio;
+        }
+
+        public double getMissRatio() {
+            return missRatio;
+        }
+
+        /**
+         * @return the share of the cached entries which were evicted.
+         */
+        public double getEvictionRatio() {
+            return evictionRatio;
+        }
+    }
+}
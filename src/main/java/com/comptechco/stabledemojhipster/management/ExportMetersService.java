@@ -0,0 +1,58 @@
+package com.comptechco.stabledemojhipster.management;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.TimeUnit;
+import org.springframework.stereotype.Service;
+
+@Service
+public class ExportMetersService {
+
+    public static final String EXPORTED_ROWS_METER_NAME = "export.rows";
+    public static final String EXPORTED_ROWS_METER_DESCRIPTION = "Indicates the number of rows written by the bulk exports.";
+    public static final String EXPORT_DURATION_METER_NAME = "export.duration";
+    public static final String EXPORT_DURATION_METER_DESCRIPTION = "Indicates the time taken by each bulk export.";
+    public static final String EXPORT_THROUGHPUT_METER_NAME = "export.throughput";
+    public static final String EXPORT_THROUGHPUT_METER_DESCRIPTION = "Indicates the throughput of each bulk export, in rows per second.";
+    public static final String EXPORT_ENTITY_DIMENSION = "entity";
+
+    private final MeterRegistry registry;
+
+    public ExportMetersService(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Record a finished export.
+     *
+     * @param entity the name of the exported entity.
+     * @param rows the number of rows written.
+     * @param durationNanos the time taken by the export, in nanoseconds.
+     */
+    public void trackExport(String entity, long rows, long durationNanos) {
+        Counter
+            .builder(EXPORTED_ROWS_METER_NAME)
+            .baseUnit("rows")
+            .description(EXPORTED_ROWS_METER_DESCRIPTION)
+            .tag(EXPORT_ENTITY_DIMENSION, entity)
+            .register(registry)
+            .increment(rows);
+        Timer
+            .builder(EXPORT_DURATION_METER_NAME)
+            .description(EXPORT_DURATION_METER_DESCRIPTION)
+            .tag(EXPORT_ENTITY_DIMENSION, entity)
+            .register(registry)
+            .record(durationNanos, TimeUnit.NANOSECONDS);
+        if (durationNanos > 0) {
+            DistributionSummary
+                .builder(EXPORT_THROUGHPUT_METER_NAME)
+                .baseUnit("rows.per.second")
+                .description(EXPORT_THROUGHPUT_METER_DESCRIPTION)
+                .tag(EXPORT_ENTITY_DIMENSION, entity)
+                .register(registry)
+                .record(rows * (double) TimeUnit.SECONDS.toNanos(1) / durationNanos);
+        }
+    }
+}
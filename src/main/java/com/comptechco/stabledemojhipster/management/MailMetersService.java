@@ -0,0 +1,80 @@
+package com.comptechco.stabledemojhipster.management;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.stereotype.Service;
+
+@Service
+public class MailMetersService {
+
+    public static final String OUTBOX_PENDING_METER_NAME = "mail.outbox.pending";
+    public static final String OUTBOX_PENDING_METER_DESCRIPTION = "Indicates the number of emails waiting in the outbox.";
+    public static final String OUTBOX_MESSAGES_METER_NAME = "mail.outbox.messages";
+    public static final String OUTBOX_MESSAGES_METER_DESCRIPTION =
+        "Indicates the outcome of the attempts to send the emails of the outbox.";
+    public static final String OUTBOX_MESSAGES_METER_RESULT_DIMENSION = "result";
+    public static final String SEND_LATENCY_METER_NAME = "mail.outbox.send.latency";
+    public static final String SEND_LATENCY_METER_DESCRIPTION = "Indicates the time between the queuing of an email and its delivery.";
+    public static final String BATCH_DURATION_METER_NAME = "mail.outbox.batch.duration";
+    public static final String BATCH_DURATION_METER_DESCRIPTION =
+        "Indicates the time taken to send a batch of emails over one SMTP connection.";
+
+    private final AtomicLong pendingMessages = new AtomicLong();
+    private final Counter sentCounter;
+    private final Counter retriedCounter;
+    private final Counter failedCounter;
+    private final Timer sendLatencyTimer;
+    private final Timer batchDurationTimer;
+
+    public MailMetersService(MeterRegistry registry) {
+        Gauge
+            .builder(OUTBOX_PENDING_METER_NAME, pendingMessages, AtomicLong::get)
+            .baseUnit("messages")
+            .description(OUTBOX_PENDING_METER_DESCRIPTION)
+            .register(registry);
+        this.sentCounter = outboxMessagesCounterForResultBuilder("sent").register(registry);
+        this.retriedCounter = outboxMessagesCounterForResultBuilder("retried").register(registry);
+        this.failedCounter = outboxMessagesCounterForResultBuilder("failed").register(registry);
+        this.sendLatencyTimer = Timer.builder(SEND_LATENCY_METER_NAME).description(SEND_LATENCY_METER_DESCRIPTION).register(registry);
+        this.batchDurationTimer = Timer.builder(BATCH_DURATION_METER_NAME).description(BATCH_DURATION_METER_DESCRIPTION).register(registry);
+    }
+
+    private Counter.Builder outboxMessagesCounterForResultBuilder(String result) {
+        return Counter
+            .builder(OUTBOX_MESSAGES_METER_NAME)
+            .baseUnit("messages")
+            .description(OUTBOX_MESSAGES_METER_DESCRIPTION)
+            .tag(OUTBOX_MESSAGES_METER_RESULT_DIMENSION, result);
+    }
+
+    public void setPendingMessages(long count) {
+        this.pendingMessages.set(count);
+    }
+
+    /**
+     * Record a delivered email.
+     *
+     * @param latency the time between the queuing of the email and its delivery.
+     */
+    public void trackSent(Duration latency) {
+        this.sentCounter.increment();
+        this.sendLatencyTimer.record(latency);
+    }
+
+    public void trackRetried() {
+        this.retriedCounter.increment();
+    }
+
+    public void trackFailed() {
+        this.failedCounter.increment();
+    }
+
+    public void trackBatch(long durationNanos) {
+        this.batchDurationTimer.record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,55 @@
+package com.comptechco.stabledemojhipster.management;
+
+import com.comptechco.stabledemojhipster.config.ApplicationProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import org.springframework.stereotype.Service;
+
+@Service
+public class MethodTimingMetersService {
+
+    public static final String METHOD_TIMED_METER_NAME = "method.timed";
+    public static final String METHOD_TIMED_METER_DESCRIPTION = "Indicates the time taken by the repository, service and REST methods.";
+    public static final String METHOD_TIMED_CLASS_DIMENSION = "class";
+    public static final String METHOD_TIMED_METHOD_DIMENSION = "method";
+    public static final String METHOD_TIMED_EXCEPTION_DIMENSION = "exception";
+    public static final String METHOD_TIMED_EXCEPTION_NONE = "none";
+
+    private final MeterRegistry registry;
+
+    private final double[] percentiles;
+
+    private final boolean percentileHistogram;
+
+    private final Duration[] slo;
+
+    public MethodTimingMetersService(MeterRegistry registry, ApplicationProperties applicationProperties) {
+        this.registry = registry;
+        ApplicationProperties.Timing timing = applicationProperties.getTiming();
+        this.percentiles = timing.getPercentiles().stream().mapToDouble(Double::doubleValue).toArray();
+        this.percentileHistogram = timing.isPercentileHistogram();
+        this.slo = timing.getSlo().toArray(new Duration[0]);
+    }
+
+    /**
+     * Get the timer of a method, with the configured percentiles and service level objectives.
+     *
+     * @param className the simple name of the class of the bean, or of the interface of a repository.
+     * @param methodName the name of the method.
+     * @param exception the simple name of the class of the exception thrown by the method, or {@code null} if none.
+     * @return the timer.
+     */
+    public Timer getTimer(String className, String methodName, String exception) {
+        return Timer
+            .builder(METHOD_TIMED_METER_NAME)
+            .description(METHOD_TIMED_METER_DESCRIPTION)
+            .tag(METHOD_TIMED_CLASS_DIMENSION, className)
+            .tag(METHOD_TIMED_METHOD_DIMENSION, methodName)
+            .tag(METHOD_TIMED_EXCEPTION_DIMENSION, exception != null ? exception : METHOD_TIMED_EXCEPTION_NONE)
+            .publishPercentiles(percentiles)
+            .publishPercentileHistogram(percentileHistogram)
+            .serviceLevelObjectives(slo)
+            .register(registry);
+    }
+}
@@ -2,6 +2,8 @@ package com.comptechco.stabledemojhipster.management;
 
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.TimeUnit;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -13,16 +15,33 @@ public class SecurityMetersService {
     public static final String INVALID_TOKENS_METER_BASE_UNIT = "errors";
     public static final String INVALID_TOKENS_METER_CAUSE_DIMENSION = "cause";
 
+    public static final String TOKEN_CACHE_METER_NAME = "security.authentication.token-cache";
+    public static final String TOKEN_CACHE_METER_DESCRIPTION =
+        "Indicates lookups of the tokens presented by the clients in the cache of verified tokens.";
+    public static final String TOKEN_CACHE_METER_RESULT_DIMENSION = "result";
+
+    public static final String TOKEN_VERIFICATION_METER_NAME = "security.authentication.token-verification";
+    public static final String TOKEN_VERIFICATION_METER_DESCRIPTION =
+        "Indicates the time spent parsing and verifying the signature of the tokens.";
+
     private final Counter tokenInvalidSignatureCounter;
     private final Counter tokenExpiredCounter;
     private final Counter tokenUnsupportedCounter;
     private final Counter tokenMalformedCounter;
+    private final Counter tokenCacheHitCounter;
+    private final Counter tokenCacheMissCounter;
+    private final Timer tokenVerificationTimer;
 
     public SecurityMetersService(MeterRegistry registry) {
         this.tokenInvalidSignatureCounter = invalidTokensCounterForCauseBuilder("invalid-signature").register(registry);
         this.tokenExpiredCounter = invalidTokensCounterForCauseBuilder("expired").register(registry);
         this.tokenUnsupportedCounter = invalidTokensCounterForCauseBuilder("unsupported").register(registry);
         this.tokenMalformedCounter = invalidTokensCounterForCauseBuilder("malformed").register(registry);
+
+        this.tokenCacheHitCounter = tokenCacheCounterForResultBuilder("hit").register(registry);
+        this.tokenCacheMissCounter = tokenCacheCounterForResultBuilder("miss").register(registry);
+        this.tokenVerificationTimer =
+            Timer.builder(TOKEN_VERIFICATION_METER_NAME).description(TOKEN_VERIFICATION_METER_DESCRIPTION).register(registry);
     }
 
     private Counter.Builder invalidTokensCounterForCauseBuilder(String cause) {
@@ -33,6 +52,13 @@ public class SecurityMetersService {
             .tag(INVALID_TOKENS_METER_CAUSE_DIMENSION, cause);
     }
 
+    private Counter.Builder tokenCacheCounterForResultBuilder(String result) {
+        return Counter
+            .builder(TOKEN_CACHE_METER_NAME)
+            .description(TOKEN_CACHE_METER_DESCRIPTION)
+            .tag(TOKEN_CACHE_METER_RESULT_DIMENSION, result);
+    }
+
     public void trackTokenInvalidSignature() {
         this.tokenInvalidSignatureCounter.increment();
     }
@@ -48,4 +74,16 @@ public class SecurityMetersService {
     public void trackTokenMalformed() {
         this.tokenMalformedCounter.increment();
     }
+
+    public void trackTokenCacheHit() {
+        this.tokenCacheHitCounter.increment();
+    }
+
+    public void trackTokenCacheMiss() {
+        this.tokenCacheMissCounter.increment();
+    }
+
+    public void trackTokenVerification(long durationNanos) {
+        this.tokenVerificationTimer.record(durationNanos, TimeUnit.NANOSECONDS);
+    }
 }
@@ -0,0 +1,52 @@
+package com.comptechco.stabledemojhipster.management;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Service;
+
+@Service
+public class SingleFlightMetersService {
+
+    public static final String REQUESTS_METER_NAME = "single.flight.requests";
+    public static final String REQUESTS_METER_DESCRIPTION =
+        "Indicates the number of reads that loaded a value, or that waited for the load of a concurrent read of the same key.";
+    public static final String REQUESTS_NAME_DIMENSION = "name";
+    public static final String REQUESTS_OUTCOME_DIMENSION = "outcome";
+    public static final String REQUESTS_OUTCOME_LOADED = "loaded";
+    public static final String REQUESTS_OUTCOME_COALESCED = "coalesced";
+
+    private final MeterRegistry registry;
+
+    public SingleFlightMetersService(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Get the counter of the reads that ran their own load.
+     *
+     * @param name the name of the loaded values.
+     * @return the counter.
+     */
+    public Counter getLoadedCounter(String name) {
+        return requestsCounter(name, REQUESTS_OUTCOME_LOADED);
+    }
+
+    /**
+     * Get the counter of the reads that shared the load of a concurrent read.
+     *
+     * @param name the name of the loaded values.
+     * @return the counter.
+     */
+    public Counter getCoalescedCounter(String name) {
+        return requestsCounter(name, REQUESTS_OUTCOME_COALESCED);
+    }
+
+    private Counter requestsCounter(String name, String outcome) {
+        return Counter
+            .builder(REQUESTS_METER_NAME)
+            .description(REQUESTS_METER_DESCRIPTION)
+            .tag(REQUESTS_NAME_DIMENSION, name)
+            .tag(REQUESTS_OUTCOME_DIMENSION, outcome)
+            .register(registry);
+    }
+}
@@ -0,0 +1,111 @@
+package com.comptechco.stabledemojhipster.management;
+
+import java.util.regex.Pattern;
+
+/**
+ * Normalizes a SQL statement to its fingerprint, so that the statements which only differ by their values are counted
+ * together: the literals are replaced by {@code ?}, the lists of placeholders are collapsed to {@code (?, ...)}, the
+ * comments are removed and the whitespace is collapsed.
+ */
+public final class SqlFingerprint {
+
+    private static final Pattern PLACEHOLDER_LIST = Pattern.compile("\\( ?\\?(?: ?, ?\\?)+ ?\\)");
+
+    private SqlFingerprint() {}
+
+    /**
+     * Get the fingerprint of a statement.
+     *
+     * @param sql the statement.
+     * @return the fingerprint of the statement, which never contains any of its literal values.
+     */
+    public static String of(String sql) {
+        StringBuilder fingerprint = new StringBuilder(sql.length());
+        boolean pendingSpace = false;
+        int length = sql.length();
+        int i = 0;
+        while (i < length) {
+            char c = sql.charAt(i);
+            if (Character.isWhitespace(c)) {
+                pendingSpace = true;
+                i++;
+                continue;
+            }
+            if (c == '-' && i + 1 < length && sql.charAt(i + 1) == '-') {
+                i = skipLine(sql, i);
+                pendingSpace = true;
+                continue;
+            }
+            if (c == '/' && i + 1 < length && sql.charAt(i + 1) == '*') {
+                i = skipBlockComment(sql, i);
+                pendingSpace = true;
+                continue;
+            }
+            if (pendingSpace && fingerprint.length() > 0) {
+                fingerprint.append(' ');
+            }
+            pendingSpace = false;
+            if (c == '\'') {
+                i = skipString(sql, i);
+                fingerprint.append('?');
+            } else if (Character.isDigit(c)) {
+                i = skipNumber(sql, i);
+                fingerprint.append('?');
+            } else if (Character.isLetter(c) || c == '_' || c == '"') {
+                int start = i;
+                i = skipIdentifier(sql, i);
+                fingerprint.append(sql, start, i);
+            } else {
+                fingerprint.append(c);
+                i++;
+            }
+        }
+        return PLACEHOLDER_LIST.matcher(fingerprint).replaceAll("(?, ...)");
+    }
+
+    private static int skipLine(String sql, int i) {
+        int end = sql.indexOf('\n', i);
+        return end >= 0 ? end + 1 : sql.length();
+    }
+
+    private static int skipBlockComment(String sql, int i) {
+        int end = sql.indexOf("*/", i + 2);
+        return end >= 0 ? end + 2 : sql.length();
+    }
+
+    private static int skipString(String sql, int i) {
+        int j = i + 1;
+        while (j < sql.length()) {
+            if (sql.charAt(j) == '\'') {
+                // A doubled quote is an escaped quote, inside the literal
+                if (j + 1 < sql.length() && sql.charAt(j + 1) == '\'') {
+                    j += 2;
+                    continue;
+                }
+                return j + 1;
+            }
+            j++;
+        }
+        return j;
+    }
+
+    private static int skipNumber(String sql, int i) {
+        int j = i;
+        while (j < sql.length() && (Character.isLetterOrDigit(sql.charAt(j)) || sql.charAt(j) == '.')) {
+            j++;
+        }
+        return j;
+    }
+
+    private static int skipIdentifier(String sql, int i) {
+        if (sql.charAt(i) == '"') {
+            int end = sql.indexOf('"', i + 1);
+            return end >= 0 ? end + 1 : sql.length();
+        }
+        int j = i;
+        while (j < sql.length() && (Character.isLetterOrDigit(sql.charAt(j)) || sql.charAt(j) == '_' || sql.charAt(j) == '$')) {
+            j++;
+        }
+        return j;
+    }
+}
@@ -0,0 +1,57 @@
+package com.comptechco.stabledemojhipster.management;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * The {@code /management/sql-stats} endpoint: the SQL fingerprints which took the most time in total, and the ones
+ * with the slowest 99th percentile.
+ * <p>
+ * The statistics come from the {@code sql.statements} meters of {@link SqlStatsService}, which are also published to
+ * Prometheus.
+ */
+@Component
+@Endpoint(id = "sqlstats")
+public class SqlStatsEndpoint {
+
+    static final int DEFAULT_LIMIT = 20;
+
+    private final SqlStatsService sqlStatsService;
+
+    public SqlStatsEndpoint(SqlStatsService sqlStatsService) {
+        this.sqlStatsService = sqlStatsService;
+    }
+
+    @ReadOperation
+    public Map<String, List<SqlStatsService.StatementStatistics>> sqlStats(@Nullable Integer limit) {
+        int size = limit != null && limit > 0 ? limit : DEFAULT_LIMIT;
+        List<SqlStatsService.StatementStatistics> statistics = sqlStatsService.getStatistics();
+        return Map.of(
+            "byTotalTime",
+            top(statistics, Comparator.comparingDouble(SqlStatsService.StatementStatistics::getTotalTime), size),
+            "byP99Time",
+            top(
+                statistics,
+                Comparator.comparing(
+                    SqlStatsService.StatementStatistics::getP99Time,
+                    Comparator.nullsFirst(Comparator.naturalOrder())
+                ),
+                size
+            )
+        );
+    }
+
+    private static List<SqlStatsService.StatementStatistics> top(
+        List<SqlStatsService.StatementStatistics> statistics,
+        Comparator<SqlStatsService.StatementStatistics> comparator,
+        int size
+    ) {
+        return statistics.stream().sorted(comparator.reversed()).limit(size).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,269 @@
+package com.comptechco.stabledemojhipster.management;
+
+import com.comptechco.stabledemojhipster.config.ApplicationProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+
+/**
+ * Times the SQL statements by fingerprint, see {@link SqlFingerprint}.
+ * <p>
+ * Each fingerprint has its own timer, published to Prometheus with a short id of the fingerprint as tag. The counts
+ * and total times are cumulative, the maximum and the 99th percentile only cover the last few minutes. The 99th
+ * percentile is computed in the application, for this endpoint, and cannot be aggregated across instances: the
+ * percentile histogram and the service level objectives are published as buckets for that.
+ */
+@Service
+public class SqlStatsService {
+
+    public static final String STATEMENTS_METER_NAME = "sql.statements";
+    public static final String STATEMENTS_METER_DESCRIPTION = "Indicates the time taken by the SQL statements, by fingerprint.";
+    public static final String STATEMENT_ERRORS_METER_NAME = "sql.statements.errors";
+    public static final String STATEMENT_ERRORS_METER_DESCRIPTION = "Indicates the number of SQL statements that failed, by fingerprint.";
+    public static final String STATEMENTS_FINGERPRINT_DIMENSION = "fingerprint";
+    public static final String OTHER_FINGERPRINT_ID = "other";
+
+    private static final int FINGERPRINT_ID_LENGTH = 12;
+
+    private static final double P99 = 0.99;
+
+    private final Logger log = LoggerFactory.getLogger(SqlStatsService.class);
+
+    private final MeterRegistry registry;
+
+    private final int maxFingerprints;
+
+    private final long slowThresholdNanos;
+
+    private final double slowLogSampleRate;
+
+    private final boolean percentileHistogram;
+
+    private final Duration[] slo;
+
+    // By statement, as Hibernate runs the same few statements over and over: the fingerprint is only computed once
+    private final Map<String, StatementStats> statsBySql = new ConcurrentHashMap<>();
+
+    private final Map<String, StatementStats> statsByFingerprint = new ConcurrentHashMap<>();
+
+    private final StatementStats otherStats;
+
+    public SqlStatsService(MeterRegistry registry, ApplicationProperties applicationProperties) {
+        this.registry = registry;
+        ApplicationProperties.SqlStats sqlStats = applicationProperties.getSqlStats();
+        this.maxFingerprints = sqlStats.getMaxFingerprints();
+        this.slowThresholdNanos = sqlStats.getSlowThreshold().toNanos();
+        this.slowLogSampleRate = sqlStats.getSlowLogSampleRate();
+        this.percentileHistogram = sqlStats.isPercentileHistogram();
+        this.slo = sqlStats.getSlo().toArray(new Duration[0]);
+        this.otherStats = new StatementStats(OTHER_FINGERPRINT_ID, "(other statements)");
+    }
+
+    /**
+     * Record the execution of a statement.
+     *
+     * @param sql the statement.
+     * @param durationNanos the time taken by the statement, in nanoseconds.
+     * @param failed whether the statement failed.
+     * @param parameterTypes the types of the bind parameters, logged instead of their values.
+     */
+    public void record(String sql, long durationNanos, boolean failed, List<String> parameterTypes) {
+        StatementStats stats = stats(sql);
+        stats.timer.record(durationNanos, TimeUnit.NANOSECONDS);
+        if (failed) {
+            stats.errors.increment();
+        }
+        if (
+            durationNanos >= slowThresholdNanos &&
+            (slowLogSampleRate >= 1 || ThreadLocalRandom.current().nextDouble() < slowLogSampleRate)
+        ) {
+            log.warn(
+                "Slow SQL statement {} took {} ms: {} with parameters {}",
+                stats.id,
+                TimeUnit.NANOSECONDS.toMillis(durationNanos),
+                stats.fingerprint,
+                parameterTypes
+            );
+        }
+    }
+
+    /**
+     * @return the statistics of all the fingerprints.
+     */
+    public List<StatementStatistics> getStatistics() {
+        List<StatementStatistics> statistics = new ArrayList<>(statsByFingerprint.size() + 1);
+        for (StatementStats stats : statsByFingerprint.values()) {
+            statistics.add(stats.statistics());
+        }
+        if (otherStats.used) {
+            statistics.add(otherStats.statistics());
+        }
+        return statistics;
+    }
+
+    private StatementStats stats(String sql) {
+        StatementStats stats = statsBySql.get(sql);
+        if (stats != null) {
+            return stats;
+        }
+        String fingerprint = SqlFingerprint.of(sql);
+        stats = statsByFingerprint.get(fingerprint);
+        if (stats == null) {
+            if (statsByFingerprint.size() >= maxFingerprints) {
+                otherStats.used = true;
+                return otherStats;
+            }
+            stats = statsByFingerprint.computeIfAbsent(fingerprint, key -> new StatementStats(fingerprintId(key), key));
+        }
+        // Bounded like the fingerprints: the statements that differ by their literals would not be reused
+        if (statsBySql.size() < maxFingerprints * 4) {
+            statsBySql.putIfAbsent(sql, stats);
+        }
+        return stats;
+    }
+
+    private static String fingerprintId(String fingerprint) {
+        return DigestUtils.md5DigestAsHex(fingerprint.getBytes(StandardCharsets.UTF_8)).substring(0, FINGERPRINT_ID_LENGTH);
+    }
+
+    private final class StatementStats {
+
+        private final String id;
+
+        private final String fingerprint;
+
+        private final Timer timer;
+
+        private final Counter errors;
+
+        private volatile boolean used;
+
+        StatementStats(String id, String fingerprint) {
+            this.id = id;
+            this.fingerprint = fingerprint;
+            this.timer =
+                Timer
+                    .builder(STATEMENTS_METER_NAME)
+                    .description(STATEMENTS_METER_DESCRIPTION)
+                    .tag(STATEMENTS_FINGERPRINT_DIMENSION, id)
+                    .publishPercentiles(P99)
+                    .publishPercentileHistogram(percentileHistogram)
+                    .serviceLevelObjectives(slo)
+                    .register(registry);
+            this.errors =
+                Counter
+                    .builder(STATEMENT_ERRORS_METER_NAME)
+                    .description(STATEMENT_ERRORS_METER_DESCRIPTION)
+                    .tag(STATEMENTS_FINGERPRINT_DIMENSION, id)
+                    .register(registry);
+        }
+
+        StatementStatistics statistics() {
+            Double p99 = null;
+            for (ValueAtPercentile percentile : timer.takeSnapshot().percentileValues()) {
+                if (percentile.percentile() == P99) {
+                    p99 = percentile.value(TimeUnit.MILLISECONDS);
+                }
+            }
+            return new StatementStatistics(
+                id,
+                fingerprint,
+                timer.count(),
+                (long) errors.count(),
+                timer.totalTime(TimeUnit.MILLISECONDS),
+                timer.mean(TimeUnit.MILLISECONDS),
+                timer.max(TimeUnit.MILLISECONDS),
+                p99
+            );
+        }
+    }
+
+    /**
+     * Statistics of the statements of a fingerprint, with the times in milliseconds.
+     */
+    public static final class StatementStatistics {
+
+        private final String id;
+        private final String fingerprint;
+        private final long count;
+        private final long errors;
+        private final double totalTime;
+        private final double meanTime;
+        private final double maxTime;
+        private final Double p99Time;
+
+        StatementStatistics(
+            String id,
+            String fingerprint,
+            long count,
+            long errors,
+            double totalTime,
+            double meanTime,
+            double maxTime,
+            Double p99Time
+        ) {
+            this.id = id;
+            this.fingerprint = fingerprint;
+            this.count = count;
+            this.errors = errors;
+            this.totalTime = totalTime;
+            this.meanTime = meanTime;
+            this.maxTime = maxTime;
+            this.p99Time = p99Time;
+        }
+
+        /**
+         * @return the id of the fingerprint, which is the tag of its meters.
+         */
+        public String getId() {
+            return id;
+        }
+
+        public String getFingerprint() {
+            return fingerprint;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getErrors() {
+            return errors;
+        }
+
+        public double getTotalTime() {
+            return totalTime;
+        }
+
+        public double getMeanTime() {
+            return meanTime;
+        }
+
+        /**
+         * @return the maximum time over the last few minutes.
+         */
+        public double getMaxTime() {
+            return maxTime;
+        }
+
+        /**
+         * @return the 99th percentile of the times over the last few minutes, or {@code null} if it is not published.
+         */
+        public Double getP99Time() {
+            return p99Time;
+        }
+    }
+}
@@ -1,7 +1,15 @@
 package com.comptechco.stabledemojhipster.repository;
 
 import com.comptechco.stabledemojhipster.domain.Coffee;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import javax.persistence.QueryHint;
+import org.hibernate.jpa.QueryHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -9,4 +17,47 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface CoffeeRepository extends JpaRepository<Coffee, Long> {}
+public interface CoffeeRepository extends JpaRepository<Coffee, Long>, JpaSpecificationExecutor<Coffee> {
+    /**
+     * Number of rows the JDBC driver fetches per round trip when streaming.
+     */
+    String STREAM_FETCH_SIZE = "500";
+
+    @Override
+    @QueryHints(@QueryHint(name = QueryHints.HINT_CACHEABLE, value = "true"))
+    List<Coffee> findAll();
+
+    List<Coffee> findAllByNameIn(Collection<String> names);
+
+    /**
+     * Keyset pagination: get the coffees whose id is strictly greater than the given cursor, ordered by id.
+     *
+     * @param id the cursor, i.e. the id of the last coffee of the previous page.
+     * @param pageable the page size (the page number and sort are ignored).
+     * @return the next coffees.
+     */
+    @QueryHints(@QueryHint(name = QueryHints.HINT_CACHEABLE, value = "true"))
+    List<Coffee> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    /**
+     * Stream all the coffees from a forward-only JDBC cursor, without loading them all in memory.
+     * <p>
+     * Must be called inside a transaction, and the stream must be closed.
+     *
+     * @return the stream of coffees, ordered by id.
+     */
+    @QueryHints(
+        { @QueryHint(name = QueryHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE), @QueryHint(name = QueryHints.HINT_READONLY, value = "true") }
+    )
+    @Query("select coffee from Coffee coffee order by coffee.id")
+    Stream<Coffee> streamAll();
+
+    /**
+     * Get the version of a coffee, without loading it.
+     *
+     * @param id the id of the coffee.
+     * @return the version, or empty if there is no coffee with this id.
+     */
+    @Query("select coffee.version from Coffee coffee where coffee.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+}
@@ -1,7 +1,13 @@
 package com.comptechco.stabledemojhipster.repository;
 
 import com.comptechco.stabledemojhipster.domain.Customer;
+import java.util.Optional;
+import java.util.stream.Stream;
+import javax.persistence.QueryHint;
+import org.hibernate.jpa.QueryHints;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -9,4 +15,43 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface CustomerRepository extends JpaRepository<Customer, Long> {}
+public interface CustomerRepository extends JpaRepository<Customer, Long> {
+    String CUSTOMERS_BY_PHONE_DIGITS_CACHE = "customersByPhoneDigits";
+
+    /**
+     * Number of rows the JDBC driver fetches per round trip when streaming.
+     */
+    String STREAM_FETCH_SIZE = "1000";
+
+    /**
+     * Stream all the customers from a forward-only JDBC cursor, without loading them all in memory.
+     * <p>
+     * Must be called inside a transaction, and the stream must be closed.
+     *
+     * @return the stream of customers, ordered by id.
+     */
+    @QueryHints(
+        { @QueryHint(name = QueryHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE), @QueryHint(name = QueryHints.HINT_READONLY, value = "true") }
+    )
+    @Query("select customer from Customer customer order by customer.id")
+    Stream<Customer> streamAll();
+
+    /**
+     * Get the version of a customer, without loading it.
+     *
+     * @param id the id of the customer.
+     * @return the version, or empty if there is no customer with this id.
+     */
+    @Query("select customer.version from Customer customer where customer.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    /**
+     * Get the customer with a phone number. The unknown numbers are cached too.
+     *
+     * @param phoneDigits the digits of the phone number.
+     * @return the customer, or empty if no customer has this phone number.
+     * @see Customer#phoneDigitsOf(String)
+     */
+    @Cacheable(cacheNames = CUSTOMERS_BY_PHONE_DIGITS_CACHE)
+    Optional<Customer> findOneByPhoneDigits(String phoneDigits);
+}
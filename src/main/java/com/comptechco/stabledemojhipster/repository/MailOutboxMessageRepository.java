@@ -0,0 +1,41 @@
+package com.comptechco.stabledemojhipster.repository;
+
+import com.comptechco.stabledemojhipster.domain.MailOutboxMessage;
+import com.comptechco.stabledemojhipster.domain.enumeration.MailOutboxStatus;
+import java.time.Instant;
+import java.util.List;
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data SQL repository for the MailOutboxMessage entity.
+ */
+@Repository
+public interface MailOutboxMessageRepository extends JpaRepository<MailOutboxMessage, Long> {
+    /**
+     * Lock timeout meaning "skip the rows locked by another transaction", i.e. {@code org.hibernate.LockOptions.SKIP_LOCKED}.
+     */
+    String SKIP_LOCKED = "-2";
+
+    /**
+     * Lock the messages with the given status that are due, skipping the ones already locked by another instance of the
+     * application.
+     *
+     * @param status the status of the messages.
+     * @param now the current date.
+     * @param pageable the maximum number of messages (the page number and sort are ignored).
+     * @return the due messages, the oldest first.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "javax.persistence.lock.timeout", value = SKIP_LOCKED))
+    List<MailOutboxMessage> findByStatusAndNextAttemptAtLessThanEqualOrderByNextAttemptAtAsc(
+        MailOutboxStatus status,
+        Instant now,
+        Pageable pageable
+    );
+
+    long countByStatus(MailOutboxStatus status);
+}
@@ -0,0 +1,47 @@
+package com.comptechco.stabledemojhipster.repository.search;
+
+import com.comptechco.stabledemojhipster.config.ApplicationProperties;
+import com.comptechco.stabledemojhipster.domain.Coffee;
+import java.util.List;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.search.Query;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Lucene search repository for the {@link Coffee} entity.
+ */
+@Repository
+public class CoffeeSearchRepository extends LuceneSearchRepository<Coffee> {
+
+    private static final String NAME_FIELD = "name";
+
+    public CoffeeSearchRepository(ApplicationProperties applicationProperties) {
+        super("coffee", applicationProperties);
+    }
+
+    @Override
+    protected Long getId(Coffee coffee) {
+        return coffee.getId();
+    }
+
+    @Override
+    protected void addFields(Coffee coffee, Document document) {
+        if (coffee.getName() != null) {
+            document.add(new TextField(NAME_FIELD, coffee.getName(), Field.Store.NO));
+        }
+    }
+
+    /**
+     * Search the coffees by the words of their name.
+     *
+     * @param text the words of the name, each matching exactly, as a prefix or with a few typos.
+     * @param limit the maximum number of ids to return.
+     * @return the ids of the matching coffees, best matches first.
+     */
+    public List<Long> search(String text, int limit) {
+        Query query = fuzzyPrefixQuery(NAME_FIELD, text);
+        return query == null ? List.of() : searchIds(query, limit);
+    }
+}
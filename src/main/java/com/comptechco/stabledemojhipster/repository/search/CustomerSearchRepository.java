@@ -0,0 +1,75 @@
+package com.comptechco.stabledemojhipster.repository.search;
+
+import com.comptechco.stabledemojhipster.config.ApplicationProperties;
+import com.comptechco.stabledemojhipster.domain.Customer;
+import java.util.List;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Lucene search repository for the {@link Customer} entity.
+ */
+@Repository
+public class CustomerSearchRepository extends LuceneSearchRepository<Customer> {
+
+    private static final String NAME_FIELD = "name";
+
+    /**
+     * Every suffix of the digits of the phone number, so that a prefix query matches any fragment of it.
+     */
+    private static final String PHONE_DIGITS_FIELD = "phoneDigits";
+
+    private static final int MIN_PHONE_DIGITS = 3;
+
+    public CustomerSearchRepository(ApplicationProperties applicationProperties) {
+        super("customer", applicationProperties);
+    }
+
+    @Override
+    protected Long getId(Customer customer) {
+        return customer.getId();
+    }
+
+    @Override
+    protected void addFields(Customer customer, Document document) {
+        if (customer.getName() != null) {
+            document.add(new TextField(NAME_FIELD, customer.getName(), Field.Store.NO));
+        }
+        if (customer.getPhoneDigits() != null) {
+            String digits = customer.getPhoneDigits();
+            for (int i = 0; i <= digits.length() - MIN_PHONE_DIGITS; i++) {
+                document.add(new StringField(PHONE_DIGITS_FIELD, digits.substring(i), Field.Store.NO));
+            }
+        }
+    }
+
+    /**
+     * Search the customers by the words of their name, or by a fragment of their phone number.
+     *
+     * @param text the words of the name, each matching exactly, as a prefix or with a few typos, or at least 3 digits of
+     * the phone number, whatever their formatting.
+     * @param limit the maximum number of ids to return.
+     * @return the ids of the matching customers, best matches first.
+     */
+    public List<Long> search(String text, int limit) {
+        BooleanQuery.Builder builder = new BooleanQuery.Builder();
+        Query nameQuery = fuzzyPrefixQuery(NAME_FIELD, text);
+        if (nameQuery != null) {
+            builder.add(nameQuery, BooleanClause.Occur.SHOULD);
+        }
+        String digits = Customer.phoneDigitsOf(text);
+        if (digits.length() >= MIN_PHONE_DIGITS) {
+            builder.add(new PrefixQuery(new Term(PHONE_DIGITS_FIELD, digits)), BooleanClause.Occur.SHOULD);
+        }
+        BooleanQuery query = builder.build();
+        return query.clauses().isEmpty() ? List.of() : searchIds(query, limit);
+    }
+}
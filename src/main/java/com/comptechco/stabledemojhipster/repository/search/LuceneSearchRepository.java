@@ -0,0 +1,347 @@
+package com.comptechco.stabledemojhipster.repository.search;
+
+import com.comptechco.stabledemojhipster.config.ApplicationProperties;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.CharArraySet;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.ControlledRealTimeReopenThread;
+import org.apache.lucene.search.FuzzyQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Base class of the embedded Lucene index of an entity.
+ * <p>
+ * The changes are written to the index once their transaction commits, and the searches see them within the
+ * {@code application.search.refresh-interval}, from near-real-time readers that do not wait for the index to be
+ * committed to disk. The index can be rebuilt from the database while it keeps answering the searches.
+ *
+ * @param <T> the type of the indexed entity.
+ */
+public abstract class LuceneSearchRepository<T> {
+
+    private final Logger log = LoggerFactory.getLogger(LuceneSearchRepository.class);
+
+    protected static final String ID_FIELD = "id";
+
+    /**
+     * Generation of the rebuild that wrote each document, so that the documents of the entities deleted before the
+     * rebuild can be found afterwards.
+     */
+    private static final String GENERATION_FIELD = "_generation";
+
+    private static final Set<String> ID_FIELDS = Set.of(ID_FIELD);
+
+    private static final int MAX_QUERY_WORDS = 10;
+
+    private static final float EXACT_BOOST = 4;
+
+    private static final float PREFIX_BOOST = 2;
+
+    /**
+     * Number of leading characters that must match exactly in a fuzzy match, which keeps fuzzy queries cheap.
+     */
+    private static final int FUZZY_PREFIX_LENGTH = 1;
+
+    private final String indexName;
+
+    private final ApplicationProperties.Search searchProperties;
+
+    private final Analyzer analyzer = new StandardAnalyzer(CharArraySet.EMPTY_SET);
+
+    private final AtomicLong generation = new AtomicLong();
+
+    private final Object rebuildLock = new Object();
+
+    /**
+     * Changes made while the index is rebuilt, replayed at the end of the rebuild: empty for a deletion.
+     */
+    private volatile Map<Long, Optional<Document>> changesDuringRebuild;
+
+    private Directory directory;
+
+    private IndexWriter indexWriter;
+
+    private SearcherManager searcherManager;
+
+    private ControlledRealTimeReopenThread<IndexSearcher> reopenThread;
+
+    protected LuceneSearchRepository(String indexName, ApplicationProperties applicationProperties) {
+        this.indexName = indexName;
+        this.searchProperties = applicationProperties.getSearch();
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        if (searchProperties.getDirectory() != null) {
+            directory = FSDirectory.open(Paths.get(searchProperties.getDirectory(), indexName));
+        } else {
+            directory = new ByteBuffersDirectory();
+        }
+        log.debug("Opening the {} search index in {}", indexName, directory);
+        indexWriter = new IndexWriter(directory, new IndexWriterConfig(analyzer));
+        searcherManager = new SearcherManager(indexWriter, null);
+        generation.set(System.currentTimeMillis());
+
+        double refreshSeconds = searchProperties.getRefreshInterval().toMillis() / 1000d;
+        reopenThread = new ControlledRealTimeReopenThread<>(indexWriter, searcherManager, refreshSeconds, 0);
+        reopenThread.setName("search-" + indexName + "-refresh");
+        reopenThread.setDaemon(true);
+        reopenThread.start();
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        reopenThread.close();
+        searcherManager.close();
+        indexWriter.close();
+        directory.close();
+    }
+
+    /**
+     * Get the id of an entity.
+     *
+     * @param entity the entity.
+     * @return the id of the entity.
+     */
+    protected abstract Long getId(T entity);
+
+    /**
+     * Add the searchable fields of an entity to its document.
+     *
+     * @param entity the entity.
+     * @param document the document of the entity, which already has its id.
+     */
+    protected abstract void addFields(T entity, Document document);
+
+    /**
+     * Index an entity once the current transaction commits, or now when there is no transaction.
+     *
+     * @param entity the entity to index, with its id.
+     */
+    public void index(T entity) {
+        Long id = getId(entity);
+        Document document = toDocument(entity);
+        afterCommit(() -> write(id, Optional.of(document)));
+    }
+
+    /**
+     * Remove an entity from the index once the current transaction commits, or now when there is no transaction.
+     *
+     * @param id the id of the entity.
+     */
+    public void deleteById(Long id) {
+        afterCommit(() -> write(id, Optional.empty()));
+    }
+
+    /**
+     * Rebuild the index from all the entities.
+     * <p>
+     * The index keeps answering the searches during the rebuild: the entities are indexed again over their previous
+     * documents, then the documents of the entities that no longer exist are deleted. The changes committed meanwhile
+     * are applied again at the end, so that they are not overwritten by the state the rebuild had read.
+     *
+     * @param entities all the entities, the stream is consumed but not closed.
+     * @return the number of indexed entities.
+     */
+    public long rebuild(Stream<T> entities) {
+        synchronized (rebuildLock) {
+            Map<Long, Optional<Document>> changes = new ConcurrentHashMap<>();
+            long rebuildGeneration;
+            synchronized (this) {
+                changesDuringRebuild = changes;
+                rebuildGeneration = generation.updateAndGet(current -> Math.max(current + 1, System.currentTimeMillis()));
+            }
+            try {
+                long count = 0;
+                Iterator<T> iterator = entities.iterator();
+                while (iterator.hasNext()) {
+                    T entity = iterator.next();
+                    Long id = getId(entity);
+                    if (!changes.containsKey(id)) {
+                        apply(id, Optional.of(toDocument(entity)), rebuildGeneration);
+                    }
+                    count++;
+                }
+                synchronized (this) {
+                    changesDuringRebuild = null;
+                    for (Map.Entry<Long, Optional<Document>> change : changes.entrySet()) {
+                        apply(change.getKey(), change.getValue(), rebuildGeneration);
+                    }
+                }
+                indexWriter.deleteDocuments(LongPoint.newRangeQuery(GENERATION_FIELD, Long.MIN_VALUE, rebuildGeneration - 1));
+                indexWriter.commit();
+                searcherManager.maybeRefreshBlocking();
+                return count;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                changesDuringRebuild = null;
+            }
+        }
+    }
+
+    /**
+     * Make the changes written so far visible to the searches, without waiting for the refresh interval.
+     */
+    public void refresh() {
+        try {
+            searcherManager.maybeRefreshBlocking();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Get the ids of the entities whose documents match a query.
+     *
+     * @param query the query.
+     * @param limit the maximum number of ids to return.
+     * @return the ids, best matches first.
+     */
+    protected List<Long> searchIds(Query query, int limit) {
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                TopDocs topDocs = searcher.search(query, limit);
+                List<Long> ids = new ArrayList<>(topDocs.scoreDocs.length);
+                for (ScoreDoc scoreDoc : topDocs.scoreDocs) {
+                    ids.add(Long.valueOf(searcher.doc(scoreDoc.doc, ID_FIELDS).get(ID_FIELD)));
+                }
+                return ids;
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Build a query matching the documents whose field has all the words of a text, each word matching exactly, as a
+     * prefix, or with a few typos, from the most to the least relevant.
+     *
+     * @param field the name of a text field.
+     * @param text the text to search, only its first words are used.
+     * @return the query, or {@code null} if the text has no word.
+     */
+    protected Query fuzzyPrefixQuery(String field, String text) {
+        List<String> words = analyze(field, text);
+        if (words.isEmpty()) {
+            return null;
+        }
+        BooleanQuery.Builder builder = new BooleanQuery.Builder();
+        for (String word : words) {
+            Term term = new Term(field, word);
+            BooleanQuery.Builder wordBuilder = new BooleanQuery.Builder()
+                .add(new BoostQuery(new TermQuery(term), EXACT_BOOST), BooleanClause.Occur.SHOULD)
+                .add(new BoostQuery(new PrefixQuery(term), PREFIX_BOOST), BooleanClause.Occur.SHOULD);
+            // One typo from 4 characters, two from 8, like the AUTO fuzziness of Elasticsearch
+            int maxEdits = word.length() < 4 ? 0 : word.length() < 8 ? 1 : 2;
+            if (maxEdits > 0) {
+                wordBuilder.add(new FuzzyQuery(term, maxEdits, FUZZY_PREFIX_LENGTH), BooleanClause.Occur.SHOULD);
+            }
+            builder.add(wordBuilder.build(), BooleanClause.Occur.MUST);
+        }
+        return builder.build();
+    }
+
+    private List<String> analyze(String field, String text) {
+        List<String> words = new ArrayList<>();
+        try (TokenStream tokenStream = analyzer.tokenStream(field, text)) {
+            CharTermAttribute term = tokenStream.addAttribute(CharTermAttribute.class);
+            tokenStream.reset();
+            while (words.size() < MAX_QUERY_WORDS && tokenStream.incrementToken()) {
+                words.add(term.toString());
+            }
+            tokenStream.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return words;
+    }
+
+    private Document toDocument(T entity) {
+        Document document = new Document();
+        document.add(new StringField(ID_FIELD, getId(entity).toString(), Field.Store.YES));
+        addFields(entity, document);
+        return document;
+    }
+
+    private synchronized void write(Long id, Optional<Document> document) {
+        Map<Long, Optional<Document>> changes = changesDuringRebuild;
+        if (changes != null) {
+            changes.put(id, document);
+        }
+        try {
+            apply(id, document, generation.get());
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not update the {} search index for id {}, it is out of date until it is rebuilt", indexName, id, e);
+        }
+    }
+
+    private void apply(Long id, Optional<Document> document, long documentGeneration) throws IOException {
+        Term idTerm = new Term(ID_FIELD, id.toString());
+        if (document.isPresent()) {
+            Document indexedDocument = document.get();
+            indexedDocument.removeFields(GENERATION_FIELD);
+            indexedDocument.add(new LongPoint(GENERATION_FIELD, documentGeneration));
+            indexWriter.updateDocument(idTerm, indexedDocument);
+        } else {
+            indexWriter.deleteDocuments(idTerm);
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        action.run();
+                    }
+                }
+            );
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Embedded Lucene full-text indexes.
+ */
+package com.comptechco.stabledemojhipster.repository.search;
@@ -0,0 +1,111 @@
+package com.comptechco.stabledemojhipster.security.jwt;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.security.core.Authentication;
+
+/**
+ * Bounded cache of the authentications of already verified tokens, keyed by the SHA-256 hash of the token.
+ * <p>
+ * An entry is never returned after the expiration of its token, so a hit is as trustworthy as a fresh verification.
+ * <p>
+ * The reads take no lock, as every request reads the cache. When the cache is full, a new entry makes room by evicting
+ * the entry closest to its expiration among a few sampled ones, an expired one first: a flood of distinct tokens costs
+ * no more than their verification. The expired entries are also removed when they are read.
+ */
+class TokenAuthenticationCache {
+
+    /**
+     * Number of entries compared to choose the one to evict.
+     */
+    private static final int EVICTION_SAMPLE_SIZE = 8;
+
+    private final Map<String, CachedAuthentication> entries = new ConcurrentHashMap<>();
+
+    private final int maxEntries;
+
+    private final Clock clock;
+
+    TokenAuthenticationCache(int maxEntries, Clock clock) {
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+    }
+
+    boolean isEnabled() {
+        return maxEntries > 0;
+    }
+
+    Authentication get(String tokenHash) {
+        CachedAuthentication entry = entries.get(tokenHash);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt <= clock.millis()) {
+            entries.remove(tokenHash, entry);
+            return null;
+        }
+        return entry.authentication;
+    }
+
+    void put(String tokenHash, Authentication authentication, long expiresAt) {
+        entries.put(tokenHash, new CachedAuthentication(authentication, expiresAt));
+        // The concurrent puts may each evict an entry, so the cache never grows past its bound for long
+        while (entries.size() > maxEntries) {
+            evictOneBesides(tokenHash);
+        }
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private void evictOneBesides(String tokenHash) {
+        long now = clock.millis();
+        Map.Entry<String, CachedAuthentication> evicted = null;
+        int sampled = 0;
+        for (Map.Entry<String, CachedAuthentication> entry : entries.entrySet()) {
+            if (entry.getKey().equals(tokenHash)) {
+                continue;
+            }
+            if (evicted == null || entry.getValue().expiresAt < evicted.getValue().expiresAt) {
+                evicted = entry;
+            }
+            if (evicted.getValue().expiresAt <= now || ++sampled == EVICTION_SAMPLE_SIZE) {
+                break;
+            }
+        }
+        if (evicted == null) {
+            // No room at all
+            entries.remove(tokenHash);
+        } else {
+            entries.remove(evicted.getKey(), evicted.getValue());
+        }
+    }
+
+    static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform implements SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class CachedAuthentication {
+
+        private final Authentication authentication;
+
+        private final long expiresAt;
+
+        private CachedAuthentication(Authentication authentication, long expiresAt) {
+            this.authentication = authentication;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
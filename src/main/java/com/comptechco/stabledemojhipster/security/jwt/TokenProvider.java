@@ -1,5 +1,6 @@
 package com.comptechco.stabledemojhipster.security.jwt;
 
+import com.comptechco.stabledemojhipster.config.ApplicationProperties;
 import com.comptechco.stabledemojhipster.management.SecurityMetersService;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
@@ -7,6 +8,7 @@ import io.jsonwebtoken.security.Keys;
 import io.jsonwebtoken.security.SignatureException;
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.time.Clock;
 import java.util.*;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
@@ -39,7 +41,13 @@ public class TokenProvider {
 
     private final SecurityMetersService securityMetersService;
 
-    public TokenProvider(JHipsterProperties jHipsterProperties, SecurityMetersService securityMetersService) {
+    private final TokenAuthenticationCache authenticationCache;
+
+    public TokenProvider(
+        JHipsterProperties jHipsterProperties,
+        ApplicationProperties applicationProperties,
+        SecurityMetersService securityMetersService
+    ) {
         byte[] keyBytes;
         String secret = jHipsterProperties.getSecurity().getAuthentication().getJwt().getBase64Secret();
         if (!ObjectUtils.isEmpty(secret)) {
@@ -60,6 +68,8 @@ public class TokenProvider {
             1000 * jHipsterProperties.getSecurity().getAuthentication().getJwt().getTokenValidityInSecondsForRememberMe();
 
         this.securityMetersService = securityMetersService;
+        this.authenticationCache =
+            new TokenAuthenticationCache(applicationProperties.getSecurity().getTokenCacheMaxEntries(), Clock.systemUTC());
     }
 
     public String createToken(Authentication authentication, boolean rememberMe) {
@@ -82,9 +92,43 @@ public class TokenProvider {
             .compact();
     }
 
+    /**
+     * Verify the token and get its authentication, in a single parse.
+     * <p>
+     * The authentications of verified tokens are cached until the tokens expire, so a token presented again is neither
+     * parsed nor verified again.
+     *
+     * @param token the JWT token.
+     * @return the authentication, or {@code null} if the token is not valid.
+     */
+    public Authentication authenticate(String token) {
+        if (!authenticationCache.isEnabled()) {
+            Claims claims = parseClaims(token);
+            return claims != null ? toAuthentication(claims, token) : null;
+        }
+        String tokenHash = TokenAuthenticationCache.hash(token);
+        Authentication authentication = authenticationCache.get(tokenHash);
+        if (authentication != null) {
+            this.securityMetersService.trackTokenCacheHit();
+            return authentication;
+        }
+        this.securityMetersService.trackTokenCacheMiss();
+        Claims claims = parseClaims(token);
+        if (claims == null) {
+            return null;
+        }
+        authentication = toAuthentication(claims, token);
+        if (claims.getExpiration() != null) {
+            authenticationCache.put(tokenHash, authentication, claims.getExpiration().getTime());
+        }
+        return authentication;
+    }
+
     public Authentication getAuthentication(String token) {
-        Claims claims = jwtParser.parseClaimsJws(token).getBody();
+        return toAuthentication(jwtParser.parseClaimsJws(token).getBody(), token);
+    }
 
+    private Authentication toAuthentication(Claims claims, String token) {
         Collection<? extends GrantedAuthority> authorities = Arrays
             .stream(claims.get(AUTHORITIES_KEY).toString().split(","))
             .filter(auth -> !auth.trim().isEmpty())
@@ -97,10 +141,19 @@ public class TokenProvider {
     }
 
     public boolean validateToken(String authToken) {
-        try {
-            jwtParser.parseClaimsJws(authToken);
+        return parseClaims(authToken) != null;
+    }
 
-            return true;
+    /**
+     * Parse the token and verify its signature and expiration.
+     *
+     * @param authToken the JWT token.
+     * @return the claims of the token, or {@code null} if it is not valid.
+     */
+    private Claims parseClaims(String authToken) {
+        long start = System.nanoTime();
+        try {
+            return jwtParser.parseClaimsJws(authToken).getBody();
         } catch (ExpiredJwtException e) {
             this.securityMetersService.trackTokenExpired();
 
@@ -119,8 +172,10 @@ public class TokenProvider {
             log.trace(INVALID_JWT_TOKEN, e);
         } catch (IllegalArgumentException e) { // TODO: should we let it bubble (no catch), to avoid defensive programming and follow the fail-fast principle?
             log.error("Token validation error {}", e.getMessage());
+        } finally {
+            this.securityMetersService.trackTokenVerification(System.nanoTime() - start);
         }
 
-        return false;
+        return null;
     }
 }
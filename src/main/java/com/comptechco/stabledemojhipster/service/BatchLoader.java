@@ -0,0 +1,71 @@
+package com.comptechco.stabledemojhipster.service;
+
+import com.comptechco.stabledemojhipster.service.dto.BatchGetResultDTO;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import javax.persistence.Cache;
+import javax.persistence.EntityManager;
+
+/**
+ * Loads the entities of a batch get: from the second-level cache when they are in it, and all the others with a single
+ * {@code IN} query, whose parameters Hibernate pads to a power of two so that the statement cache is not flooded with
+ * one statement per batch size.
+ */
+final class BatchLoader {
+
+    private BatchLoader() {}
+
+    /**
+     * Load the entities with the given ids. Must be called inside a transaction.
+     *
+     * @param entityManager the entity manager of the transaction.
+     * @param entityClass the class of the entity, which must be cached in the second-level cache.
+     * @param ids the requested ids, duplicates and {@code null} are ignored.
+     * @param findAllById the query loading the entities with the given ids, in any order.
+     * @param getId the id of an entity.
+     * @param <T> the type of the entities.
+     * @return the entities in the order of their first request, and the ids that do not exist.
+     */
+    static <T> BatchGetResultDTO<T> load(
+        EntityManager entityManager,
+        Class<T> entityClass,
+        List<Long> ids,
+        Function<List<Long>, List<T>> findAllById,
+        Function<T, Long> getId
+    ) {
+        Set<Long> requestedIds = new LinkedHashSet<>(ids);
+        requestedIds.remove(null);
+        Cache cache = entityManager.getEntityManagerFactory().getCache();
+        Map<Long, T> entities = new HashMap<>(requestedIds.size() * 2);
+        List<Long> uncachedIds = new ArrayList<>(requestedIds.size());
+        for (Long id : requestedIds) {
+            T entity = cache.contains(entityClass, id) ? entityManager.find(entityClass, id) : null;
+            if (entity != null) {
+                entities.put(id, entity);
+            } else {
+                uncachedIds.add(id);
+            }
+        }
+        if (!uncachedIds.isEmpty()) {
+            for (T entity : findAllById.apply(uncachedIds)) {
+                entities.put(getId.apply(entity), entity);
+            }
+        }
+        List<T> items = new ArrayList<>(entities.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : requestedIds) {
+            T entity = entities.get(id);
+            if (entity != null) {
+                items.add(entity);
+            } else {
+                missingIds.add(id);
+            }
+        }
+        return new BatchGetResultDTO<>(items, missingIds);
+    }
+}
@@ -0,0 +1,208 @@
+package com.comptechco.stabledemojhipster.service;
+
+import com.comptechco.stabledemojhipster.config.ApplicationProperties;
+import com.comptechco.stabledemojhipster.domain.Coffee;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPOutputStream;
+import javax.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Serialized snapshot of all the coffees, for the catalog reads.
+ * <p>
+ * The catalog is read far more often than it changes, so the coffees are serialized to a JSON array, and optionally
+ * gzipped, once per modification instead of once per read. The snapshot is replaced as a whole, so a reader never
+ * sees a partial one.
+ * <p>
+ * The snapshot is keyed to the modification tag of the coffees, the counter of the {@code coffee} table: it is only
+ * served while the coffees still have that tag, so the modifications committed by other instances are noticed by the
+ * next read, which schedules a rebuild and reads the database meanwhile. The modifications committed by this instance
+ * schedule a rebuild right away. A read is then a comparison with the tag that the response is tagged with anyway,
+ * which is read by primary key, and a copy of the bytes.
+ */
+@Service
+public class CoffeeCatalogService {
+
+    private final Logger log = LoggerFactory.getLogger(CoffeeCatalogService.class);
+
+    private static final int INITIAL_BUFFER_SIZE = 8192;
+
+    private final CoffeeService coffeeService;
+
+    private final EntityModificationTracker entityModificationTracker;
+
+    private final ObjectWriter coffeeWriter;
+
+    private final Executor taskExecutor;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ApplicationProperties.Catalog catalogProperties;
+
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+
+    private volatile Snapshot snapshot;
+
+    public CoffeeCatalogService(
+        CoffeeService coffeeService,
+        EntityModificationTracker entityModificationTracker,
+        ObjectMapper objectMapper,
+        @Qualifier("taskExecutor") Executor taskExecutor,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties
+    ) {
+        this.coffeeService = coffeeService;
+        this.entityModificationTracker = entityModificationTracker;
+        this.coffeeWriter = objectMapper.writerFor(Coffee.class);
+        this.taskExecutor = taskExecutor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.catalogProperties = applicationProperties.getCatalog();
+    }
+
+    @PostConstruct
+    public void registerListener() {
+        if (catalogProperties.isSnapshotEnabled()) {
+            entityModificationTracker.addModificationListener(Coffee.class, this::scheduleRebuild);
+        }
+    }
+
+    /**
+     * Get the snapshot of the catalog, if it has the current state of the coffees.
+     * <p>
+     * A rebuild is scheduled when there is no such snapshot.
+     *
+     * @param modificationTag the current modification tag of the coffees, as read for the entity tag of the response.
+     * @return the snapshot, or empty if it is older than the modification tag, or not built yet.
+     */
+    public Optional<Snapshot> getSnapshot(String modificationTag) {
+        if (!catalogProperties.isSnapshotEnabled()) {
+            return Optional.empty();
+        }
+        Snapshot current = snapshot;
+        if (current != null && current.getModificationTag().equals(modificationTag)) {
+            return Optional.of(current);
+        }
+        scheduleRebuild();
+        return Optional.empty();
+    }
+
+    /**
+     * Rebuild the snapshot in the background, unless a rebuild is already waiting to start.
+     */
+    public void scheduleRebuild() {
+        if (rebuildScheduled.compareAndSet(false, true)) {
+            taskExecutor.execute(this::rebuild);
+        }
+    }
+
+    /**
+     * Rebuild the snapshot now, unless it already has the current state of the coffees.
+     */
+    public synchronized void rebuild() {
+        // Cleared first, so that a modification committed from now on schedules another rebuild
+        rebuildScheduled.set(false);
+        Snapshot current = snapshot;
+        long start = System.nanoTime();
+        try {
+            // Read-write, so that the tag and the coffees come from the primary database: a lagging replica would tag
+            // old coffees with the current modification tag
+            Snapshot rebuilt = transactionTemplate.execute(status -> {
+                // Read before the coffees, so that it is never newer than them
+                String modificationTag = entityModificationTracker.getModificationTag(Coffee.class);
+                if (current != null && current.getModificationTag().equals(modificationTag)) {
+                    return current;
+                }
+                byte[] json = serializeCoffees(current != null ? current.getJson().length : INITIAL_BUFFER_SIZE);
+                return new Snapshot(modificationTag, json, null);
+            });
+            if (rebuilt == current) {
+                return;
+            }
+            byte[] json = rebuilt.getJson();
+            snapshot = new Snapshot(rebuilt.getModificationTag(), json, catalogProperties.isGzip() ? gzip(json) : null);
+            log.debug(
+                "Rebuilt the coffee catalog snapshot of {} bytes in {} ms",
+                json.length,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)
+            );
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not rebuild the coffee catalog snapshot", e);
+        }
+    }
+
+    private byte[] serializeCoffees(int expectedSize) {
+        ByteArrayOutputStream json = new ByteArrayOutputStream(expectedSize);
+        try (JsonGenerator generator = coffeeWriter.getFactory().createGenerator(json)) {
+            generator.writeStartArray();
+            coffeeService.streamAll(coffee -> {
+                try {
+                    coffeeWriter.writeValue(generator, coffee);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            generator.writeEndArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return json.toByteArray();
+    }
+
+    private static byte[] gzip(byte[] json) throws IOException {
+        ByteArrayOutputStream gzippedJson = new ByteArrayOutputStream(json.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(gzippedJson)) {
+            gzip.write(json);
+        }
+        return gzippedJson.toByteArray();
+    }
+
+    /**
+     * The serialized coffees, at one modification tag. The arrays are shared by all the readers and must not be modified.
+     */
+    public static final class Snapshot {
+
+        private final String modificationTag;
+
+        private final byte[] json;
+
+        private final byte[] gzippedJson;
+
+        Snapshot(String modificationTag, byte[] json, byte[] gzippedJson) {
+            this.modificationTag = modificationTag;
+            this.json = json;
+            this.gzippedJson = gzippedJson;
+        }
+
+        public String getModificationTag() {
+            return modificationTag;
+        }
+
+        /**
+         * @return the JSON array of all the coffees.
+         */
+        public byte[] getJson() {
+            return json;
+        }
+
+        /**
+         * @return the gzipped JSON array of all the coffees, or {@code null} if it is not kept gzipped.
+         */
+        public byte[] getGzippedJson() {
+            return gzippedJson;
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.comptechco.stabledemojhipster.service;
+
+import com.comptechco.stabledemojhipster.domain.*; // for static metamodels
+import com.comptechco.stabledemojhipster.domain.Coffee;
+import com.comptechco.stabledemojhipster.repository.CoffeeRepository;
+import com.comptechco.stabledemojhipster.service.criteria.CoffeeCriteria;
+import com.comptechco.stabledemojhipster.service.criteria.PrefixStringFilter;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import javax.persistence.EntityManager;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.metamodel.SingularAttribute;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tech.jhipster.service.QueryService;
+
+/**
+ * Service for executing complex queries for {@link Coffee} entities in the database.
+ * The main input is a {@link CoffeeCriteria} which gets converted to {@link Specification},
+ * in a way that all the filters must apply.
+ * It returns a {@link List} of {@link Coffee}, a {@link Page} or a {@link Slice} of it.
+ */
+@Service
+@Transactional(readOnly = true)
+public class CoffeeQueryService extends QueryService<Coffee> {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    private final Logger log = LoggerFactory.getLogger(CoffeeQueryService.class);
+
+    private final CoffeeRepository coffeeRepository;
+
+    private final EntityManager entityManager;
+
+    private final FieldProjection<Coffee> fieldProjection;
+
+    public CoffeeQueryService(CoffeeRepository coffeeRepository, EntityManager entityManager) {
+        this.coffeeRepository = coffeeRepository;
+        this.entityManager = entityManager;
+        this.fieldProjection = new FieldProjection<>(Coffee.class, Coffee_.id, Coffee_.id, Coffee_.name, Coffee_.price, Coffee_.version);
+    }
+
+    /**
+     * Return a {@link List} of {@link Coffee} which matches the criteria from the database.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @return the matching entities.
+     */
+    public List<Coffee> findByCriteria(CoffeeCriteria criteria) {
+        log.debug("find by criteria : {}", criteria);
+        final Specification<Coffee> specification = createSpecification(criteria);
+        return coffeeRepository.findAll(specification);
+    }
+
+    /**
+     * Return a {@link Page} of {@link Coffee} which matches the criteria from the database.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param page The page, which should be returned.
+     * @return the matching entities.
+     */
+    public Page<Coffee> findByCriteria(CoffeeCriteria criteria, Pageable page) {
+        log.debug("find by criteria : {}, page: {}", criteria, page);
+        final Specification<Coffee> specification = createSpecification(criteria);
+        return coffeeRepository.findAll(specification, page);
+    }
+
+    /**
+     * Return a {@link Slice} of {@link Coffee} which matches the criteria from the database, without counting them:
+     * one more entity than the page size is read to know whether there is a next page.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param page The page, which should be returned.
+     * @return the matching entities.
+     */
+    public Slice<Coffee> findSliceByCriteria(CoffeeCriteria criteria, Pageable page) {
+        log.debug("find slice by criteria : {}, page: {}", criteria, page);
+        final Specification<Coffee> specification = createSpecification(criteria);
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Coffee> query = builder.createQuery(Coffee.class);
+        Root<Coffee> root = query.from(Coffee.class);
+        Predicate predicate = specification.toPredicate(root, query, builder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(page.getSort(), root, builder));
+        List<Coffee> coffees = entityManager
+            .createQuery(query)
+            .setFirstResult((int) page.getOffset())
+            .setMaxResults(page.getPageSize() + 1)
+            .getResultList();
+        boolean hasNext = coffees.size() > page.getPageSize();
+        return new SliceImpl<>(hasNext ? coffees.subList(0, page.getPageSize()) : coffees, page, hasNext);
+    }
+
+    /**
+     * Parse the fields of a sparse fieldset of {@link Coffee}.
+     * @param fields The comma-separated names of the fields.
+     * @return the names of the fields.
+     * @throws IllegalArgumentException if a field is unknown, or if there is none.
+     */
+    public List<String> parseFields(String fields) {
+        return fieldProjection.parse(fields);
+    }
+
+    /**
+     * Return a {@link Page} of the given fields of the {@link Coffee} which matches the criteria from the database.
+     * Only the columns of these fields are read.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param fields The names of the fields, see {@link #parseFields(String)}.
+     * @param page The page, which should be returned.
+     * @return the values of the fields of the matching entities, by name.
+     */
+    public Page<Map<String, Object>> findFieldsByCriteria(CoffeeCriteria criteria, List<String> fields, Pageable page) {
+        log.debug("find fields {} by criteria : {}, page: {}", fields, criteria, page);
+        return fieldProjection.findPage(entityManager, fields, createSpecification(criteria), page);
+    }
+
+    /**
+     * Return a {@link Slice} of the given fields of the {@link Coffee} which matches the criteria from the database,
+     * without counting them. Only the columns of these fields are read.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param fields The names of the fields, see {@link #parseFields(String)}.
+     * @param page The page, which should be returned.
+     * @return the values of the fields of the matching entities, by name.
+     */
+    public Slice<Map<String, Object>> findFieldsSliceByCriteria(CoffeeCriteria criteria, List<String> fields, Pageable page) {
+        log.debug("find fields {} slice by criteria : {}, page: {}", fields, criteria, page);
+        return fieldProjection.findSlice(entityManager, fields, createSpecification(criteria), page);
+    }
+
+    /**
+     * Return the number of matching entities in the database.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @return the number of matching entities.
+     */
+    public long countByCriteria(CoffeeCriteria criteria) {
+        log.debug("count by criteria : {}", criteria);
+        final Specification<Coffee> specification = createSpecification(criteria);
+        return coffeeRepository.count(specification);
+    }
+
+    /**
+     * Function to convert {@link CoffeeCriteria} to a {@link Specification}
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @return the matching {@link Specification} of the entity.
+     */
+    protected Specification<Coffee> createSpecification(CoffeeCriteria criteria) {
+        Specification<Coffee> specification = Specification.where(null);
+        if (criteria != null) {
+            // This has to be called first, because the distinct method returns null
+            if (criteria.getDistinct() != null) {
+                specification = specification.and(distinct(criteria.getDistinct()));
+            }
+            if (criteria.getId() != null) {
+                specification = specification.and(buildRangeSpecification(criteria.getId(), Coffee_.id));
+            }
+            if (criteria.getName() != null) {
+                specification = specification.and(buildPrefixStringSpecification(criteria.getName(), Coffee_.name));
+            }
+            if (criteria.getPrice() != null) {
+                specification = specification.and(buildRangeSpecification(criteria.getPrice(), Coffee_.price));
+            }
+        }
+        return specification;
+    }
+
+    private Specification<Coffee> buildPrefixStringSpecification(PrefixStringFilter filter, SingularAttribute<Coffee, String> field) {
+        Specification<Coffee> specification = buildStringSpecification(filter, field);
+        if (filter.getStartsWith() != null) {
+            // Same case folding as contains, so that both use the index on upper(name)
+            String pattern = escapeLike(filter.getStartsWith().toUpperCase(Locale.ROOT)) + "%";
+            specification =
+                specification.and((root, query, builder) -> builder.like(builder.upper(root.get(field)), pattern, LIKE_ESCAPE));
+        }
+        return specification;
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -1,13 +1,37 @@
 package com.comptechco.stabledemojhipster.service;
 
+import com.comptechco.stabledemojhipster.config.ApplicationProperties;
 import com.comptechco.stabledemojhipster.domain.Coffee;
+import com.comptechco.stabledemojhipster.management.SingleFlightMetersService;
 import com.comptechco.stabledemojhipster.repository.CoffeeRepository;
+import com.comptechco.stabledemojhipster.repository.search.CoffeeSearchRepository;
+import com.comptechco.stabledemojhipster.service.dto.BatchGetResultDTO;
+import com.comptechco.stabledemojhipster.service.dto.BulkUpsertResultDTO;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.persistence.EntityManager;
+import javax.validation.Validator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 /**
  * Service Implementation for managing {@link Coffee}.
@@ -20,8 +44,34 @@ public class CoffeeService {
 
     private final CoffeeRepository coffeeRepository;
 
-    public CoffeeService(CoffeeRepository coffeeRepository) {
+    private final EntityManager entityManager;
+
+    private final Validator validator;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ApplicationProperties applicationProperties;
+
+    private final CoffeeSearchRepository coffeeSearchRepository;
+
+    private final SingleFlight<Long, Optional<Coffee>> coffeeLoads;
+
+    public CoffeeService(
+        CoffeeRepository coffeeRepository,
+        EntityManager entityManager,
+        Validator validator,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties,
+        CoffeeSearchRepository coffeeSearchRepository,
+        SingleFlightMetersService singleFlightMetersService
+    ) {
         this.coffeeRepository = coffeeRepository;
+        this.entityManager = entityManager;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.applicationProperties = applicationProperties;
+        this.coffeeSearchRepository = coffeeSearchRepository;
+        this.coffeeLoads = new SingleFlight<>("coffee", singleFlightMetersService);
     }
 
     /**
@@ -32,14 +82,131 @@ public class CoffeeService {
      */
     public Coffee save(Coffee coffee) {
         log.debug("Request to save Coffee : {}", coffee);
-        return coffeeRepository.save(coffee);
+        Coffee result = coffeeRepository.save(coffee);
+        coffeeSearchRepository.index(result);
+        return result;
     }
 
     /**
-     * Partially update a coffee.
+     * Create or update coffees in bulk, matching the existing coffees on their unique name.
+     * <p>
+     * All the rows are validated in a first pass. The valid ones are then written in chunks, each chunk
+     * in its own transaction, so that Hibernate sends the inserts and updates as JDBC batches and the ids
+     * come from the pooled sequence allocation. If a chunk cannot be written, only its rows are reported
+     * as failed.
      *
-     * @param coffee the entity to update partially.
-     * @return the persisted entity.
+     * @param coffees the coffees to create or update.
+     * @return the result of each row, in request order.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<BulkUpsertResultDTO> bulkUpsert(List<Coffee> coffees) {
+        log.debug("Request to bulk upsert {} Coffees", coffees.size());
+        List<BulkUpsertResultDTO> results = new ArrayList<>(coffees.size());
+        List<Integer> validRows = new ArrayList<>(coffees.size());
+        Set<String> names = new HashSet<>();
+        for (int i = 0; i < coffees.size(); i++) {
+            BulkUpsertResultDTO result = new BulkUpsertResultDTO(i);
+            results.add(result);
+            List<String> errors = result.getErrors();
+            Coffee coffee = coffees.get(i);
+            if (coffee == null) {
+                errors.add("the row is empty");
+            } else {
+                if (coffee.getId() != null) {
+                    errors.add("id: a coffee to upsert cannot already have an ID");
+                }
+                if (coffee.getName() == null) {
+                    errors.add("name: must not be null");
+                } else if (!names.add(coffee.getName())) {
+                    errors.add("name: is duplicated in the request");
+                }
+                validator.validate(coffee).forEach(violation -> errors.add(violation.getPropertyPath() + ": " + violation.getMessage()));
+            }
+            if (errors.isEmpty()) {
+                validRows.add(i);
+            } else {
+                result.setStatus(BulkUpsertResultDTO.Status.INVALID);
+            }
+        }
+
+        int chunkSize = applicationProperties.getBulk().getChunkSize();
+        for (int from = 0; from < validRows.size(); from += chunkSize) {
+            List<Integer> chunk = validRows.subList(from, Math.min(from + chunkSize, validRows.size()));
+            try {
+                transactionTemplate.executeWithoutResult(status -> upsertChunk(coffees, chunk, results));
+            } catch (DataAccessException | TransactionException e) {
+                log.warn("Could not bulk upsert a chunk of {} Coffees", chunk.size(), e);
+                chunk.forEach(i -> {
+                    BulkUpsertResultDTO result = results.get(i);
+                    result.setId(null);
+                    result.setStatus(BulkUpsertResultDTO.Status.FAILED);
+                    result.getErrors().add(String.valueOf(e.getMostSpecificCause().getMessage()));
+                });
+            }
+        }
+        return results;
+    }
+
+    private void upsertChunk(List<Coffee> coffees, List<Integer> chunk, List<BulkUpsertResultDTO> results) {
+        List<String> names = chunk.stream().map(i -> coffees.get(i).getName()).collect(Collectors.toList());
+        Map<String, Coffee> existingCoffees = coffeeRepository
+            .findAllByNameIn(names)
+            .stream()
+            .collect(Collectors.toMap(Coffee::getName, Function.identity()));
+        for (Integer i : chunk) {
+            Coffee coffee = coffees.get(i);
+            BulkUpsertResultDTO result = results.get(i);
+            Coffee existingCoffee = existingCoffees.get(coffee.getName());
+            if (existingCoffee != null) {
+                existingCoffee.setPrice(coffee.getPrice());
+                result.setId(existingCoffee.getId());
+                result.setStatus(BulkUpsertResultDTO.Status.UPDATED);
+            } else {
+                Coffee createdCoffee = coffeeRepository.save(coffee);
+                // Only the name is indexed, which does not change on update
+                coffeeSearchRepository.index(createdCoffee);
+                result.setId(createdCoffee.getId());
+                result.setStatus(BulkUpsertResultDTO.Status.CREATED);
+            }
+        }
+    }
+
+    /**
+     * Update a coffee, if it still has the version it was read at.
+     * <p>
+     * The coffee is read from the second-level cache when it is there, so the only statement is usually the
+     * {@code UPDATE ... WHERE id = ? AND version = ?}, which also rejects the concurrent updates.
+     *
+     * @param coffee the entity to update, with the version it was read at, or without version to update any version.
+     * @return the persisted entity, with its new version, or empty if there is no coffee with this id.
+     * @throws ObjectOptimisticLockingFailureException if the coffee was updated since it was read.
+     */
+    public Optional<Coffee> update(Coffee coffee) {
+        log.debug("Request to update Coffee : {}", coffee);
+
+        return coffeeRepository
+            .findById(coffee.getId())
+            .map(existingCoffee -> {
+                checkVersion(existingCoffee, coffee.getVersion());
+                existingCoffee.setName(coffee.getName());
+                existingCoffee.setPrice(coffee.getPrice());
+
+                return existingCoffee;
+            })
+            .map(coffeeRepository::saveAndFlush)
+            .map(savedCoffee -> {
+                coffeeSearchRepository.index(savedCoffee);
+
+                return savedCoffee;
+            });
+    }
+
+    /**
+     * Partially update a coffee, if it still has the version it was read at.
+     *
+     * @param coffee the entity to update partially, with the version it was read at, or without version to update any version.
+     * @return the persisted entity, with its new version, or empty if there is no coffee with this id.
+     * @throws ObjectOptimisticLockingFailureException if the coffee was updated since it was read.
      */
     public Optional<Coffee> partialUpdate(Coffee coffee) {
         log.debug("Request to partially update Coffee : {}", coffee);
@@ -47,6 +214,7 @@ public class CoffeeService {
         return coffeeRepository
             .findById(coffee.getId())
             .map(existingCoffee -> {
+                checkVersion(existingCoffee, coffee.getVersion());
                 if (coffee.getName() != null) {
                     existingCoffee.setName(coffee.getName());
                 }
@@ -56,7 +224,18 @@ public class CoffeeService {
 
                 return existingCoffee;
             })
-            .map(coffeeRepository::save);
+            .map(coffeeRepository::saveAndFlush)
+            .map(savedCoffee -> {
+                coffeeSearchRepository.index(savedCoffee);
+
+                return savedCoffee;
+            });
+    }
+
+    private static void checkVersion(Coffee existingCoffee, Long version) {
+        if (version != null && !version.equals(existingCoffee.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(Coffee.class, existingCoffee.getId());
+        }
     }
 
     /**
@@ -70,16 +249,79 @@ public class CoffeeService {
         return coffeeRepository.findAll();
     }
 
+    /**
+     * Get a page of coffees using keyset pagination on the id.
+     *
+     * @param afterId the id of the last coffee already read, or {@code null} to start from the beginning.
+     * @param size the maximum number of coffees to return.
+     * @return the list of entities, ordered by id.
+     */
+    @Transactional(readOnly = true)
+    public List<Coffee> findAllAfter(Long afterId, int size) {
+        log.debug("Request to get {} Coffees after : {}", size, afterId);
+        return coffeeRepository.findByIdGreaterThanOrderByIdAsc(afterId != null ? afterId : Long.MIN_VALUE, PageRequest.of(0, size));
+    }
+
+    /**
+     * Stream all the coffees to the given consumer, reading them from a JDBC cursor.
+     * <p>
+     * Each coffee is detached once consumed, so the persistence context does not grow with the table.
+     *
+     * @param action the action to perform on each entity.
+     */
+    @Transactional(readOnly = true)
+    public void streamAll(Consumer<Coffee> action) {
+        log.debug("Request to stream all Coffees");
+        try (Stream<Coffee> coffees = coffeeRepository.streamAll()) {
+            coffees.forEach(coffee -> {
+                action.accept(coffee);
+                entityManager.detach(coffee);
+            });
+        }
+    }
+
     /**
      * Get one coffee by id.
+     * <p>
+     * Outside of a transaction, the concurrent reads of the same coffee share a single load, which runs in its own
+     * transaction: the coffee they get is detached, and must not be modified.
      *
      * @param id the id of the entity.
      * @return the entity.
      */
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public Optional<Coffee> findOne(Long id) {
         log.debug("Request to get Coffee : {}", id);
-        return coffeeRepository.findById(id);
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            // The coffee must belong to the persistence context of the caller
+            return coffeeRepository.findById(id);
+        }
+        return coffeeLoads.load(id, () -> coffeeRepository.findById(id));
+    }
+
+    /**
+     * Get the coffees with the given ids, from the second-level cache when they are in it, and with a single query for
+     * all the others.
+     *
+     * @param ids the ids of the entities.
+     * @return the entities in the order of the requested ids, and the ids that do not exist.
+     */
+    @Transactional(readOnly = true)
+    public BatchGetResultDTO<Coffee> findAllById(List<Long> ids) {
+        log.debug("Request to get Coffees : {}", ids);
+        return BatchLoader.load(entityManager, Coffee.class, ids, coffeeRepository::findAllById, Coffee::getId);
+    }
+
+    /**
+     * Get the version of one coffee by id, without loading it.
+     *
+     * @param id the id of the entity.
+     * @return the version of the entity.
+     */
+    @Transactional(readOnly = true)
+    public Optional<Long> findVersion(Long id) {
+        log.debug("Request to get the version of Coffee : {}", id);
+        return coffeeRepository.findVersionById(id);
     }
 
     /**
@@ -90,5 +332,40 @@ public class CoffeeService {
     public void delete(Long id) {
         log.debug("Request to delete Coffee : {}", id);
         coffeeRepository.deleteById(id);
+        coffeeSearchRepository.deleteById(id);
+    }
+
+    /**
+     * Search for the coffees corresponding to the query.
+     *
+     * @param query the query of the search.
+     * @param size the maximum number of coffees to return.
+     * @return the list of entities, best matches first.
+     */
+    @Transactional(readOnly = true)
+    public List<Coffee> search(String query, int size) {
+        log.debug("Request to search for {} Coffees for query {}", size, query);
+        List<Long> ids = coffeeSearchRepository.search(query, size);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Coffee> coffees = coffeeRepository
+            .findAllById(ids)
+            .stream()
+            .collect(Collectors.toMap(Coffee::getId, Function.identity()));
+        return ids.stream().map(coffees::get).filter(Objects::nonNull).collect(Collectors.toList());
+    }
+
+    /**
+     * Rebuild the search index of the coffees from the database.
+     *
+     * @return the number of indexed coffees.
+     */
+    @Transactional(readOnly = true)
+    public long reindex() {
+        log.debug("Request to rebuild the Coffee search index");
+        try (Stream<Coffee> coffees = coffeeRepository.streamAll()) {
+            return coffeeSearchRepository.rebuild(coffees.peek(entityManager::detach));
+        }
     }
 }
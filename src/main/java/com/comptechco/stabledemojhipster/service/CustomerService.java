@@ -1,13 +1,33 @@
 package com.comptechco.stabledemojhipster.service;
 
 import com.comptechco.stabledemojhipster.domain.Customer;
+import com.comptechco.stabledemojhipster.domain.Customer_;
+import com.comptechco.stabledemojhipster.management.ExportMetersService;
+import com.comptechco.stabledemojhipster.management.SingleFlightMetersService;
 import com.comptechco.stabledemojhipster.repository.CustomerRepository;
+import com.comptechco.stabledemojhipster.repository.search.CustomerSearchRepository;
+import com.comptechco.stabledemojhipster.service.dto.BatchGetResultDTO;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.persistence.EntityManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.data.domain.Pageable;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 /**
  * Service Implementation for managing {@link Customer}.
@@ -18,10 +38,43 @@ public class CustomerService {
 
     private final Logger log = LoggerFactory.getLogger(CustomerService.class);
 
+    private static final String EXPORT_ENTITY_NAME = "customer";
+
+    /**
+     * Number of exported customers after which the persistence context is cleared.
+     */
+    private static final int EXPORT_CHUNK_SIZE = Integer.parseInt(CustomerRepository.STREAM_FETCH_SIZE);
+
     private final CustomerRepository customerRepository;
 
-    public CustomerService(CustomerRepository customerRepository) {
+    private final EntityManager entityManager;
+
+    private final ExportMetersService exportMetersService;
+
+    private final CustomerSearchRepository customerSearchRepository;
+
+    private final CacheManager cacheManager;
+
+    private final SingleFlight<Long, Optional<Customer>> customerLoads;
+
+    private final FieldProjection<Customer> fieldProjection;
+
+    public CustomerService(
+        CustomerRepository customerRepository,
+        EntityManager entityManager,
+        ExportMetersService exportMetersService,
+        CustomerSearchRepository customerSearchRepository,
+        CacheManager cacheManager,
+        SingleFlightMetersService singleFlightMetersService
+    ) {
         this.customerRepository = customerRepository;
+        this.entityManager = entityManager;
+        this.exportMetersService = exportMetersService;
+        this.customerSearchRepository = customerSearchRepository;
+        this.cacheManager = cacheManager;
+        this.customerLoads = new SingleFlight<>("customer", singleFlightMetersService);
+        this.fieldProjection =
+            new FieldProjection<>(Customer.class, Customer_.id, Customer_.id, Customer_.name, Customer_.phoneNumber, Customer_.version);
     }
 
     /**
@@ -32,14 +85,50 @@ public class CustomerService {
      */
     public Customer save(Customer customer) {
         log.debug("Request to save Customer : {}", customer);
-        return customerRepository.save(customer);
+        Customer result = customerRepository.save(customer);
+        clearCustomerCache(result.getPhoneDigits());
+        customerSearchRepository.index(result);
+        return result;
     }
 
     /**
-     * Partially update a customer.
+     * Update a customer, if it still has the version it was read at.
+     * <p>
+     * The customer is read from the second-level cache when it is there, so the only statement is usually the
+     * {@code UPDATE ... WHERE id = ? AND version = ?}, which also rejects the concurrent updates.
      *
-     * @param customer the entity to update partially.
-     * @return the persisted entity.
+     * @param customer the entity to update, with the version it was read at, or without version to update any version.
+     * @return the persisted entity, with its new version, or empty if there is no customer with this id.
+     * @throws ObjectOptimisticLockingFailureException if the customer was updated since it was read.
+     */
+    public Optional<Customer> update(Customer customer) {
+        log.debug("Request to update Customer : {}", customer);
+
+        return customerRepository
+            .findById(customer.getId())
+            .map(existingCustomer -> {
+                checkVersion(existingCustomer, customer.getVersion());
+                clearCustomerCache(existingCustomer.getPhoneDigits());
+                existingCustomer.setName(customer.getName());
+                existingCustomer.setPhoneNumber(customer.getPhoneNumber());
+                clearCustomerCache(existingCustomer.getPhoneDigits());
+
+                return existingCustomer;
+            })
+            .map(customerRepository::saveAndFlush)
+            .map(savedCustomer -> {
+                customerSearchRepository.index(savedCustomer);
+
+                return savedCustomer;
+            });
+    }
+
+    /**
+     * Partially update a customer, if it still has the version it was read at.
+     *
+     * @param customer the entity to update partially, with the version it was read at, or without version to update any version.
+     * @return the persisted entity, with its new version, or empty if there is no customer with this id.
+     * @throws ObjectOptimisticLockingFailureException if the customer was updated since it was read.
      */
     public Optional<Customer> partialUpdate(Customer customer) {
         log.debug("Request to partially update Customer : {}", customer);
@@ -47,16 +136,41 @@ public class CustomerService {
         return customerRepository
             .findById(customer.getId())
             .map(existingCustomer -> {
+                checkVersion(existingCustomer, customer.getVersion());
+                clearCustomerCache(existingCustomer.getPhoneDigits());
                 if (customer.getName() != null) {
                     existingCustomer.setName(customer.getName());
                 }
                 if (customer.getPhoneNumber() != null) {
                     existingCustomer.setPhoneNumber(customer.getPhoneNumber());
+                    clearCustomerCache(existingCustomer.getPhoneDigits());
                 }
 
                 return existingCustomer;
             })
-            .map(customerRepository::save);
+            .map(customerRepository::saveAndFlush)
+            .map(savedCustomer -> {
+                customerSearchRepository.index(savedCustomer);
+
+                return savedCustomer;
+            });
+    }
+
+    /**
+     * Evict a phone number from the lookup cache once the transaction commits, so that it is not cached again with the
+     * state before the commit.
+     */
+    private void clearCustomerCache(String phoneDigits) {
+        if (phoneDigits != null) {
+            Cache cache = Objects.requireNonNull(cacheManager.getCache(CustomerRepository.CUSTOMERS_BY_PHONE_DIGITS_CACHE));
+            new TransactionAwareCacheDecorator(cache).evict(phoneDigits);
+        }
+    }
+
+    private static void checkVersion(Customer existingCustomer, Long version) {
+        if (version != null && !version.equals(existingCustomer.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(Customer.class, existingCustomer.getId());
+        }
     }
 
     /**
@@ -70,16 +184,116 @@ public class CustomerService {
         return customerRepository.findAll();
     }
 
+    /**
+     * Parse the fields of a sparse fieldset of the customers.
+     *
+     * @param fields the comma-separated names of the fields.
+     * @return the names of the fields.
+     * @throws IllegalArgumentException if a field is unknown, or if there is none.
+     */
+    public List<String> parseFields(String fields) {
+        return fieldProjection.parse(fields);
+    }
+
+    /**
+     * Get the given fields of all the customers, ordered by id. Only the columns of these fields are read.
+     *
+     * @param fields the names of the fields, see {@link #parseFields(String)}.
+     * @return the values of the fields of each customer, by name.
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> findAllFields(List<String> fields) {
+        log.debug("Request to get the fields {} of all Customers", fields);
+        return fieldProjection.findPage(entityManager, fields, null, Pageable.unpaged()).getContent();
+    }
+
+    /**
+     * Export all the customers to the given consumer, reading them from a JDBC cursor.
+     * <p>
+     * The persistence context is cleared after each chunk, so memory use stays constant
+     * whatever the number of customers.
+     *
+     * @param action the action to perform on each entity.
+     * @return the number of exported customers.
+     */
+    @Transactional(readOnly = true)
+    public long export(Consumer<Customer> action) {
+        log.debug("Request to export all Customers");
+        long start = System.nanoTime();
+        long count = 0;
+        try (Stream<Customer> customers = customerRepository.streamAll()) {
+            Iterator<Customer> iterator = customers.iterator();
+            while (iterator.hasNext()) {
+                action.accept(iterator.next());
+                if (++count % EXPORT_CHUNK_SIZE == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+        exportMetersService.trackExport(EXPORT_ENTITY_NAME, count, System.nanoTime() - start);
+        return count;
+    }
+
     /**
      * Get one customer by id.
+     * <p>
+     * Outside of a transaction, the concurrent reads of the same customer share a single load, which runs in its own
+     * transaction: the customer they get is detached, and must not be modified.
      *
      * @param id the id of the entity.
      * @return the entity.
      */
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public Optional<Customer> findOne(Long id) {
         log.debug("Request to get Customer : {}", id);
-        return customerRepository.findById(id);
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            // The customer must belong to the persistence context of the caller
+            return customerRepository.findById(id);
+        }
+        return customerLoads.load(id, () -> customerRepository.findById(id));
+    }
+
+    /**
+     * Get one customer by phone number, from the cache when it was looked up before.
+     * <p>
+     * No transaction is started, so that a cached lookup does not take a database connection.
+     *
+     * @param phoneNumber the phone number, in any format.
+     * @return the entity.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Optional<Customer> findOneByPhoneNumber(String phoneNumber) {
+        log.debug("Request to get Customer by phone number : {}", phoneNumber);
+        String phoneDigits = Customer.phoneDigitsOf(phoneNumber);
+        if (phoneDigits.isEmpty()) {
+            return Optional.empty();
+        }
+        return customerRepository.findOneByPhoneDigits(phoneDigits);
+    }
+
+    /**
+     * Get the customers with the given ids, from the second-level cache when they are in it, and with a single query for
+     * all the others.
+     *
+     * @param ids the ids of the entities.
+     * @return the entities in the order of the requested ids, and the ids that do not exist.
+     */
+    @Transactional(readOnly = true)
+    public BatchGetResultDTO<Customer> findAllById(List<Long> ids) {
+        log.debug("Request to get Customers : {}", ids);
+        return BatchLoader.load(entityManager, Customer.class, ids, customerRepository::findAllById, Customer::getId);
+    }
+
+    /**
+     * Get the version of one customer by id, without loading it.
+     *
+     * @param id the id of the entity.
+     * @return the version of the entity.
+     */
+    @Transactional(readOnly = true)
+    public Optional<Long> findVersion(Long id) {
+        log.debug("Request to get the version of Customer : {}", id);
+        return customerRepository.findVersionById(id);
     }
 
     /**
@@ -89,6 +303,42 @@ public class CustomerService {
      */
     public void delete(Long id) {
         log.debug("Request to delete Customer : {}", id);
+        customerRepository.findById(id).ifPresent(customer -> clearCustomerCache(customer.getPhoneDigits()));
         customerRepository.deleteById(id);
+        customerSearchRepository.deleteById(id);
+    }
+
+    /**
+     * Search for the customers corresponding to the query.
+     *
+     * @param query the query of the search.
+     * @param size the maximum number of customers to return.
+     * @return the list of entities, best matches first.
+     */
+    @Transactional(readOnly = true)
+    public List<Customer> search(String query, int size) {
+        log.debug("Request to search for {} Customers for query {}", size, query);
+        List<Long> ids = customerSearchRepository.search(query, size);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Customer> customers = customerRepository
+            .findAllById(ids)
+            .stream()
+            .collect(Collectors.toMap(Customer::getId, Function.identity()));
+        return ids.stream().map(customers::get).filter(Objects::nonNull).collect(Collectors.toList());
+    }
+
+    /**
+     * Rebuild the search index of the customers from the database.
+     *
+     * @return the number of indexed customers.
+     */
+    @Transactional(readOnly = true)
+    public long reindex() {
+        log.debug("Request to rebuild the Customer search index");
+        try (Stream<Customer> customers = customerRepository.streamAll()) {
+            return customerSearchRepository.rebuild(customers.peek(entityManager::detach));
+        }
     }
 }
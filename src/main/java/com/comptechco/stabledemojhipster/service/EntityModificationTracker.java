@@ -0,0 +1,230 @@
+package com.comptechco.stabledemojhipster.service;
+
+import java.sql.PreparedStatement;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.metamodel.EntityType;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * Tags the state of each versioned entity type, so that the collections read from the database can be tagged without
+ * reading them.
+ * <p>
+ * The tag is the modification counter of the table of the entity, in the {@code table_version} table: each
+ * transaction that inserts, updates or deletes some entities increments the counter of their tables, right before it
+ * commits, so the counter changes with the modifications committed by any instance and is read by primary key. The
+ * counters are incremented in the order of the table names, so that two transactions cannot deadlock on them, and
+ * their row locks are only held during the commit.
+ * <p>
+ * Only the statements that Hibernate does not run as entity modifications go unnoticed: the bulk and native statements
+ * must increment the counter of their table themselves, in the same transaction.
+ * <p>
+ * The modifications committed by this instance are also announced to the listeners, right after the commit.
+ */
+@Service
+public class EntityModificationTracker
+    implements PostCommitInsertEventListener, PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final String SELECT_VERSION = "select version from table_version where table_name = ?";
+
+    private static final String INCREMENT_VERSION = "update table_version set version = version + 1 where table_name = ?";
+
+    private final transient EntityManagerFactory entityManagerFactory;
+
+    private final transient JdbcTemplate jdbcTemplate;
+
+    private final transient Map<Class<?>, String> trackedTables = new ConcurrentHashMap<>();
+
+    private final transient Map<SessionImplementor, SortedSet<String>> modifiedTables = new ConcurrentHashMap<>();
+
+    private final transient Map<Class<?>, List<Runnable>> modificationListeners = new ConcurrentHashMap<>();
+
+    public EntityModificationTracker(EntityManagerFactory entityManagerFactory, JdbcTemplate jdbcTemplate) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void registerListeners() {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        for (EntityType<?> entityType : sessionFactory.getMetamodel().getEntities()) {
+            if (entityType.hasVersionAttribute()) {
+                EntityPersister persister = sessionFactory.getMetamodel().entityPersister(entityType.getJavaType());
+                trackedTables.put(entityType.getJavaType(), ((AbstractEntityPersister) persister).getTableName());
+            }
+        }
+
+        EventListenerRegistry registry = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+        TableVersionListener tableVersionListener = new TableVersionListener();
+        registry.appendListeners(EventType.POST_INSERT, tableVersionListener);
+        registry.appendListeners(EventType.POST_UPDATE, tableVersionListener);
+        registry.appendListeners(EventType.POST_DELETE, tableVersionListener);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    /**
+     * Get a tag of the current state of an entity type, which changes after each committed modification.
+     * <p>
+     * This is a read by primary key of the modification counter, on the JDBC connection of the current transaction,
+     * if any, so that the entity manager is not flushed.
+     *
+     * @param entityClass the class of the entity, which must have a version.
+     * @return the modification tag.
+     */
+    public String getModificationTag(Class<?> entityClass) {
+        String table = trackedTables.get(entityClass);
+        if (table == null) {
+            throw new IllegalArgumentException(entityClass.getName() + " has no version");
+        }
+        return String.valueOf(jdbcTemplate.queryForObject(SELECT_VERSION, Long.class, table));
+    }
+
+    /**
+     * Run an action after each modification of an entity type committed by this instance, once its modification tag
+     * has changed.
+     * <p>
+     * The action runs on the thread that committed, one time per modified entity, so it should only schedule some work.
+     * The modifications committed by other instances, and the bulk statements, do not run it.
+     *
+     * @param entityClass the class of the entity.
+     * @param listener the action to run.
+     */
+    public void addModificationListener(Class<?> entityClass, Runnable listener) {
+        modificationListeners.computeIfAbsent(entityClass, key -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    private void modified(Class<?> entityClass) {
+        List<Runnable> listeners = modificationListeners.get(entityClass);
+        if (listeners != null) {
+            listeners.forEach(Runnable::run);
+        }
+    }
+
+    /**
+     * Remember that the transaction of a session modified the table of an entity, to increment its counter right before
+     * the commit: once per table and transaction, whatever the number of modified entities.
+     */
+    private void modifiedInTransaction(EventSource session, EntityPersister persister) {
+        String table = trackedTables.get(persister.getMappedClass());
+        if (table == null) {
+            return;
+        }
+        modifiedTables.computeIfAbsent(session, this::registerVersionIncrements).add(table);
+    }
+
+    private SortedSet<String> registerVersionIncrements(SessionImplementor session) {
+        BeforeTransactionCompletionProcess incrementVersions = this::incrementVersions;
+        // Run on commit and on rollback
+        AfterTransactionCompletionProcess forgetTables = (success, completedSession) -> modifiedTables.remove(completedSession);
+        session.getActionQueue().registerProcess(incrementVersions);
+        session.getActionQueue().registerProcess(forgetTables);
+        return new TreeSet<>();
+    }
+
+    private void incrementVersions(SessionImplementor session) {
+        SortedSet<String> tables = modifiedTables.get(session);
+        if (tables == null) {
+            return;
+        }
+        session.doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(INCREMENT_VERSION)) {
+                for (String table : tables) {
+                    statement.setString(1, table);
+                    statement.executeUpdate();
+                }
+            }
+        });
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        modified(event.getPersister().getMappedClass());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        modified(event.getPersister().getMappedClass());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        modified(event.getPersister().getMappedClass());
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+        // Nothing was modified
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+        // Nothing was modified
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+        // Nothing was modified
+    }
+
+    @Override
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        return true;
+    }
+
+    /**
+     * Records the modifications as they are flushed, inside their transaction.
+     */
+    private final class TableVersionListener implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public void onPostInsert(PostInsertEvent event) {
+            modifiedInTransaction(event.getSession(), event.getPersister());
+        }
+
+        @Override
+        public void onPostUpdate(PostUpdateEvent event) {
+            modifiedInTransaction(event.getSession(), event.getPersister());
+        }
+
+        @Override
+        public void onPostDelete(PostDeleteEvent event) {
+            modifiedInTransaction(event.getSession(), event.getPersister());
+        }
+
+        @Override
+        public boolean requiresPostCommitHanding(EntityPersister persister) {
+            return false;
+        }
+    }
+}
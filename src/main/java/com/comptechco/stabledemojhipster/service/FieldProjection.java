@@ -0,0 +1,186 @@
+package com.comptechco.stabledemojhipster.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.persistence.EntityManager;
+import javax.persistence.Tuple;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Order;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+import javax.persistence.metamodel.SingularAttribute;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+/**
+ * Sparse fieldsets of an entity: reads only some of its columns, with a tuple query, into maps that only have the
+ * requested properties. The entities are neither hydrated nor attached to the persistence context.
+ *
+ * @param <T> the type of the entity.
+ */
+public final class FieldProjection<T> {
+
+    private final Class<T> entityClass;
+
+    private final SingularAttribute<? super T, ?> idAttribute;
+
+    private final Map<String, SingularAttribute<? super T, ?>> attributes = new LinkedHashMap<>();
+
+    /**
+     * @param entityClass the class of the entity.
+     * @param idAttribute the id of the entity, which the rows are ordered by when no sort is requested.
+     * @param attributes the attributes that can be selected, named after their JSON property.
+     */
+    @SafeVarargs
+    public FieldProjection(
+        Class<T> entityClass,
+        SingularAttribute<? super T, ?> idAttribute,
+        SingularAttribute<? super T, ?>... attributes
+    ) {
+        this.entityClass = entityClass;
+        this.idAttribute = idAttribute;
+        for (SingularAttribute<? super T, ?> attribute : attributes) {
+            this.attributes.put(attribute.getName(), attribute);
+        }
+    }
+
+    /**
+     * @return the names of the fields that can be selected.
+     */
+    public Set<String> getFieldNames() {
+        return attributes.keySet();
+    }
+
+    /**
+     * Parse the value of a {@code fields} parameter.
+     *
+     * @param fields the comma-separated names of the fields.
+     * @return the names of the fields, without duplicates, in the requested order.
+     * @throws IllegalArgumentException if no field is requested, or if a field cannot be selected.
+     */
+    public List<String> parse(String fields) {
+        Set<String> names = new LinkedHashSet<>();
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (!name.isEmpty()) {
+                if (!attributes.containsKey(name)) {
+                    throw new IllegalArgumentException("Unknown field: " + name);
+                }
+                names.add(name);
+            }
+        }
+        if (names.isEmpty()) {
+            throw new IllegalArgumentException("No field requested");
+        }
+        return new ArrayList<>(names);
+    }
+
+    /**
+     * Read a page of the fields of the matching entities, counting them only when the page does not tell how many
+     * there are.
+     *
+     * @param entityManager the entity manager, inside a transaction.
+     * @param fields the names of the fields, see {@link #parse(String)}.
+     * @param specification the specification the entities must match, or {@code null} for all of them.
+     * @param pageable the pagination information.
+     * @return the page of the values of the fields, by name.
+     */
+    public Page<Map<String, Object>> findPage(
+        EntityManager entityManager,
+        List<String> fields,
+        Specification<T> specification,
+        Pageable pageable
+    ) {
+        List<Tuple> tuples = createQuery(entityManager, fields, specification, pageable, 0).getResultList();
+        List<Map<String, Object>> content = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            content.add(toMap(fields, tuple));
+        }
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(entityManager, specification));
+    }
+
+    /**
+     * Read a slice of the fields of the matching entities, without counting them: one more row than the page size is
+     * read to know whether there is a next page.
+     *
+     * @param entityManager the entity manager, inside a transaction.
+     * @param fields the names of the fields, see {@link #parse(String)}.
+     * @param specification the specification the entities must match, or {@code null} for all of them.
+     * @param pageable the pagination information.
+     * @return the slice of the values of the fields, by name.
+     */
+    public Slice<Map<String, Object>> findSlice(
+        EntityManager entityManager,
+        List<String> fields,
+        Specification<T> specification,
+        Pageable pageable
+    ) {
+        List<Tuple> tuples = createQuery(entityManager, fields, specification, pageable, 1).getResultList();
+        boolean hasNext = pageable.isPaged() && tuples.size() > pageable.getPageSize();
+        List<Map<String, Object>> content = new ArrayList<>(tuples.size());
+        for (Tuple tuple : hasNext ? tuples.subList(0, pageable.getPageSize()) : tuples) {
+            content.add(toMap(fields, tuple));
+        }
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+
+    private TypedQuery<Tuple> createQuery(
+        EntityManager entityManager,
+        List<String> fields,
+        Specification<T> specification,
+        Pageable pageable,
+        int extraRows
+    ) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = builder.createTupleQuery();
+        Root<T> root = query.from(entityClass);
+        List<Selection<?>> selections = new ArrayList<>(fields.size());
+        for (String field : fields) {
+            selections.add(root.get(attributes.get(field)).alias(field));
+        }
+        query.multiselect(selections);
+        Predicate predicate = specification != null ? specification.toPredicate(root, query, builder) : null;
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        List<Order> orders = QueryUtils.toOrders(pageable.getSort(), root, builder);
+        query.orderBy(orders.isEmpty() ? List.of(builder.asc(root.get(idAttribute))) : orders);
+        TypedQuery<Tuple> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset()).setMaxResults(pageable.getPageSize() + extraRows);
+        }
+        return typedQuery;
+    }
+
+    private long count(EntityManager entityManager, Specification<T> specification) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = builder.createQuery(Long.class);
+        Root<T> root = query.from(entityClass);
+        query.select(builder.count(root));
+        Predicate predicate = specification != null ? specification.toPredicate(root, query, builder) : null;
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private static Map<String, Object> toMap(List<String> fields, Tuple tuple) {
+        Map<String, Object> values = new LinkedHashMap<>(fields.size() * 2);
+        for (String field : fields) {
+            values.put(field, tuple.get(field));
+        }
+        return values;
+    }
+}
@@ -0,0 +1,257 @@
+package com.comptechco.stabledemojhipster.service;
+
+import com.comptechco.stabledemojhipster.config.ApplicationProperties;
+import com.comptechco.stabledemojhipster.domain.MailOutboxMessage;
+import com.comptechco.stabledemojhipster.domain.enumeration.MailOutboxStatus;
+import com.comptechco.stabledemojhipster.management.MailMetersService;
+import com.comptechco.stabledemojhipster.repository.MailOutboxMessageRepository;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.mail.MessagingException;
+import javax.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Sends the emails of the outbox written by the {@link MailService}.
+ * <p>
+ * The dispatcher runs on its own thread, so a slow SMTP server never delays the other asynchronous tasks. It claims the
+ * due emails in batches, sends each batch over a single SMTP connection at the configured rate, and retries the failed
+ * emails with an exponential backoff.
+ */
+@Service
+public class MailOutboxDispatcher {
+
+    private final Logger log = LoggerFactory.getLogger(MailOutboxDispatcher.class);
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final MailOutboxMessageRepository mailOutboxMessageRepository;
+
+    private final JavaMailSender javaMailSender;
+
+    private final JHipsterProperties jHipsterProperties;
+
+    private final ApplicationProperties.Mail mailProperties;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final MailMetersService mailMetersService;
+
+    private final Clock clock;
+
+    private ThreadPoolTaskScheduler scheduler;
+
+    public MailOutboxDispatcher(
+        MailOutboxMessageRepository mailOutboxMessageRepository,
+        JavaMailSender javaMailSender,
+        JHipsterProperties jHipsterProperties,
+        ApplicationProperties applicationProperties,
+        PlatformTransactionManager transactionManager,
+        MailMetersService mailMetersService
+    ) {
+        this.mailOutboxMessageRepository = mailOutboxMessageRepository;
+        this.javaMailSender = javaMailSender;
+        this.jHipsterProperties = jHipsterProperties;
+        this.mailProperties = applicationProperties.getMail();
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.mailMetersService = mailMetersService;
+        this.clock = Clock.systemUTC();
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!mailProperties.isDispatcherEnabled()) {
+            log.info("Mail outbox dispatcher is disabled");
+            return;
+        }
+        scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("mail-outbox-");
+        scheduler.setWaitForTasksToCompleteOnShutdown(true);
+        scheduler.initialize();
+        scheduler.scheduleWithFixedDelay(this::dispatchQuietly, mailProperties.getPollInterval());
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+    }
+
+    private void dispatchQuietly() {
+        try {
+            dispatch();
+        } catch (RuntimeException e) {
+            log.error("Mail outbox dispatch failed", e);
+        }
+    }
+
+    /**
+     * Send all the due emails of the outbox.
+     *
+     * @return the number of emails sent.
+     */
+    public int dispatch() {
+        int sent = 0;
+        List<MailOutboxMessage> batch;
+        do {
+            batch = claimBatch();
+            if (!batch.isEmpty()) {
+                sent += sendBatch(batch);
+            }
+        } while (batch.size() == mailProperties.getBatchSize());
+        mailMetersService.setPendingMessages(mailOutboxMessageRepository.countByStatus(MailOutboxStatus.PENDING));
+        return sent;
+    }
+
+    /**
+     * Claim the next due emails: they are not due again before the claim timeout, so another instance does not send them
+     * while this one does.
+     */
+    private List<MailOutboxMessage> claimBatch() {
+        return transactionTemplate.execute(status -> {
+            Instant now = clock.instant();
+            List<MailOutboxMessage> batch = mailOutboxMessageRepository.findByStatusAndNextAttemptAtLessThanEqualOrderByNextAttemptAtAsc(
+                MailOutboxStatus.PENDING,
+                now,
+                PageRequest.of(0, mailProperties.getBatchSize())
+            );
+            batch.forEach(message -> message.setNextAttemptAt(now.plus(mailProperties.getClaimTimeout())));
+            return batch;
+        });
+    }
+
+    private int sendBatch(List<MailOutboxMessage> batch) {
+        Map<MimeMessage, MailOutboxMessage> mimeMessages = new LinkedHashMap<>();
+        Map<Long, Exception> failures = new HashMap<>();
+        for (MailOutboxMessage message : batch) {
+            try {
+                mimeMessages.put(toMimeMessage(message), message);
+            } catch (MessagingException e) {
+                failures.put(message.getId(), e);
+            }
+        }
+
+        long start = System.nanoTime();
+        if (!mimeMessages.isEmpty()) {
+            try {
+                // Sends all the messages over one SMTP connection
+                javaMailSender.send(mimeMessages.keySet().toArray(new MimeMessage[0]));
+            } catch (MailSendException e) {
+                if (e.getFailedMessages().isEmpty()) {
+                    mimeMessages.values().forEach(message -> failures.put(message.getId(), e));
+                } else {
+                    e.getFailedMessages().forEach((mimeMessage, cause) -> failures.put(mimeMessages.get(mimeMessage).getId(), cause));
+                }
+            } catch (MailException e) {
+                mimeMessages.values().forEach(message -> failures.put(message.getId(), e));
+            }
+            mailMetersService.trackBatch(System.nanoTime() - start);
+        }
+
+        int sent = batch.size() - failures.size();
+        transactionTemplate.executeWithoutResult(status -> {
+            Instant now = clock.instant();
+            for (MailOutboxMessage message : batch) {
+                Exception failure = failures.get(message.getId());
+                if (failure == null) {
+                    markSent(message, now);
+                } else {
+                    markFailed(message, failure, now);
+                }
+            }
+            mailOutboxMessageRepository.saveAll(batch);
+        });
+        throttle(start, mimeMessages.size());
+        return sent;
+    }
+
+    private MimeMessage toMimeMessage(MailOutboxMessage message) throws MessagingException {
+        MimeMessage mimeMessage = javaMailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, message.isMultipart(), StandardCharsets.UTF_8.name());
+        helper.setTo(message.getRecipient());
+        helper.setFrom(jHipsterProperties.getMail().getFrom());
+        helper.setSubject(message.getSubject());
+        helper.setText(message.getContent(), message.isHtml());
+        return mimeMessage;
+    }
+
+    private void markSent(MailOutboxMessage message, Instant now) {
+        log.debug("Sent email to User '{}'", message.getRecipient());
+        message.setStatus(MailOutboxStatus.SENT);
+        message.setAttempts(message.getAttempts() + 1);
+        message.setSentDate(now);
+        message.setLastError(null);
+        mailMetersService.trackSent(Duration.between(message.getCreatedDate(), now));
+    }
+
+    private void markFailed(MailOutboxMessage message, Exception failure, Instant now) {
+        int attempts = message.getAttempts() + 1;
+        message.setAttempts(attempts);
+        message.setLastError(abbreviate(String.valueOf(failure.getMessage())));
+        if (attempts >= mailProperties.getMaxAttempts()) {
+            log.warn("Email could not be sent to user '{}', giving up after {} attempts", message.getRecipient(), attempts, failure);
+            message.setStatus(MailOutboxStatus.FAILED);
+            mailMetersService.trackFailed();
+        } else {
+            log.debug("Email could not be sent to user '{}', attempt {}", message.getRecipient(), attempts, failure);
+            message.setNextAttemptAt(now.plus(backoff(attempts)));
+            mailMetersService.trackRetried();
+        }
+    }
+
+    /**
+     * Get the delay before the next attempt: the initial backoff, doubled after each failed attempt, up to the maximum
+     * backoff.
+     *
+     * @param attempts the number of failed attempts.
+     * @return the delay.
+     */
+    Duration backoff(int attempts) {
+        Duration backoff = mailProperties.getInitialBackoff().multipliedBy(1L << Math.min(attempts - 1, 30));
+        return backoff.compareTo(mailProperties.getMaxBackoff()) > 0 ? mailProperties.getMaxBackoff() : backoff;
+    }
+
+    /**
+     * Wait long enough after sending a batch not to exceed the maximum rate.
+     */
+    private void throttle(long batchStart, int batchSize) {
+        if (mailProperties.getMaxMessagesPerSecond() <= 0 || batchSize == 0) {
+            return;
+        }
+        long minimumNanos = (long) (batchSize * TimeUnit.SECONDS.toNanos(1) / mailProperties.getMaxMessagesPerSecond());
+        long remainingNanos = minimumNanos - (System.nanoTime() - batchStart);
+        if (remainingNanos > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(remainingNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static String abbreviate(String error) {
+        return error.length() <= MAX_ERROR_LENGTH ? error : error.substring(0, MAX_ERROR_LENGTH);
+    }
+}
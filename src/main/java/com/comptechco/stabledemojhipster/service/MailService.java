@@ -1,60 +1,43 @@
 package com.comptechco.stabledemojhipster.service;
 
+import com.comptechco.stabledemojhipster.domain.MailOutboxMessage;
 import com.comptechco.stabledemojhipster.domain.User;
-import java.nio.charset.StandardCharsets;
-import java.util.Locale;
-import javax.mail.MessagingException;
-import javax.mail.internet.MimeMessage;
+import com.comptechco.stabledemojhipster.domain.enumeration.MailOutboxStatus;
+import com.comptechco.stabledemojhipster.repository.MailOutboxMessageRepository;
+import com.comptechco.stabledemojhipster.service.MailTemplateRenderer.RenderedEmail;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.context.MessageSource;
-import org.springframework.mail.MailException;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
-import org.thymeleaf.context.Context;
-import org.thymeleaf.spring5.SpringTemplateEngine;
-import tech.jhipster.config.JHipsterProperties;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Service for sending emails.
  * <p>
- * We use the {@link Async} annotation to send emails asynchronously.
+ * Emails are written to the outbox in the caller's transaction, so they are only sent if it commits, and they survive
+ * a restart. The {@link MailOutboxDispatcher} sends them.
  */
 @Service
+@Transactional
 public class MailService {
 
     private final Logger log = LoggerFactory.getLogger(MailService.class);
 
-    private static final String USER = "user";
+    private final MailTemplateRenderer mailTemplateRenderer;
 
-    private static final String BASE_URL = "baseUrl";
+    private final MailOutboxMessageRepository mailOutboxMessageRepository;
 
-    private final JHipsterProperties jHipsterProperties;
-
-    private final JavaMailSender javaMailSender;
-
-    private final MessageSource messageSource;
-
-    private final SpringTemplateEngine templateEngine;
-
-    public MailService(
-        JHipsterProperties jHipsterProperties,
-        JavaMailSender javaMailSender,
-        MessageSource messageSource,
-        SpringTemplateEngine templateEngine
-    ) {
-        this.jHipsterProperties = jHipsterProperties;
-        this.javaMailSender = javaMailSender;
-        this.messageSource = messageSource;
-        this.templateEngine = templateEngine;
+    public MailService(MailTemplateRenderer mailTemplateRenderer, MailOutboxMessageRepository mailOutboxMessageRepository) {
+        this.mailTemplateRenderer = mailTemplateRenderer;
+        this.mailOutboxMessageRepository = mailOutboxMessageRepository;
     }
 
-    @Async
     public void sendEmail(String to, String subject, String content, boolean isMultipart, boolean isHtml) {
         log.debug(
-            "Send email[multipart '{}' and html '{}'] to '{}' with subject '{}' and content={}",
+            "Queue email[multipart '{}' and html '{}'] to '{}' with subject '{}' and content={}",
             isMultipart,
             isHtml,
             to,
@@ -62,51 +45,78 @@ public class MailService {
             content
         );
 
-        // Prepare message using a Spring helper
-        MimeMessage mimeMessage = javaMailSender.createMimeMessage();
-        try {
-            MimeMessageHelper message = new MimeMessageHelper(mimeMessage, isMultipart, StandardCharsets.UTF_8.name());
-            message.setTo(to);
-            message.setFrom(jHipsterProperties.getMail().getFrom());
-            message.setSubject(subject);
-            message.setText(content, isHtml);
-            javaMailSender.send(mimeMessage);
-            log.debug("Sent email to User '{}'", to);
-        } catch (MailException | MessagingException e) {
-            log.warn("Email could not be sent to user '{}'", to, e);
-        }
+        mailOutboxMessageRepository.save(newOutboxMessage(to, subject, content, isMultipart, isHtml, Instant.now()));
+        log.debug("Queued email to User '{}'", to);
+    }
+
+    private static MailOutboxMessage newOutboxMessage(
+        String to,
+        String subject,
+        String content,
+        boolean isMultipart,
+        boolean isHtml,
+        Instant now
+    ) {
+        MailOutboxMessage message = new MailOutboxMessage();
+        message.setRecipient(to);
+        message.setSubject(subject);
+        message.setContent(content);
+        message.setMultipart(isMultipart);
+        message.setHtml(isHtml);
+        message.setStatus(MailOutboxStatus.PENDING);
+        message.setAttempts(0);
+        message.setNextAttemptAt(now);
+        message.setCreatedDate(now);
+        return message;
     }
 
-    @Async
     public void sendEmailFromTemplate(User user, String templateName, String titleKey) {
         if (user.getEmail() == null) {
             log.debug("Email doesn't exist for user '{}'", user.getLogin());
             return;
         }
-        Locale locale = Locale.forLanguageTag(user.getLangKey());
-        Context context = new Context(locale);
-        context.setVariable(USER, user);
-        context.setVariable(BASE_URL, jHipsterProperties.getMail().getBaseUrl());
-        String content = templateEngine.process(templateName, context);
-        String subject = messageSource.getMessage(titleKey, null, locale);
-        sendEmail(user.getEmail(), subject, content, false, true);
+        RenderedEmail email = mailTemplateRenderer.render(user, templateName, titleKey);
+        sendEmail(email.getTo(), email.getSubject(), email.getContent(), false, true);
+    }
+
+    /**
+     * Send an email from a template to each of the users, e.g. for a campaign. The emails are rendered in parallel, and
+     * the users without an email address are skipped.
+     *
+     * @param users the recipients.
+     * @param templateName the name of the Thymeleaf template.
+     * @param titleKey the message key of the subject.
+     * @return the number of emails queued.
+     */
+    public int sendEmailsFromTemplate(Collection<User> users, String templateName, String titleKey) {
+        log.debug("Queue '{}' emails to {} users", templateName, users.size());
+        Instant now = Instant.now();
+        List<MailOutboxMessage> messages = mailTemplateRenderer
+            .renderAll(users, templateName, titleKey)
+            .stream()
+            .map(email -> newOutboxMessage(email.getTo(), email.getSubject(), email.getContent(), false, true, now))
+            .collect(Collectors.toList());
+        mailOutboxMessageRepository.saveAll(messages);
+        return messages.size();
     }
 
-    @Async
     public void sendActivationEmail(User user) {
         log.debug("Sending activation email to '{}'", user.getEmail());
         sendEmailFromTemplate(user, "mail/activationEmail", "email.activation.title");
     }
 
-    @Async
     public void sendCreationEmail(User user) {
         log.debug("Sending creation email to '{}'", user.getEmail());
         sendEmailFromTemplate(user, "mail/creationEmail", "email.activation.title");
     }
 
-    @Async
     public void sendPasswordResetMail(User user) {
         log.debug("Sending password reset email to '{}'", user.getEmail());
         sendEmailFromTemplate(user, "mail/passwordResetEmail", "email.reset.title");
     }
+
+    public int sendPasswordResetMails(Collection<User> users) {
+        log.debug("Sending password reset email to {} users", users.size());
+        return sendEmailsFromTemplate(users, "mail/passwordResetEmail", "email.reset.title");
+    }
 }
@@ -0,0 +1,156 @@
+package com.comptechco.stabledemojhipster.service;
+
+import com.comptechco.stabledemojhipster.domain.User;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.MessageSource;
+import org.springframework.stereotype.Service;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring5.SpringTemplateEngine;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Renders the emails sent from Thymeleaf templates.
+ * <p>
+ * The templates are parsed once and kept by the Thymeleaf template cache, the subjects and locales are cached, and
+ * each thread renders into a reused buffer. Emails for many users are rendered in parallel on the bounded
+ * {@code mailRenderingExecutor}, which makes the caller render too when its queue is full.
+ */
+@Service
+public class MailTemplateRenderer {
+
+    private static final String USER = "user";
+
+    private static final String BASE_URL = "baseUrl";
+
+    /**
+     * Buffers that grew larger than this are not kept for the next rendering.
+     */
+    private static final int MAX_REUSED_BUFFER_SIZE = 64 * 1024;
+
+    private static final ThreadLocal<StringWriter> BUFFER = ThreadLocal.withInitial(() -> new StringWriter(4096));
+
+    private final JHipsterProperties jHipsterProperties;
+
+    private final MessageSource messageSource;
+
+    private final SpringTemplateEngine templateEngine;
+
+    private final Executor executor;
+
+    private final Map<String, Locale> locales = new ConcurrentHashMap<>();
+
+    private final Map<Locale, Map<String, String>> subjects = new ConcurrentHashMap<>();
+
+    public MailTemplateRenderer(
+        JHipsterProperties jHipsterProperties,
+        MessageSource messageSource,
+        SpringTemplateEngine templateEngine,
+        @Qualifier("mailRenderingExecutor") Executor executor
+    ) {
+        this.jHipsterProperties = jHipsterProperties;
+        this.messageSource = messageSource;
+        this.templateEngine = templateEngine;
+        this.executor = executor;
+    }
+
+    /**
+     * Render an email for a user, in the user's language.
+     *
+     * @param user the recipient.
+     * @param templateName the name of the Thymeleaf template.
+     * @param titleKey the message key of the subject.
+     * @return the rendered email.
+     */
+    public RenderedEmail render(User user, String templateName, String titleKey) {
+        Locale locale = locales.computeIfAbsent(user.getLangKey(), Locale::forLanguageTag);
+        String subject = subjects
+            .computeIfAbsent(locale, key -> new ConcurrentHashMap<>())
+            .computeIfAbsent(titleKey, key -> messageSource.getMessage(key, null, locale));
+
+        Context context = new Context(locale);
+        context.setVariable(USER, user);
+        context.setVariable(BASE_URL, jHipsterProperties.getMail().getBaseUrl());
+
+        StringWriter buffer = BUFFER.get();
+        try {
+            templateEngine.process(templateName, context, buffer);
+            return new RenderedEmail(user.getEmail(), subject, buffer.toString());
+        } finally {
+            if (buffer.getBuffer().capacity() > MAX_REUSED_BUFFER_SIZE) {
+                BUFFER.remove();
+            } else {
+                buffer.getBuffer().setLength(0);
+            }
+        }
+    }
+
+    /**
+     * Render an email for each user in parallel, skipping the users without an email address.
+     *
+     * @param users the recipients.
+     * @param templateName the name of the Thymeleaf template.
+     * @param titleKey the message key of the subject.
+     * @return the rendered emails, in the order of the users.
+     */
+    public List<RenderedEmail> renderAll(Collection<User> users, String templateName, String titleKey) {
+        List<CompletableFuture<RenderedEmail>> futures = users
+            .stream()
+            .filter(user -> user.getEmail() != null)
+            .map(user -> CompletableFuture.supplyAsync(() -> render(user, templateName, titleKey), executor))
+            .collect(Collectors.toList());
+        List<RenderedEmail> emails = new ArrayList<>(futures.size());
+        try {
+            for (CompletableFuture<RenderedEmail> future : futures) {
+                emails.add(future.join());
+            }
+        } catch (CompletionException e) {
+            futures.forEach(future -> future.cancel(false));
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+        return emails;
+    }
+
+    /**
+     * An email rendered from a template.
+     */
+    public static final class RenderedEmail {
+
+        private final String to;
+
+        private final String subject;
+
+        private final String content;
+
+        public RenderedEmail(String to, String subject, String content) {
+            this.to = to;
+            this.subject = subject;
+            this.content = content;
+        }
+
+        public String getTo() {
+            return to;
+        }
+
+        public String getSubject() {
+            return subject;
+        }
+
+        public String getContent() {
+            return content;
+        }
+    }
+}
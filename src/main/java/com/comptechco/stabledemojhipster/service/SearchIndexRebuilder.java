@@ -0,0 +1,54 @@
+package com.comptechco.stabledemojhipster.service;
+
+import com.comptechco.stabledemojhipster.config.ApplicationProperties;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+/**
+ * Rebuilds the search indexes from the database when the application starts, so that they catch up with the changes
+ * made while it was stopped, or by another instance. The indexes keep answering the searches meanwhile.
+ */
+@Service
+public class SearchIndexRebuilder {
+
+    private final Logger log = LoggerFactory.getLogger(SearchIndexRebuilder.class);
+
+    private final CustomerService customerService;
+
+    private final CoffeeService coffeeService;
+
+    private final ApplicationProperties.Search searchProperties;
+
+    public SearchIndexRebuilder(CustomerService customerService, CoffeeService coffeeService, ApplicationProperties applicationProperties) {
+        this.customerService = customerService;
+        this.coffeeService = coffeeService;
+        this.searchProperties = applicationProperties.getSearch();
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        if (!searchProperties.isRebuildOnStartup()) {
+            log.info("Search indexes are not rebuilt at startup");
+            return;
+        }
+        try {
+            long start = System.nanoTime();
+            long customers = customerService.reindex();
+            long coffees = coffeeService.reindex();
+            log.info(
+                "Rebuilt the search indexes of {} customers and {} coffees in {} ms",
+                customers,
+                coffees,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)
+            );
+        } catch (RuntimeException e) {
+            log.error("Could not rebuild the search indexes", e);
+        }
+    }
+}
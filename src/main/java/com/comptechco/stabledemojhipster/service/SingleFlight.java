@@ -0,0 +1,82 @@
+package com.comptechco.stabledemojhipster.service;
+
+import com.comptechco.stabledemojhipster.management.SingleFlightMetersService;
+import io.micrometer.core.instrument.Counter;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces the concurrent loads of the same key: the first read runs the load, and the reads that come while it is in
+ * flight wait for its result instead of running their own.
+ * <p>
+ * The loads in flight are kept in a {@link ConcurrentHashMap}, which only locks the bin of a key, so the reads of
+ * unrelated keys do not contend. Nothing is kept once a load completes. The readers share the loaded value, so they
+ * must not modify it.
+ *
+ * @param <K> the type of the keys.
+ * @param <V> the type of the loaded values.
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> loadsInFlight = new ConcurrentHashMap<>();
+
+    private final Counter loadedCounter;
+
+    private final Counter coalescedCounter;
+
+    /**
+     * Create the single-flight of a type of values.
+     *
+     * @param name the name of the loaded values, in the metrics.
+     * @param singleFlightMetersService the metrics of the loads.
+     */
+    public SingleFlight(String name, SingleFlightMetersService singleFlightMetersService) {
+        this.loadedCounter = singleFlightMetersService.getLoadedCounter(name);
+        this.coalescedCounter = singleFlightMetersService.getCoalescedCounter(name);
+    }
+
+    /**
+     * Load the value of a key, or wait for the load of the same key already in flight.
+     *
+     * @param key the key.
+     * @param loader the load of the value, only run when no load of the key is in flight.
+     * @return the loaded value.
+     */
+    public V load(K key, Supplier<V> loader) {
+        CompletableFuture<V> load = new CompletableFuture<>();
+        CompletableFuture<V> loadInFlight = loadsInFlight.putIfAbsent(key, load);
+        if (loadInFlight != null) {
+            coalescedCounter.increment();
+            return join(loadInFlight);
+        }
+        loadedCounter.increment();
+        try {
+            V value = loader.get();
+            load.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            loadsInFlight.remove(key, load);
+        }
+    }
+
+    private static <V> V join(CompletableFuture<V> load) {
+        try {
+            return load.join();
+        } catch (CompletionException e) {
+            // The readers fail like the one that ran the load
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+}
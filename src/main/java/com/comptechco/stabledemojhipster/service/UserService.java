@@ -3,6 +3,8 @@ package com.comptechco.stabledemojhipster.service;
 import com.comptechco.stabledemojhipster.config.Constants;
 import com.comptechco.stabledemojhipster.domain.Authority;
 import com.comptechco.stabledemojhipster.domain.User;
+import com.comptechco.stabledemojhipster.domain.User_;
+import com.comptechco.stabledemojhipster.management.SingleFlightMetersService;
 import com.comptechco.stabledemojhipster.repository.AuthorityRepository;
 import com.comptechco.stabledemojhipster.repository.UserRepository;
 import com.comptechco.stabledemojhipster.security.AuthoritiesConstants;
@@ -13,15 +15,19 @@ import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.util.stream.Collectors;
+import javax.persistence.EntityManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.cache.CacheManager;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import tech.jhipster.security.RandomUtil;
 
 /**
@@ -41,16 +47,51 @@ public class UserService {
 
     private final CacheManager cacheManager;
 
+    private final MailService mailService;
+
+    private final SingleFlight<String, Optional<User>> userLoads;
+
+    private final EntityManager entityManager;
+
+    private final FieldProjection<User> managedUserFields;
+
+    private final FieldProjection<User> publicUserFields;
+
     public UserService(
         UserRepository userRepository,
         PasswordEncoder passwordEncoder,
         AuthorityRepository authorityRepository,
-        CacheManager cacheManager
+        CacheManager cacheManager,
+        MailService mailService,
+        SingleFlightMetersService singleFlightMetersService,
+        EntityManager entityManager
     ) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.authorityRepository = authorityRepository;
         this.cacheManager = cacheManager;
+        this.mailService = mailService;
+        this.userLoads = new SingleFlight<>("user", singleFlightMetersService);
+        this.entityManager = entityManager;
+        // The properties of AdminUserDTO and UserDTO, except the authorities, which are not a column
+        this.managedUserFields =
+            new FieldProjection<>(
+                User.class,
+                User_.id,
+                User_.id,
+                User_.login,
+                User_.firstName,
+                User_.lastName,
+                User_.email,
+                User_.imageUrl,
+                User_.activated,
+                User_.langKey,
+                User_.createdBy,
+                User_.createdDate,
+                User_.lastModifiedBy,
+                User_.lastModifiedDate
+            );
+        this.publicUserFields = new FieldProjection<>(User.class, User_.id, User_.id, User_.login);
     }
 
     public Optional<User> activateRegistration(String key) {
@@ -89,6 +130,8 @@ public class UserService {
                 user.setResetKey(RandomUtil.generateResetKey());
                 user.setResetDate(Instant.now());
                 this.clearUserCaches(user);
+                // In the same transaction, so that the email is only queued with the reset key it contains
+                mailService.sendPasswordResetMail(user);
                 return user;
             });
     }
@@ -132,6 +175,8 @@ public class UserService {
         userRepository.save(newUser);
         this.clearUserCaches(newUser);
         log.debug("Created Information for User: {}", newUser);
+        // In the same transaction, so that the user is never registered without its activation email
+        mailService.sendActivationEmail(newUser);
         return newUser;
     }
 
@@ -165,18 +210,13 @@ public class UserService {
         user.setResetDate(Instant.now());
         user.setActivated(true);
         if (userDTO.getAuthorities() != null) {
-            Set<Authority> authorities = userDTO
-                .getAuthorities()
-                .stream()
-                .map(authorityRepository::findById)
-                .filter(Optional::isPresent)
-                .map(Optional::get)
-                .collect(Collectors.toSet());
-            user.setAuthorities(authorities);
+            user.setAuthorities(new HashSet<>(authorityRepository.findAllById(userDTO.getAuthorities())));
         }
         userRepository.save(user);
         this.clearUserCaches(user);
         log.debug("Created Information for User: {}", user);
+        // In the same transaction, so that the user is never created without its creation email
+        mailService.sendCreationEmail(user);
         return user;
     }
 
@@ -204,13 +244,7 @@ public class UserService {
                 user.setLangKey(userDTO.getLangKey());
                 Set<Authority> managedAuthorities = user.getAuthorities();
                 managedAuthorities.clear();
-                userDTO
-                    .getAuthorities()
-                    .stream()
-                    .map(authorityRepository::findById)
-                    .filter(Optional::isPresent)
-                    .map(Optional::get)
-                    .forEach(managedAuthorities::add);
+                managedAuthorities.addAll(authorityRepository.findAllById(userDTO.getAuthorities()));
                 this.clearUserCaches(user);
                 log.debug("Changed Information for User: {}", user);
                 return user;
@@ -281,14 +315,72 @@ public class UserService {
         return userRepository.findAllByIdNotNullAndActivatedIsTrue(pageable).map(UserDTO::new);
     }
 
+    /**
+     * Parse the fields of a sparse fieldset of the managed users.
+     *
+     * @param fields the comma-separated names of the fields, among the properties of {@link AdminUserDTO}.
+     * @return the names of the fields.
+     * @throws IllegalArgumentException if a field is unknown, or if there is none.
+     */
+    public List<String> parseManagedUserFields(String fields) {
+        return managedUserFields.parse(fields);
+    }
+
+    /**
+     * Get the given fields of a page of the managed users. Only the columns of these fields are read.
+     *
+     * @param fields the names of the fields, see {@link #parseManagedUserFields(String)}.
+     * @param pageable the pagination information.
+     * @return the values of the fields of each user, by name.
+     */
     @Transactional(readOnly = true)
-    public Optional<User> getUserWithAuthoritiesByLogin(String login) {
-        return userRepository.findOneWithAuthoritiesByLogin(login);
+    public Page<Map<String, Object>> getAllManagedUsers(List<String> fields, Pageable pageable) {
+        return managedUserFields.findPage(entityManager, fields, null, pageable);
+    }
+
+    /**
+     * Parse the fields of a sparse fieldset of the public users.
+     *
+     * @param fields the comma-separated names of the fields, among the properties of {@link UserDTO}.
+     * @return the names of the fields.
+     * @throws IllegalArgumentException if a field is unknown, or if there is none.
+     */
+    public List<String> parsePublicUserFields(String fields) {
+        return publicUserFields.parse(fields);
     }
 
+    /**
+     * Get the given fields of a page of the activated users. Only the columns of these fields are read.
+     *
+     * @param fields the names of the fields, see {@link #parsePublicUserFields(String)}.
+     * @param pageable the pagination information.
+     * @return the values of the fields of each user, by name.
+     */
     @Transactional(readOnly = true)
+    public Page<Map<String, Object>> getAllPublicUsers(List<String> fields, Pageable pageable) {
+        Specification<User> activated = (root, query, builder) -> builder.isTrue(root.get(User_.activated));
+        return publicUserFields.findPage(entityManager, fields, activated, pageable);
+    }
+
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Optional<User> getUserWithAuthoritiesByLogin(String login) {
+        return findOneWithAuthoritiesByLogin(login);
+    }
+
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public Optional<User> getUserWithAuthorities() {
-        return SecurityUtils.getCurrentUserLogin().flatMap(userRepository::findOneWithAuthoritiesByLogin);
+        return SecurityUtils.getCurrentUserLogin().flatMap(this::findOneWithAuthoritiesByLogin);
+    }
+
+    /**
+     * Outside of a transaction, the concurrent cache misses of the same login share a single load, like the cache hits
+     * share the cached user.
+     */
+    private Optional<User> findOneWithAuthoritiesByLogin(String login) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return userRepository.findOneWithAuthoritiesByLogin(login);
+        }
+        return userLoads.load(login, () -> userRepository.findOneWithAuthoritiesByLogin(login));
     }
 
     /**
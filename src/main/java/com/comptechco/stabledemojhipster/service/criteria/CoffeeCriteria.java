@@ -0,0 +1,130 @@
+package com.comptechco.stabledemojhipster.service.criteria;
+
+import java.io.Serializable;
+import java.util.Objects;
+import org.springdoc.api.annotations.ParameterObject;
+import tech.jhipster.service.Criteria;
+import tech.jhipster.service.filter.*;
+
+/**
+ * Criteria class for the {@link com.comptechco.stabledemojhipster.domain.Coffee} entity. This class is used
+ * in {@link com.comptechco.stabledemojhipster.web.rest.CoffeeResource} to receive all the possible filtering options from
+ * the Http GET request parameters.
+ * For example the following could be a valid request:
+ * {@code /coffees?name.startsWith=eth&price.greaterThanOrEqual=5&price.lessThanOrEqual=8&sort=price,asc}
+ * As Spring is unable to properly convert the types, unless specific {@link Filter} class are used, we need to use
+ * fix type specific filters.
+ */
+@ParameterObject
+public class CoffeeCriteria implements Serializable, Criteria {
+
+    private static final long serialVersionUID = 1L;
+
+    private LongFilter id;
+
+    private PrefixStringFilter name;
+
+    private DoubleFilter price;
+
+    private Boolean distinct;
+
+    public CoffeeCriteria() {}
+
+    public CoffeeCriteria(CoffeeCriteria other) {
+        this.id = other.id == null ? null : other.id.copy();
+        this.name = other.name == null ? null : other.name.copy();
+        this.price = other.price == null ? null : other.price.copy();
+        this.distinct = other.distinct;
+    }
+
+    @Override
+    public CoffeeCriteria copy() {
+        return new CoffeeCriteria(this);
+    }
+
+    public LongFilter getId() {
+        return id;
+    }
+
+    public LongFilter id() {
+        if (id == null) {
+            id = new LongFilter();
+        }
+        return id;
+    }
+
+    public void setId(LongFilter id) {
+        this.id = id;
+    }
+
+    public PrefixStringFilter getName() {
+        return name;
+    }
+
+    public PrefixStringFilter name() {
+        if (name == null) {
+            name = new PrefixStringFilter();
+        }
+        return name;
+    }
+
+    public void setName(PrefixStringFilter name) {
+        this.name = name;
+    }
+
+    public DoubleFilter getPrice() {
+        return price;
+    }
+
+    public DoubleFilter price() {
+        if (price == null) {
+            price = new DoubleFilter();
+        }
+        return price;
+    }
+
+    public void setPrice(DoubleFilter price) {
+        this.price = price;
+    }
+
+    public Boolean getDistinct() {
+        return distinct;
+    }
+
+    public void setDistinct(Boolean distinct) {
+        this.distinct = distinct;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        final CoffeeCriteria that = (CoffeeCriteria) o;
+        return (
+            Objects.equals(id, that.id) &&
+            Objects.equals(name, that.name) &&
+            Objects.equals(price, that.price) &&
+            Objects.equals(distinct, that.distinct)
+        );
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, name, price, distinct);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "CoffeeCriteria{" +
+            (id != null ? "id=" + id + ", " : "") +
+            (name != null ? "name=" + name + ", " : "") +
+            (price != null ? "price=" + price + ", " : "") +
+            (distinct != null ? "distinct=" + distinct + ", " : "") +
+            "}";
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Criteria of the entity queries.
+ */
+package com.comptechco.stabledemojhipster.service.criteria;
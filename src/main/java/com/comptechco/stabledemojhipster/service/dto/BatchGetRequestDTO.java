@@ -0,0 +1,30 @@
+package com.comptechco.stabledemojhipster.service.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.validation.constraints.NotNull;
+
+/**
+ * A DTO representing the ids requested by a batch get.
+ */
+public class BatchGetRequestDTO {
+
+    @NotNull
+    private List<Long> ids = new ArrayList<>();
+
+    public List<Long> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<Long> ids) {
+        this.ids = ids;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "BatchGetRequestDTO{" +
+            "ids=" + ids +
+            "}";
+    }
+}
@@ -0,0 +1,56 @@
+package com.comptechco.stabledemojhipster.service.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A DTO representing the outcome of a batch get: the entities that were found, and the ids of those that were not.
+ *
+ * @param <T> the type of the entities.
+ */
+public class BatchGetResultDTO<T> {
+
+    private List<T> items = new ArrayList<>();
+
+    private List<Long> missingIds = new ArrayList<>();
+
+    public BatchGetResultDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public BatchGetResultDTO(List<T> items, List<Long> missingIds) {
+        this.items = items;
+        this.missingIds = missingIds;
+    }
+
+    /**
+     * @return the entities that were found, in the order of the requested ids.
+     */
+    public List<T> getItems() {
+        return items;
+    }
+
+    public void setItems(List<T> items) {
+        this.items = items;
+    }
+
+    /**
+     * @return the requested ids that do not exist, in the order they were requested.
+     */
+    public List<Long> getMissingIds() {
+        return missingIds;
+    }
+
+    public void setMissingIds(List<Long> missingIds) {
+        this.missingIds = missingIds;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "BatchGetResultDTO{" +
+            "items=" + items +
+            ", missingIds=" + missingIds +
+            "}";
+    }
+}
@@ -0,0 +1,76 @@
+package com.comptechco.stabledemojhipster.service.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A DTO representing the outcome of one row of a bulk create/upsert request.
+ */
+public class BulkUpsertResultDTO {
+
+    public enum Status {
+        CREATED,
+        UPDATED,
+        INVALID,
+        FAILED,
+    }
+
+    private int index;
+
+    private Long id;
+
+    private Status status;
+
+    private List<String> errors = new ArrayList<>();
+
+    public BulkUpsertResultDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public BulkUpsertResultDTO(int index) {
+        this.index = index;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<String> errors) {
+        this.errors = errors;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "BulkUpsertResultDTO{" +
+            "index=" + index +
+            ", id=" + id +
+            ", status=" + status +
+            ", errors=" + errors +
+            "}";
+    }
+}
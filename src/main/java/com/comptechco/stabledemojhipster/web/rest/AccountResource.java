@@ -3,7 +3,6 @@ package com.comptechco.stabledemojhipster.web.rest;
 import com.comptechco.stabledemojhipster.domain.User;
 import com.comptechco.stabledemojhipster.repository.UserRepository;
 import com.comptechco.stabledemojhipster.security.SecurityUtils;
-import com.comptechco.stabledemojhipster.service.MailService;
 import com.comptechco.stabledemojhipster.service.UserService;
 import com.comptechco.stabledemojhipster.service.dto.AdminUserDTO;
 import com.comptechco.stabledemojhipster.service.dto.PasswordChangeDTO;
@@ -39,12 +38,9 @@ public class AccountResource {
 
     private final UserService userService;
 
-    private final MailService mailService;
-
-    public AccountResource(UserRepository userRepository, UserService userService, MailService mailService) {
+    public AccountResource(UserRepository userRepository, UserService userService) {
         this.userRepository = userRepository;
         this.userService = userService;
-        this.mailService = mailService;
     }
 
     /**
@@ -61,8 +57,7 @@ public class AccountResource {
         if (isPasswordLengthInvalid(managedUserVM.getPassword())) {
             throw new InvalidPasswordException();
         }
-        User user = userService.registerUser(managedUserVM, managedUserVM.getPassword());
-        mailService.sendActivationEmail(user);
+        userService.registerUser(managedUserVM, managedUserVM.getPassword());
     }
 
     /**
@@ -156,9 +151,7 @@ public class AccountResource {
     @PostMapping(path = "/account/reset-password/init")
     public void requestPasswordReset(@RequestBody String mail) {
         Optional<User> user = userService.requestPasswordReset(mail);
-        if (user.isPresent()) {
-            mailService.sendPasswordResetMail(user.get());
-        } else {
+        if (!user.isPresent()) {
             // Pretend the request has been successful to prevent checking which emails really exist
             // but log that an invalid attempt has been made
             log.warn("Password reset requested for non existing mail");
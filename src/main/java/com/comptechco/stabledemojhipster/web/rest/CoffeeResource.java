@@ -1,23 +1,59 @@
 package com.comptechco.stabledemojhipster.web.rest;
 
+import com.comptechco.stabledemojhipster.config.ApplicationProperties;
 import com.comptechco.stabledemojhipster.domain.Coffee;
-import com.comptechco.stabledemojhipster.repository.CoffeeRepository;
+import com.comptechco.stabledemojhipster.service.CoffeeCatalogService;
+import com.comptechco.stabledemojhipster.service.CoffeeQueryService;
 import com.comptechco.stabledemojhipster.service.CoffeeService;
+import com.comptechco.stabledemojhipster.service.EntityModificationTracker;
+import com.comptechco.stabledemojhipster.service.criteria.CoffeeCriteria;
+import com.comptechco.stabledemojhipster.service.dto.BatchGetResultDTO;
+import com.comptechco.stabledemojhipster.service.dto.BulkUpsertResultDTO;
 import com.comptechco.stabledemojhipster.web.rest.errors.BadRequestAlertException;
+import com.comptechco.stabledemojhipster.web.rest.errors.PreconditionFailedAlertException;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
-import tech.jhipster.web.util.ResponseUtil;
+import tech.jhipster.web.util.PaginationUtil;
 
 /**
  * REST controller for managing {@link com.comptechco.stabledemojhipster.domain.Coffee}.
@@ -30,16 +66,56 @@ public class CoffeeResource {
 
     private static final String ENTITY_NAME = "coffee";
 
+    private static final int MAX_SEARCH_SIZE = 100;
+
+    private static final int MAX_BATCH_GET_SIZE = 100;
+
+    private static final int MAX_CURSOR_PAGE_SIZE = 1000;
+
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    static final String HAS_NEXT_PAGE_HEADER = "X-Has-Next-Page";
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
     private final CoffeeService coffeeService;
 
-    private final CoffeeRepository coffeeRepository;
+    private final CoffeeQueryService coffeeQueryService;
+
+    private final ObjectWriter coffeeWriter;
+
+    /**
+     * The writers of the coffees in each media type the whole catalog can be streamed in, JSON first.
+     */
+    private final Map<MediaType, ObjectWriter> streamingCoffeeWriters = new LinkedHashMap<>();
+
+    private final ApplicationProperties applicationProperties;
+
+    private final EntityModificationTracker entityModificationTracker;
 
-    public CoffeeResource(CoffeeService coffeeService, CoffeeRepository coffeeRepository) {
+    private final CoffeeCatalogService coffeeCatalogService;
+
+    public CoffeeResource(
+        CoffeeService coffeeService,
+        CoffeeQueryService coffeeQueryService,
+        ObjectMapper objectMapper,
+        ApplicationProperties applicationProperties,
+        EntityModificationTracker entityModificationTracker,
+        CoffeeCatalogService coffeeCatalogService,
+        MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter,
+        MappingJackson2CborHttpMessageConverter cborHttpMessageConverter
+    ) {
         this.coffeeService = coffeeService;
-        this.coffeeRepository = coffeeRepository;
+        this.coffeeQueryService = coffeeQueryService;
+        this.coffeeWriter = objectMapper.writerFor(Coffee.class);
+        this.streamingCoffeeWriters.put(MediaType.APPLICATION_JSON, coffeeWriter);
+        for (AbstractJackson2HttpMessageConverter converter : List.of(smileHttpMessageConverter, cborHttpMessageConverter)) {
+            this.streamingCoffeeWriters.put(converter.getSupportedMediaTypes().get(0), converter.getObjectMapper().writerFor(Coffee.class));
+        }
+        this.applicationProperties = applicationProperties;
+        this.entityModificationTracker = entityModificationTracker;
+        this.coffeeCatalogService = coffeeCatalogService;
     }
 
     /**
@@ -62,21 +138,45 @@ public class CoffeeResource {
             .body(result);
     }
 
+    /**
+     * {@code POST  /coffees/bulk} : Create or update coffees in bulk, matching the existing coffees on their name.
+     * <p>
+     * Invalid rows do not prevent the valid ones from being written: the outcome of each row is reported in the response.
+     *
+     * @param coffees the coffees to create or update.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the result of each row, in request order,
+     * or with status {@code 400 (Bad Request)} if there are too many rows.
+     */
+    @PostMapping("/coffees/bulk")
+    public ResponseEntity<List<BulkUpsertResultDTO>> bulkUpsertCoffees(@NotNull @RequestBody List<Coffee> coffees) {
+        log.debug("REST request to bulk upsert {} Coffees", coffees.size());
+        if (coffees.size() > applicationProperties.getBulk().getMaxRows()) {
+            throw new BadRequestAlertException("Too many rows in a bulk request", ENTITY_NAME, "bulktoolarge");
+        }
+        List<BulkUpsertResultDTO> results = coffeeService.bulkUpsert(coffees);
+        return ResponseEntity.ok().body(results);
+    }
+
     /**
      * {@code PUT  /coffees/:id} : Updates an existing coffee.
+     * <p>
+     * The update only applies if the coffee still has the version of the {@code If-Match} header, or else of the body.
      *
      * @param id the id of the coffee to save.
+     * @param ifMatch the entity tag of the coffee that was read, if any.
      * @param coffee the coffee to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated coffee,
-     * or with status {@code 400 (Bad Request)} if the coffee is not valid,
+     * or with status {@code 400 (Bad Request)} if the coffee is not valid or not found,
+     * or with status {@code 409 (Conflict)} if the version of the body is not the current one,
+     * or with status {@code 412 (Precondition Failed)} if the {@code If-Match} header is not the current entity tag,
      * or with status {@code 500 (Internal Server Error)} if the coffee couldn't be updated.
-     * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/coffees/{id}")
     public ResponseEntity<Coffee> updateCoffee(
         @PathVariable(value = "id", required = false) final Long id,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
         @Valid @RequestBody Coffee coffee
-    ) throws URISyntaxException {
+    ) {
         log.debug("REST request to update Coffee : {}, {}", id, coffee);
         if (coffee.getId() == null) {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
@@ -85,33 +185,34 @@ public class CoffeeResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!coffeeRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
-
-        Coffee result = coffeeService.save(coffee);
+        Coffee result = updateIfMatch(ifMatch, coffee, coffeeService::update);
         return ResponseEntity
             .ok()
+            .eTag(EntityTags.of(result.getVersion()))
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, coffee.getId().toString()))
             .body(result);
     }
 
     /**
      * {@code PATCH  /coffees/:id} : Partial updates given fields of an existing coffee, field will ignore if it is null
+     * <p>
+     * The update only applies if the coffee still has the version of the {@code If-Match} header, or else of the body.
      *
      * @param id the id of the coffee to save.
+     * @param ifMatch the entity tag of the coffee that was read, if any.
      * @param coffee the coffee to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated coffee,
-     * or with status {@code 400 (Bad Request)} if the coffee is not valid,
-     * or with status {@code 404 (Not Found)} if the coffee is not found,
+     * or with status {@code 400 (Bad Request)} if the coffee is not valid or not found,
+     * or with status {@code 409 (Conflict)} if the version of the body is not the current one,
+     * or with status {@code 412 (Precondition Failed)} if the {@code If-Match} header is not the current entity tag,
      * or with status {@code 500 (Internal Server Error)} if the coffee couldn't be updated.
-     * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PatchMapping(value = "/coffees/{id}", consumes = { "application/json", "application/merge-patch+json" })
     public ResponseEntity<Coffee> partialUpdateCoffee(
         @PathVariable(value = "id", required = false) final Long id,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
         @NotNull @RequestBody Coffee coffee
-    ) throws URISyntaxException {
+    ) {
         log.debug("REST request to partial update Coffee partially : {}, {}", id, coffee);
         if (coffee.getId() == null) {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
@@ -120,40 +221,352 @@ public class CoffeeResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!coffeeRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
+        Coffee result = updateIfMatch(ifMatch, coffee, coffeeService::partialUpdate);
+        return ResponseEntity
+            .ok()
+            .eTag(EntityTags.of(result.getVersion()))
+            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, coffee.getId().toString()))
+            .body(result);
+    }
 
-        Optional<Coffee> result = coffeeService.partialUpdate(coffee);
+    /**
+     * The entity tag of the coffee collections: it is read before the coffees, so that it is never newer than them.
+     */
+    private String collectionTag() {
+        return EntityTags.of(entityModificationTracker.getModificationTag(Coffee.class));
+    }
 
-        return ResponseUtil.wrapOrNotFound(
-            result,
-            HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, coffee.getId().toString())
-        );
+    /**
+     * Apply an update, the expected version coming from the {@code If-Match} header when there is one.
+     * <p>
+     * No existence query is made up front: a missing coffee is only detected when the update finds nothing.
+     */
+    private Coffee updateIfMatch(String ifMatch, Coffee coffee, Function<Coffee, Optional<Coffee>> update) {
+        if (ifMatch != null) {
+            try {
+                Long version = EntityTags.toVersion(ifMatch);
+                if (version != null) {
+                    coffee.setVersion(version);
+                }
+            } catch (IllegalArgumentException e) {
+                throw new PreconditionFailedAlertException("Invalid entity tag", ENTITY_NAME, "versionmismatch");
+            }
+        }
+        try {
+            return update.apply(coffee).orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        } catch (ConcurrencyFailureException e) {
+            if (ifMatch == null) {
+                throw e;
+            }
+            throw new PreconditionFailedAlertException("The entity was modified since it was read", ENTITY_NAME, "versionmismatch");
+        }
     }
 
     /**
      * {@code GET  /coffees} : get all the coffees.
+     * <p>
+     * Without any parameter, the coffees are answered from the serialized snapshot of the catalog, gzipped when the
+     * client accepts it. While the snapshot is rebuilt after a modification, the coffees are written to the response as
+     * they are read from the database cursor, so the whole table is never held in memory. With filtering or paging
+     * parameters, only the requested page of the matching coffees is returned, see {@link CoffeeCriteria}.
+     * <p>
+     * The clients that accept Smile or CBOR, and not JSON, get the coffees streamed in that binary format.
+     * <p>
+     * The response is tagged with the modification tag of the coffees, and a {@code 304 (Not Modified)} is answered
+     * without reading them.
      *
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of coffees in body.
+     * @param criteria the criteria which the requested entities should match.
+     * @param pageable the pagination information.
+     * @param count whether to count the matching coffees, or only tell whether there is a next page.
+     * @param request the HTTP request, whose {@code If-None-Match} header is checked.
+     * @param response the HTTP response the JSON array of coffees is streamed to.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the page of coffees in body,
+     * or {@code null} if the response was already written.
+     * @throws IOException if the response could not be written.
      */
     @GetMapping("/coffees")
-    public List<Coffee> getAllCoffees() {
-        log.debug("REST request to get all Coffees");
-        return coffeeService.findAll();
+    public ResponseEntity<List<Coffee>> getAllCoffees(
+        CoffeeCriteria criteria,
+        @org.springdoc.api.annotations.ParameterObject Pageable pageable,
+        @RequestParam(value = "count", required = false, defaultValue = "true") boolean count,
+        HttpServletRequest request,
+        HttpServletResponse response
+    ) throws IOException {
+        String modificationTag = entityModificationTracker.getModificationTag(Coffee.class);
+        String eTag = EntityTags.of(modificationTag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, EntityTags.REVALIDATE.getHeaderValue());
+        if (new ServletWebRequest(request, response).checkNotModified(eTag)) {
+            return null;
+        }
+        if (request.getParameterMap().isEmpty()) {
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            MediaType mediaType = streamingMediaType(request);
+            // The snapshot is JSON, and inside a transaction its own uncommitted changes must be read
+            boolean fromSnapshot =
+                mediaType.equals(MediaType.APPLICATION_JSON) && !TransactionSynchronizationManager.isActualTransactionActive();
+            Optional<CoffeeCatalogService.Snapshot> snapshot = fromSnapshot
+                ? coffeeCatalogService.getSnapshot(modificationTag)
+                : Optional.empty();
+            if (snapshot.isPresent()) {
+                writeSnapshot(snapshot.get(), request, response);
+            } else {
+                streamAllCoffees(mediaType, response);
+            }
+            return null;
+        }
+        log.debug("REST request to get Coffees by criteria: {}", criteria);
+        UriComponentsBuilder uriBuilder = ServletUriComponentsBuilder.fromCurrentRequest();
+        if (count) {
+            Page<Coffee> page = coffeeQueryService.findByCriteria(criteria, pageable);
+            HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(uriBuilder, page);
+            return ResponseEntity.ok().eTag(eTag).headers(headers).body(page.getContent());
+        }
+        Slice<Coffee> slice = coffeeQueryService.findSliceByCriteria(criteria, pageable);
+        return ResponseEntity.ok().eTag(eTag).headers(generateSliceHttpHeaders(uriBuilder, slice)).body(slice.getContent());
+    }
+
+    /**
+     * {@code GET  /coffees?fields=:fields} : get the given fields of the coffees.
+     * <p>
+     * Only the columns of the requested fields are read, and only these fields are written. The coffees can be filtered
+     * and paged like with {@link #getAllCoffees}, and the response is tagged in the same way.
+     *
+     * @param fields the comma-separated names of the fields, among {@code id}, {@code name}, {@code price} and {@code version}.
+     * @param criteria the criteria which the requested entities should match.
+     * @param pageable the pagination information.
+     * @param count whether to count the matching coffees, or only tell whether there is a next page.
+     * @param request the HTTP request, whose {@code If-None-Match} header is checked.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the fields of the page of coffees in body,
+     * or with status {@code 304 (Not Modified)} if no coffee was modified since the tagged response,
+     * or with status {@code 400 (Bad Request)} if a field is unknown.
+     */
+    @GetMapping(value = "/coffees", params = { "fields", "!ids", "!cursor" })
+    public ResponseEntity<List<Map<String, Object>>> getAllCoffeesFields(
+        @RequestParam String fields,
+        CoffeeCriteria criteria,
+        @org.springdoc.api.annotations.ParameterObject Pageable pageable,
+        @RequestParam(value = "count", required = false, defaultValue = "true") boolean count,
+        WebRequest request
+    ) {
+        log.debug("REST request to get the fields {} of Coffees by criteria: {}", fields, criteria);
+        List<String> fieldNames;
+        try {
+            fieldNames = coffeeQueryService.parseFields(fields);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "fieldsinvalid");
+        }
+        String eTag = collectionTag();
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        UriComponentsBuilder uriBuilder = ServletUriComponentsBuilder.fromCurrentRequest();
+        if (count) {
+            Page<Map<String, Object>> page = coffeeQueryService.findFieldsByCriteria(criteria, fieldNames, pageable);
+            HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(uriBuilder, page);
+            return ResponseEntity.ok().eTag(eTag).cacheControl(EntityTags.REVALIDATE).headers(headers).body(page.getContent());
+        }
+        Slice<Map<String, Object>> slice = coffeeQueryService.findFieldsSliceByCriteria(criteria, fieldNames, pageable);
+        return ResponseEntity
+            .ok()
+            .eTag(eTag)
+            .cacheControl(EntityTags.REVALIDATE)
+            .headers(generateSliceHttpHeaders(uriBuilder, slice))
+            .body(slice.getContent());
+    }
+
+    private void writeSnapshot(CoffeeCatalogService.Snapshot snapshot, HttpServletRequest request, HttpServletResponse response)
+        throws IOException {
+        log.debug("REST request to get all Coffees, from the catalog snapshot {}", snapshot.getModificationTag());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        byte[] body = snapshot.getJson();
+        if (snapshot.getGzippedJson() != null && acceptsGzip(request)) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            body = snapshot.getGzippedJson();
+        }
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    /**
+     * Whether the {@code Accept-Encoding} header lists gzip, and does not refuse it with a zero quality.
+     */
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        Enumeration<String> acceptEncodings = request.getHeaders(HttpHeaders.ACCEPT_ENCODING);
+        while (acceptEncodings.hasMoreElements()) {
+            for (String encoding : acceptEncodings.nextElement().split(",")) {
+                String[] parameters = encoding.split(";");
+                if (parameters[0].trim().equalsIgnoreCase("gzip")) {
+                    return parameters.length == 1 || !parameters[1].trim().matches("q=0(\\.0*)?");
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The media type the whole catalog is streamed in: the first of JSON, Smile and CBOR that the client accepts, or JSON
+     * when it accepts none of them.
+     */
+    private MediaType streamingMediaType(HttpServletRequest request) {
+        List<MediaType> acceptedTypes;
+        try {
+            acceptedTypes = MediaType.parseMediaTypes(request.getHeader(HttpHeaders.ACCEPT));
+        } catch (InvalidMediaTypeException e) {
+            return MediaType.APPLICATION_JSON;
+        }
+        MediaType.sortBySpecificityAndQuality(acceptedTypes);
+        for (MediaType acceptedType : acceptedTypes) {
+            for (MediaType mediaType : streamingCoffeeWriters.keySet()) {
+                if (acceptedType.isCompatibleWith(mediaType)) {
+                    return mediaType;
+                }
+            }
+        }
+        return MediaType.APPLICATION_JSON;
+    }
+
+    private void streamAllCoffees(MediaType mediaType, HttpServletResponse response) throws IOException {
+        log.debug("REST request to get all Coffees as {}", mediaType);
+        response.setContentType(mediaType.toString());
+        ObjectWriter writer = streamingCoffeeWriters.get(mediaType);
+        try (JsonGenerator generator = writer.getFactory().createGenerator(response.getOutputStream())) {
+            generator.writeStartArray();
+            coffeeService.streamAll(coffee -> {
+                try {
+                    writer.writeValue(generator, coffee);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            generator.writeEndArray();
+        }
+    }
+
+    /**
+     * Pagination headers that do not need a count: the {@code X-Has-Next-Page} header, and the links to the
+     * previous and next pages, if any.
+     */
+    private static HttpHeaders generateSliceHttpHeaders(UriComponentsBuilder uriBuilder, Slice<?> slice) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(HAS_NEXT_PAGE_HEADER, Boolean.toString(slice.hasNext()));
+        List<String> links = new ArrayList<>(2);
+        if (slice.hasNext()) {
+            links.add(pageLink(uriBuilder, slice.getNumber() + 1, slice.getSize(), "next"));
+        }
+        if (slice.hasPrevious()) {
+            links.add(pageLink(uriBuilder, slice.getNumber() - 1, slice.getSize(), "prev"));
+        }
+        if (!links.isEmpty()) {
+            headers.add(HttpHeaders.LINK, String.join(",", links));
+        }
+        return headers;
+    }
+
+    private static String pageLink(UriComponentsBuilder uriBuilder, int page, int size, String relType) {
+        String link = uriBuilder.replaceQueryParam("page", page).replaceQueryParam("size", size).toUriString();
+        return "<" + link + ">; rel=\"" + relType + "\"";
+    }
+
+    /**
+     * {@code GET  /coffees/count} : count all the coffees.
+     *
+     * @param criteria the criteria which the requested entities should match.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the count in body.
+     */
+    @GetMapping("/coffees/count")
+    public ResponseEntity<Long> countCoffees(CoffeeCriteria criteria) {
+        log.debug("REST request to count Coffees by criteria: {}", criteria);
+        return ResponseEntity.ok().body(coffeeQueryService.countByCriteria(criteria));
+    }
+
+    /**
+     * {@code GET  /coffees?cursor=:cursor&size=:size} : get a page of coffees, using keyset pagination on the id.
+     * <p>
+     * Start with an empty cursor, then follow the {@code next} link (or the {@code X-Next-Cursor} header)
+     * until it is no longer returned.
+     *
+     * @param cursor the id of the last coffee of the previous page, empty for the first page.
+     * @param size the page size.
+     * @param request the HTTP request, whose {@code If-None-Match} header is checked.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the page of coffees in body,
+     * or with status {@code 304 (Not Modified)} if no coffee was modified since the tagged response,
+     * or with status {@code 400 (Bad Request)} if the page size is not valid.
+     */
+    @GetMapping(value = "/coffees", params = { "cursor", "!ids" })
+    public ResponseEntity<List<Coffee>> getCoffeesAfterCursor(
+        @RequestParam(value = "cursor", required = false) Long cursor,
+        @RequestParam(value = "size", required = false, defaultValue = "20") int size,
+        WebRequest request
+    ) {
+        log.debug("REST request to get {} Coffees after cursor : {}", size, cursor);
+        if (size < 1 || size > MAX_CURSOR_PAGE_SIZE) {
+            throw new BadRequestAlertException("Invalid page size", ENTITY_NAME, "sizeinvalid");
+        }
+        String eTag = collectionTag();
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        // Fetch one extra row to know whether there is a next page, without a count query
+        List<Coffee> coffees = coffeeService.findAllAfter(cursor, size + 1);
+        HttpHeaders headers = new HttpHeaders();
+        if (coffees.size() > size) {
+            coffees = coffees.subList(0, size);
+            String nextCursor = coffees.get(size - 1).getId().toString();
+            String nextLink = ServletUriComponentsBuilder
+                .fromCurrentRequest()
+                .replaceQueryParam("cursor", nextCursor)
+                .replaceQueryParam("size", size)
+                .toUriString();
+            headers.add(HttpHeaders.LINK, "<" + nextLink + ">; rel=\"next\"");
+            headers.add(NEXT_CURSOR_HEADER, nextCursor);
+        }
+        return ResponseEntity.ok().eTag(eTag).cacheControl(EntityTags.REVALIDATE).headers(headers).body(coffees);
+    }
+
+    /**
+     * {@code GET  /coffees?ids=:ids} : get the coffees with the given ids.
+     *
+     * The coffees in the second-level cache are not read again, and all the others are read with a single query.
+     *
+     * @param ids the ids of the coffees to retrieve, at most 100.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the coffees in the order of the
+     * requested ids, and the ids that do not exist, or with status {@code 400 (Bad Request)} if too many ids are requested.
+     */
+    @GetMapping(value = "/coffees", params = { "ids", "!cursor" })
+    public ResponseEntity<BatchGetResultDTO<Coffee>> getCoffeesByIds(@RequestParam List<Long> ids) {
+        log.debug("REST request to get Coffees : {}", ids);
+        if (ids.size() > MAX_BATCH_GET_SIZE) {
+            throw new BadRequestAlertException("Too many ids", ENTITY_NAME, "toomanyids");
+        }
+        return ResponseEntity.ok(coffeeService.findAllById(ids));
     }
 
     /**
      * {@code GET  /coffees/:id} : get the "id" coffee.
      *
+     * The response is tagged with the version of the coffee, and a {@code 304 (Not Modified)} is answered by reading
+     * the version only.
+     *
      * @param id the id of the coffee to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the coffee, or with status {@code 404 (Not Found)}.
+     * @param request the HTTP request, whose {@code If-None-Match} header is checked.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the coffee,
+     * or with status {@code 304 (Not Modified)} if the coffee has the version of the tagged response,
+     * or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/coffees/{id}")
-    public ResponseEntity<Coffee> getCoffee(@PathVariable Long id) {
+    public ResponseEntity<Coffee> getCoffee(@PathVariable Long id, WebRequest request) {
         log.debug("REST request to get Coffee : {}", id);
-        Optional<Coffee> coffee = coffeeService.findOne(id);
-        return ResponseUtil.wrapOrNotFound(coffee);
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            Optional<Long> version = coffeeService.findVersion(id);
+            if (version.isPresent() && request.checkNotModified(EntityTags.of(version.get()))) {
+                return null;
+            }
+        }
+        return coffeeService
+            .findOne(id)
+            .map(coffee -> ResponseEntity.ok().eTag(EntityTags.of(coffee.getVersion())).cacheControl(EntityTags.REVALIDATE).body(coffee))
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
     }
 
     /**
@@ -171,4 +584,22 @@ public class CoffeeResource {
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, true, ENTITY_NAME, id.toString()))
             .build();
     }
+
+    /**
+     * {@code SEARCH  /_search/coffees?q=:query} : search for the coffees corresponding to the query.
+     *
+     * Each word of the query matches the words of the names exactly, as a prefix or with a few typos.
+     *
+     * @param query the query of the coffee search.
+     * @param size the maximum number of coffees to return.
+     * @return the result of the search, best matches first.
+     */
+    @GetMapping("/_search/coffees")
+    public List<Coffee> searchCoffees(@RequestParam("q") String query, @RequestParam(defaultValue = "20") int size) {
+        log.debug("REST request to search Coffees for query {}", query);
+        if (size < 1 || size > MAX_SEARCH_SIZE) {
+            throw new BadRequestAlertException("Invalid page size", ENTITY_NAME, "sizeinvalid");
+        }
+        return coffeeService.search(query, size);
+    }
 }
@@ -1,21 +1,38 @@
 package com.comptechco.stabledemojhipster.web.rest;
 
 import com.comptechco.stabledemojhipster.domain.Customer;
-import com.comptechco.stabledemojhipster.repository.CustomerRepository;
 import com.comptechco.stabledemojhipster.service.CustomerService;
+import com.comptechco.stabledemojhipster.service.EntityModificationTracker;
+import com.comptechco.stabledemojhipster.service.dto.BatchGetRequestDTO;
+import com.comptechco.stabledemojhipster.service.dto.BatchGetResultDTO;
 import com.comptechco.stabledemojhipster.web.rest.errors.BadRequestAlertException;
+import com.comptechco.stabledemojhipster.web.rest.errors.PreconditionFailedAlertException;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.ResponseUtil;
 
@@ -30,16 +47,27 @@ public class CustomerResource {
 
     private static final String ENTITY_NAME = "customer";
 
+    private static final int MAX_SEARCH_SIZE = 100;
+
+    private static final int MAX_BATCH_GET_SIZE = 100;
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
     private final CustomerService customerService;
 
-    private final CustomerRepository customerRepository;
+    private final ObjectWriter customerWriter;
 
-    public CustomerResource(CustomerService customerService, CustomerRepository customerRepository) {
+    private final EntityModificationTracker entityModificationTracker;
+
+    public CustomerResource(
+        CustomerService customerService,
+        ObjectMapper objectMapper,
+        EntityModificationTracker entityModificationTracker
+    ) {
         this.customerService = customerService;
-        this.customerRepository = customerRepository;
+        this.customerWriter = objectMapper.writerFor(Customer.class);
+        this.entityModificationTracker = entityModificationTracker;
     }
 
     /**
@@ -64,19 +92,24 @@ public class CustomerResource {
 
     /**
      * {@code PUT  /customers/:id} : Updates an existing customer.
+     * <p>
+     * The update only applies if the customer still has the version of the {@code If-Match} header, or else of the body.
      *
      * @param id the id of the customer to save.
+     * @param ifMatch the entity tag of the customer that was read, if any.
      * @param customer the customer to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated customer,
-     * or with status {@code 400 (Bad Request)} if the customer is not valid,
+     * or with status {@code 400 (Bad Request)} if the customer is not valid or not found,
+     * or with status {@code 409 (Conflict)} if the version of the body is not the current one,
+     * or with status {@code 412 (Precondition Failed)} if the {@code If-Match} header is not the current entity tag,
      * or with status {@code 500 (Internal Server Error)} if the customer couldn't be updated.
-     * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/customers/{id}")
     public ResponseEntity<Customer> updateCustomer(
         @PathVariable(value = "id", required = false) final Long id,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
         @Valid @RequestBody Customer customer
-    ) throws URISyntaxException {
+    ) {
         log.debug("REST request to update Customer : {}, {}", id, customer);
         if (customer.getId() == null) {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
@@ -85,33 +118,34 @@ public class CustomerResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!customerRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
-
-        Customer result = customerService.save(customer);
+        Customer result = updateIfMatch(ifMatch, customer, customerService::update);
         return ResponseEntity
             .ok()
+            .eTag(EntityTags.of(result.getVersion()))
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, customer.getId().toString()))
             .body(result);
     }
 
     /**
      * {@code PATCH  /customers/:id} : Partial updates given fields of an existing customer, field will ignore if it is null
+     * <p>
+     * The update only applies if the customer still has the version of the {@code If-Match} header, or else of the body.
      *
      * @param id the id of the customer to save.
+     * @param ifMatch the entity tag of the customer that was read, if any.
      * @param customer the customer to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated customer,
-     * or with status {@code 400 (Bad Request)} if the customer is not valid,
-     * or with status {@code 404 (Not Found)} if the customer is not found,
+     * or with status {@code 400 (Bad Request)} if the customer is not valid or not found,
+     * or with status {@code 409 (Conflict)} if the version of the body is not the current one,
+     * or with status {@code 412 (Precondition Failed)} if the {@code If-Match} header is not the current entity tag,
      * or with status {@code 500 (Internal Server Error)} if the customer couldn't be updated.
-     * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PatchMapping(value = "/customers/{id}", consumes = { "application/json", "application/merge-patch+json" })
     public ResponseEntity<Customer> partialUpdateCustomer(
         @PathVariable(value = "id", required = false) final Long id,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
         @NotNull @RequestBody Customer customer
-    ) throws URISyntaxException {
+    ) {
         log.debug("REST request to partial update Customer partially : {}, {}", id, customer);
         if (customer.getId() == null) {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
@@ -120,40 +154,176 @@ public class CustomerResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!customerRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
-
-        Optional<Customer> result = customerService.partialUpdate(customer);
+        Customer result = updateIfMatch(ifMatch, customer, customerService::partialUpdate);
+        return ResponseEntity
+            .ok()
+            .eTag(EntityTags.of(result.getVersion()))
+            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, customer.getId().toString()))
+            .body(result);
+    }
 
-        return ResponseUtil.wrapOrNotFound(
-            result,
-            HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, customer.getId().toString())
-        );
+    /**
+     * Apply an update, the expected version coming from the {@code If-Match} header when there is one.
+     * <p>
+     * No existence query is made up front: a missing customer is only detected when the update finds nothing.
+     */
+    private Customer updateIfMatch(String ifMatch, Customer customer, Function<Customer, Optional<Customer>> update) {
+        if (ifMatch != null) {
+            try {
+                Long version = EntityTags.toVersion(ifMatch);
+                if (version != null) {
+                    customer.setVersion(version);
+                }
+            } catch (IllegalArgumentException e) {
+                throw new PreconditionFailedAlertException("Invalid entity tag", ENTITY_NAME, "versionmismatch");
+            }
+        }
+        try {
+            return update.apply(customer).orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        } catch (ConcurrencyFailureException e) {
+            if (ifMatch == null) {
+                throw e;
+            }
+            throw new PreconditionFailedAlertException("The entity was modified since it was read", ENTITY_NAME, "versionmismatch");
+        }
     }
 
     /**
      * {@code GET  /customers} : get all the customers.
+     * <p>
+     * The response is tagged with the modification tag of the customers, and a {@code 304 (Not Modified)} is answered
+     * without reading them.
      *
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of customers in body.
+     * @param request the HTTP request, whose {@code If-None-Match} header is checked.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of customers in body,
+     * or with status {@code 304 (Not Modified)} if no customer was modified since the tagged response.
      */
     @GetMapping("/customers")
-    public List<Customer> getAllCustomers() {
+    public ResponseEntity<List<Customer>> getAllCustomers(WebRequest request) {
         log.debug("REST request to get all Customers");
-        return customerService.findAll();
+        // Read before the customers, so that it is never newer than them
+        String eTag = EntityTags.of(entityModificationTracker.getModificationTag(Customer.class));
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag).cacheControl(EntityTags.REVALIDATE).body(customerService.findAll());
+    }
+
+    /**
+     * {@code GET  /customers?fields=:fields} : get the given fields of all the customers.
+     * <p>
+     * Only the columns of the requested fields are read, and only these fields are written. The response is tagged like
+     * the one of {@link #getAllCustomers}.
+     *
+     * @param fields the comma-separated names of the fields, among {@code id}, {@code name}, {@code phoneNumber} and {@code version}.
+     * @param request the HTTP request, whose {@code If-None-Match} header is checked.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the fields of the customers in body,
+     * or with status {@code 304 (Not Modified)} if no customer was modified since the tagged response,
+     * or with status {@code 400 (Bad Request)} if a field is unknown.
+     */
+    @GetMapping(value = "/customers", params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> getAllCustomersFields(@RequestParam String fields, WebRequest request) {
+        log.debug("REST request to get the fields {} of all Customers", fields);
+        List<String> fieldNames;
+        try {
+            fieldNames = customerService.parseFields(fields);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "fieldsinvalid");
+        }
+        // Read before the customers, so that it is never newer than them
+        String eTag = EntityTags.of(entityModificationTracker.getModificationTag(Customer.class));
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag).cacheControl(EntityTags.REVALIDATE).body(customerService.findAllFields(fieldNames));
+    }
+
+    /**
+     * {@code GET  /customers/export} : export all the customers as newline-delimited JSON.
+     * <p>
+     * The customers are written to the response as they are read from the database cursor.
+     *
+     * @param response the HTTP response the customers are streamed to, one JSON document per line.
+     * @throws IOException if the response could not be written.
+     */
+    @GetMapping(value = "/customers/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void exportCustomers(HttpServletResponse response) throws IOException {
+        log.debug("REST request to export all Customers");
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        try (JsonGenerator generator = customerWriter.getFactory().createGenerator(response.getOutputStream())) {
+            generator.setRootValueSeparator(null);
+            long count = customerService.export(customer -> {
+                try {
+                    customerWriter.writeValue(generator, customer);
+                    generator.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            log.debug("Exported {} Customers", count);
+        }
+    }
+
+    /**
+     * {@code GET  /customers/by-phone/:number} : get the customer with a phone number.
+     * <p>
+     * Only the digits of the numbers are compared, so {@code (555)123-456789} and {@code 555123456789} are the same
+     * number. The lookups are cached.
+     *
+     * @param number the phone number of the customer to retrieve, in any format.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the customer, or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/customers/by-phone/{number}")
+    public ResponseEntity<Customer> getCustomerByPhoneNumber(@PathVariable String number) {
+        log.debug("REST request to get Customer by phone number : {}", number);
+        return ResponseUtil.wrapOrNotFound(customerService.findOneByPhoneNumber(number));
+    }
+
+    /**
+     * {@code POST  /customers/_batch-get} : get the customers with the given ids.
+     *
+     * The customers in the second-level cache are not read again, and all the others are read with a single query.
+     *
+     * @param batchGetRequest the ids of the customers to retrieve, at most 100.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the customers in the order of the
+     * requested ids, and the ids that do not exist, or with status {@code 400 (Bad Request)} if too many ids are requested.
+     */
+    @PostMapping("/customers/_batch-get")
+    public ResponseEntity<BatchGetResultDTO<Customer>> getCustomersByIds(@Valid @RequestBody BatchGetRequestDTO batchGetRequest) {
+        log.debug("REST request to get Customers : {}", batchGetRequest);
+        if (batchGetRequest.getIds().size() > MAX_BATCH_GET_SIZE) {
+            throw new BadRequestAlertException("Too many ids", ENTITY_NAME, "toomanyids");
+        }
+        return ResponseEntity.ok(customerService.findAllById(batchGetRequest.getIds()));
     }
 
     /**
      * {@code GET  /customers/:id} : get the "id" customer.
      *
+     * The response is tagged with the version of the customer, and a {@code 304 (Not Modified)} is answered by reading
+     * the version only.
+     *
      * @param id the id of the customer to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the customer, or with status {@code 404 (Not Found)}.
+     * @param request the HTTP request, whose {@code If-None-Match} header is checked.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the customer,
+     * or with status {@code 304 (Not Modified)} if the customer has the version of the tagged response,
+     * or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/customers/{id}")
-    public ResponseEntity<Customer> getCustomer(@PathVariable Long id) {
+    public ResponseEntity<Customer> getCustomer(@PathVariable Long id, WebRequest request) {
         log.debug("REST request to get Customer : {}", id);
-        Optional<Customer> customer = customerService.findOne(id);
-        return ResponseUtil.wrapOrNotFound(customer);
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            Optional<Long> version = customerService.findVersion(id);
+            if (version.isPresent() && request.checkNotModified(EntityTags.of(version.get()))) {
+                return null;
+            }
+        }
+        return customerService
+            .findOne(id)
+            .map(customer ->
+                ResponseEntity.ok().eTag(EntityTags.of(customer.getVersion())).cacheControl(EntityTags.REVALIDATE).body(customer)
+            )
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
     }
 
     /**
@@ -171,4 +341,23 @@ public class CustomerResource {
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, true, ENTITY_NAME, id.toString()))
             .build();
     }
+
+    /**
+     * {@code SEARCH  /_search/customers?q=:query} : search for the customers corresponding to the query.
+     *
+     * Each word of the query matches the words of the names exactly, as a prefix or with a few typos, and a query
+     * with at least 3 digits also matches any fragment of the phone numbers.
+     *
+     * @param query the query of the customer search.
+     * @param size the maximum number of customers to return.
+     * @return the result of the search, best matches first.
+     */
+    @GetMapping("/_search/customers")
+    public List<Customer> searchCustomers(@RequestParam("q") String query, @RequestParam(defaultValue = "20") int size) {
+        log.debug("REST request to search Customers for query {}", query);
+        if (size < 1 || size > MAX_SEARCH_SIZE) {
+            throw new BadRequestAlertException("Invalid page size", ENTITY_NAME, "sizeinvalid");
+        }
+        return customerService.search(query, size);
+    }
 }
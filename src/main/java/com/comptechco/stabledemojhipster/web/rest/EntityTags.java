@@ -0,0 +1,63 @@
+package com.comptechco.stabledemojhipster.web.rest;
+
+import org.springframework.http.CacheControl;
+
+/**
+ * Entity tags of the versioned entities and their collections.
+ * <p>
+ * The tag of an entity is its version, e.g. {@code "3"}, and the tag of a collection is the modification tag of its
+ * entity type, so that both can be checked without loading the entities.
+ */
+final class EntityTags {
+
+    /**
+     * Lets the clients keep the responses, as long as they revalidate them with their entity tag.
+     */
+    static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    private static final String ANY = "*";
+
+    private EntityTags() {}
+
+    /**
+     * Get the entity tag of a version.
+     *
+     * @param version the version of the entity.
+     * @return the quoted entity tag.
+     */
+    static String of(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Get the entity tag of a collection.
+     *
+     * @param modificationTag the modification tag of the entity type.
+     * @return the quoted entity tag.
+     * @see com.comptechco.stabledemojhipster.service.EntityModificationTracker
+     */
+    static String of(String modificationTag) {
+        return "\"" + modificationTag + "\"";
+    }
+
+    /**
+     * Get the version named by an {@code If-Match} header.
+     *
+     * @param ifMatch the value of the header, a single entity tag, weak or strong, or {@code *}.
+     * @return the version, or {@code null} if the header is {@code *}.
+     * @throws IllegalArgumentException if the header is not the tag of a version.
+     */
+    static Long toVersion(String ifMatch) {
+        String tag = ifMatch.trim();
+        if (ANY.equals(tag)) {
+            return null;
+        }
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        if (tag.length() < 2 || tag.charAt(0) != '"' || tag.charAt(tag.length() - 1) != '"') {
+            throw new IllegalArgumentException("Not an entity tag: " + ifMatch);
+        }
+        return Long.valueOf(tag.substring(1, tag.length() - 1));
+    }
+}
@@ -50,6 +50,36 @@ public class PublicUserResource {
         return new ResponseEntity<>(page.getContent(), headers, HttpStatus.OK);
     }
 
+    /**
+     * {@code GET /users?fields=:fields} : get the given public fields of all users - calling this are allowed for anyone.
+     *
+     * Only the columns of the requested fields are read, and only these fields are written.
+     *
+     * @param fields the comma-separated names of the fields, among the properties of {@link UserDTO}.
+     * @param pageable the pagination information.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the fields of all users.
+     */
+    @GetMapping(value = "/users", params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> getAllPublicUsersFields(
+        @RequestParam String fields,
+        @org.springdoc.api.annotations.ParameterObject Pageable pageable
+    ) {
+        log.debug("REST request to get the fields {} of all public User names", fields);
+        if (!onlyContainsAllowedProperties(pageable)) {
+            return ResponseEntity.badRequest().build();
+        }
+        List<String> fieldNames;
+        try {
+            fieldNames = userService.parsePublicUserFields(fields);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        final Page<Map<String, Object>> page = userService.getAllPublicUsers(fieldNames, pageable);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return new ResponseEntity<>(page.getContent(), headers, HttpStatus.OK);
+    }
+
     private boolean onlyContainsAllowedProperties(Pageable pageable) {
         return pageable.getSort().stream().map(Sort.Order::getProperty).allMatch(ALLOWED_ORDERED_PROPERTIES::contains);
     }
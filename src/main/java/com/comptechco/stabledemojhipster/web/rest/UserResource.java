@@ -4,7 +4,6 @@ import com.comptechco.stabledemojhipster.config.Constants;
 import com.comptechco.stabledemojhipster.domain.User;
 import com.comptechco.stabledemojhipster.repository.UserRepository;
 import com.comptechco.stabledemojhipster.security.AuthoritiesConstants;
-import com.comptechco.stabledemojhipster.service.MailService;
 import com.comptechco.stabledemojhipster.service.UserService;
 import com.comptechco.stabledemojhipster.service.dto.AdminUserDTO;
 import com.comptechco.stabledemojhipster.web.rest.errors.BadRequestAlertException;
@@ -47,10 +46,9 @@ import tech.jhipster.web.util.ResponseUtil;
  * quite often do relationships with the user, and we don't want them to get the authorities all
  * the time for nothing (for performance reasons). This is the #1 goal: we should not impact our users'
  * application because of this use-case.</li>
- * <li> Not having an outer join causes n+1 requests to the database. This is not a real issue as
- * we have by default a second-level cache. This means on the first HTTP call we do the n+1 requests,
- * but then all authorities come from the cache, so in fact it's much better than doing an outer join
- * (which will get lots of data from the database, for each HTTP call).</li>
+ * <li> Not having an outer join would cause n+1 requests to the database. The authorities are batch-fetched
+ * instead, 20 users at a time, see {@link User#getAuthorities()}: a default page of users costs one more request, and
+ * UserResourceIT checks the query budget of each endpoint.</li>
  * <li> As this manages users, for security reasons, we'd rather have a DTO layer.</li>
  * </ul>
  * <p>
@@ -85,12 +83,9 @@ public class UserResource {
 
     private final UserRepository userRepository;
 
-    private final MailService mailService;
-
-    public UserResource(UserService userService, UserRepository userRepository, MailService mailService) {
+    public UserResource(UserService userService, UserRepository userRepository) {
         this.userService = userService;
         this.userRepository = userRepository;
-        this.mailService = mailService;
     }
 
     /**
@@ -119,7 +114,6 @@ public class UserResource {
             throw new EmailAlreadyUsedException();
         } else {
             User newUser = userService.createUser(userDTO);
-            mailService.sendCreationEmail(newUser);
             return ResponseEntity
                 .created(new URI("/api/admin/users/" + newUser.getLogin()))
                 .headers(HeaderUtil.createAlert(applicationName, "userManagement.created", newUser.getLogin()))
@@ -174,6 +168,37 @@ public class UserResource {
         return new ResponseEntity<>(page.getContent(), headers, HttpStatus.OK);
     }
 
+    /**
+     * {@code GET /admin/users?fields=:fields} : get the given fields of all users - calling this are only allowed for the administrators.
+     *
+     * Only the columns of the requested fields are read, and only these fields are written.
+     *
+     * @param fields the comma-separated names of the fields, among the properties of {@link AdminUserDTO} but the authorities.
+     * @param pageable the pagination information.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the fields of all users.
+     */
+    @GetMapping(value = "/users", params = "fields")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<List<Map<String, Object>>> getAllUsersFields(
+        @RequestParam String fields,
+        @org.springdoc.api.annotations.ParameterObject Pageable pageable
+    ) {
+        log.debug("REST request to get the fields {} of all User for an admin", fields);
+        if (!onlyContainsAllowedProperties(pageable)) {
+            return ResponseEntity.badRequest().build();
+        }
+        List<String> fieldNames;
+        try {
+            fieldNames = userService.parseManagedUserFields(fields);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        final Page<Map<String, Object>> page = userService.getAllManagedUsers(fieldNames, pageable);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return new ResponseEntity<>(page.getContent(), headers, HttpStatus.OK);
+    }
+
     private boolean onlyContainsAllowedProperties(Pageable pageable) {
         return pageable.getSort().stream().map(Sort.Order::getProperty).allMatch(ALLOWED_ORDERED_PROPERTIES::contains);
     }
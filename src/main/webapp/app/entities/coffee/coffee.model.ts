@@ -2,10 +2,11 @@ export interface ICoffee {
   id?: number;
   name?: string | null;
   price?: number | null;
+  version?: number | null;
 }
 
 export class Coffee implements ICoffee {
-  constructor(public id?: number, public name?: string | null, public price?: number | null) {}
+  constructor(public id?: number, public name?: string | null, public price?: number | null, public version?: number | null) {}
 }
 
 export function getCoffeeIdentifier(coffee: ICoffee): number | undefined {
@@ -19,6 +19,7 @@ export class CoffeeUpdateComponent implements OnInit {
     id: [],
     name: [null, [Validators.minLength(10), Validators.maxLength(50)]],
     price: [null, [Validators.min(5), Validators.max(10)]],
+    version: [],
   });
 
   constructor(protected coffeeService: CoffeeService, protected activatedRoute: ActivatedRoute, protected fb: FormBuilder) {}
@@ -67,6 +68,7 @@ export class CoffeeUpdateComponent implements OnInit {
       id: coffee.id,
       name: coffee.name,
       price: coffee.price,
+      version: coffee.version,
     });
   }
 
@@ -76,6 +78,7 @@ export class CoffeeUpdateComponent implements OnInit {
       id: this.editForm.get(['id'])!.value,
       name: this.editForm.get(['name'])!.value,
       price: this.editForm.get(['price'])!.value,
+      version: this.editForm.get(['version'])!.value,
     };
   }
 }
@@ -2,10 +2,11 @@ export interface ICustomer {
   id?: number;
   name?: string | null;
   phoneNumber?: string | null;
+  version?: number | null;
 }
 
 export class Customer implements ICustomer {
-  constructor(public id?: number, public name?: string | null, public phoneNumber?: string | null) {}
+  constructor(public id?: number, public name?: string | null, public phoneNumber?: string | null, public version?: number | null) {}
 }
 
 export function getCustomerIdentifier(customer: ICustomer): number | undefined {
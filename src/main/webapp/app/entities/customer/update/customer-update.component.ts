@@ -18,7 +18,8 @@ export class CustomerUpdateComponent implements OnInit {
   editForm = this.fb.group({
     id: [],
     name: [null, [Validators.minLength(10), Validators.maxLength(50)]],
-    phoneNumber: [null, [Validators.minLength(10), Validators.maxLength(12), Validators.pattern('(\\d{3}\\)\\d{3}-?\\d{6}')]],
+    phoneNumber: [null, [Validators.minLength(12), Validators.maxLength(15), Validators.pattern('(\\(\\d{3}\\)|\\d{3})\\d{3}-?\\d{6}')]],
+    version: [],
   });
 
   constructor(protected customerService: CustomerService, protected activatedRoute: ActivatedRoute, protected fb: FormBuilder) {}
@@ -67,6 +68,7 @@ export class CustomerUpdateComponent implements OnInit {
       id: customer.id,
       name: customer.name,
       phoneNumber: customer.phoneNumber,
+      version: customer.version,
     });
   }
 
@@ -76,6 +78,7 @@ export class CustomerUpdateComponent implements OnInit {
       id: this.editForm.get(['id'])!.value,
       name: this.editForm.get(['name'])!.value,
       phoneNumber: this.editForm.get(['phoneNumber'])!.value,
+      version: this.editForm.get(['version'])!.value,
     };
   }
 }
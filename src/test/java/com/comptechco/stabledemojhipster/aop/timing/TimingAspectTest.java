@@ -0,0 +1,151 @@
+package com.comptechco.stabledemojhipster.aop.timing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+import com.comptechco.stabledemojhipster.config.ApplicationProperties;
+import com.comptechco.stabledemojhipster.management.MethodTimingMetersService;
+import com.comptechco.stabledemojhipster.repository.CoffeeRepository;
+import com.comptechco.stabledemojhipster.repository.CustomerRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.List;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.data.repository.CrudRepository;
+
+/**
+ * Tests for {@link TimingAspect}.
+ */
+class TimingAspectTest {
+
+    private MeterRegistry meterRegistry;
+
+    private MethodTimingMetersService methodTimingMetersService;
+
+    private ProceedingJoinPoint joinPoint;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        meterRegistry = new SimpleMeterRegistry();
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getTiming().setPercentiles(List.of(0.5, 0.99));
+        applicationProperties.getTiming().setSlo(List.of(Duration.ofMillis(50), Duration.ofMillis(200)));
+        methodTimingMetersService = new MethodTimingMetersService(meterRegistry, applicationProperties);
+
+        TimedService service = new TimedService();
+        joinPoint = joinPoint(service, service, TimedService.class.getMethod("findOne", Long.class));
+    }
+
+    @Test
+    void testCallIsTimed() throws Throwable {
+        when(joinPoint.proceed()).thenReturn("Espresso");
+        TimingAspect timingAspect = new TimingAspect(methodTimingMetersService, 1);
+
+        assertThat(timingAspect.timeAround(joinPoint)).isEqualTo("Espresso");
+        assertThat(timingAspect.timeAround(joinPoint)).isEqualTo("Espresso");
+
+        Timer timer = timer("none");
+        assertThat(timer.count()).isEqualTo(2);
+        HistogramSnapshot snapshot = timer.takeSnapshot();
+        assertThat(snapshot.percentileValues()).hasSize(2);
+        assertThat(snapshot.histogramCounts()).hasSize(2);
+    }
+
+    @Test
+    void testFailedCallIsTimedWithItsException() throws Throwable {
+        when(joinPoint.proceed()).thenThrow(new IllegalStateException("database is down"));
+        TimingAspect timingAspect = new TimingAspect(methodTimingMetersService, 1);
+
+        assertThatThrownBy(() -> timingAspect.timeAround(joinPoint)).isInstanceOf(IllegalStateException.class);
+
+        assertThat(timer("IllegalStateException").count()).isEqualTo(1);
+        assertThat(meterRegistry.find("method.timed").tag("exception", "none").timer()).isNull();
+    }
+
+    @Test
+    void testFailedCallTimerIsCached() throws Throwable {
+        when(joinPoint.proceed()).thenThrow(new IllegalStateException("database is down"));
+        MethodTimingMetersService spiedMetersService = spy(methodTimingMetersService);
+        TimingAspect timingAspect = new TimingAspect(spiedMetersService, 1);
+
+        assertThatThrownBy(() -> timingAspect.timeAround(joinPoint)).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> timingAspect.timeAround(joinPoint)).isInstanceOf(IllegalStateException.class);
+
+        assertThat(timer("IllegalStateException").count()).isEqualTo(2);
+        verify(spiedMetersService, times(1)).getTimer("TimedService", "findOne", "IllegalStateException");
+    }
+
+    @Test
+    void testInheritedRepositoryMethodIsTimedByRepository() throws Throwable {
+        Method findById = CrudRepository.class.getMethod("findById", Object.class);
+        ProceedingJoinPoint coffeeJoinPoint = joinPoint(repositoryProxy(CoffeeRepository.class), new Object(), findById);
+        ProceedingJoinPoint customerJoinPoint = joinPoint(repositoryProxy(CustomerRepository.class), new Object(), findById);
+        TimingAspect timingAspect = new TimingAspect(methodTimingMetersService, 1);
+
+        timingAspect.timeAround(coffeeJoinPoint);
+        timingAspect.timeAround(coffeeJoinPoint);
+        timingAspect.timeAround(customerJoinPoint);
+
+        assertThat(meterRegistry.get("method.timed").tag("class", "CoffeeRepository").tag("method", "findById").timer().count())
+            .isEqualTo(2);
+        assertThat(meterRegistry.get("method.timed").tag("class", "CustomerRepository").tag("method", "findById").timer().count())
+            .isEqualTo(1);
+    }
+
+    @Test
+    void testCallIsNotTimedWhenNotSampled() throws Throwable {
+        when(joinPoint.proceed()).thenReturn("Espresso");
+        TimingAspect timingAspect = new TimingAspect(methodTimingMetersService, 0);
+
+        assertThat(timingAspect.timeAround(joinPoint)).isEqualTo("Espresso");
+
+        verify(joinPoint).proceed();
+        assertThat(meterRegistry.find("method.timed").timer()).isNull();
+    }
+
+    private static ProceedingJoinPoint joinPoint(Object proxy, Object target, Method method) {
+        MethodSignature signature = mock(MethodSignature.class);
+        when(signature.getDeclaringType()).thenReturn(method.getDeclaringClass());
+        when(signature.getName()).thenReturn(method.getName());
+        when(signature.getMethod()).thenReturn(method);
+        ProceedingJoinPoint joinPoint = mock(ProceedingJoinPoint.class);
+        when(joinPoint.getSignature()).thenReturn(signature);
+        when(joinPoint.getThis()).thenReturn(proxy);
+        when(joinPoint.getTarget()).thenReturn(target);
+        return joinPoint;
+    }
+
+    /**
+     * A JDK proxy of a repository interface, like the ones of Spring Data.
+     */
+    private static Object repositoryProxy(Class<?> repositoryInterface) {
+        ProxyFactory proxyFactory = new ProxyFactory(new Object());
+        proxyFactory.addInterface(repositoryInterface);
+        return proxyFactory.getProxy();
+    }
+
+    private Timer timer(String exception) {
+        return meterRegistry
+            .get("method.timed")
+            .tag("class", "TimedService")
+            .tag("method", "findOne")
+            .tag("exception", exception)
+            .timer();
+    }
+
+    static class TimedService {
+
+        public String findOne(Long id) {
+            return "Espresso";
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.comptechco.stabledemojhipster.benchmark;
+
+import com.comptechco.stabledemojhipster.domain.Coffee;
+import com.comptechco.stabledemojhipster.domain.Customer;
+import com.comptechco.stabledemojhipster.security.AuthoritiesConstants;
+import com.comptechco.stabledemojhipster.service.dto.AdminUserDTO;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Compares the JSON, Smile and CBOR encodings of the REST payloads: the encoding and decoding throughput of a list of
+ * each entity, as {@code GET /api/coffees}, {@code /api/customers} and {@code /api/admin/users} return them. The encode
+ * benchmarks also report the {@code encodedBytes} per time unit, so the payload size is that rate divided by the score.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BinaryFormatBenchmark {
+
+    private static final int LIST_SIZE = 50;
+
+    @Param({ "json", "smile", "cbor" })
+    private String format;
+
+    private ObjectWriter coffeesWriter;
+    private ObjectWriter customersWriter;
+    private ObjectWriter adminUsersWriter;
+
+    private ObjectReader coffeesReader;
+    private ObjectReader customersReader;
+    private ObjectReader adminUsersReader;
+
+    private Coffee[] coffees;
+    private Customer[] customers;
+    private AdminUserDTO[] adminUsers;
+
+    private byte[] coffeesPayload;
+    private byte[] customersPayload;
+    private byte[] adminUsersPayload;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        ObjectMapper objectMapper = JacksonSerializationBenchmark.objectMapper(factory(format));
+        coffeesWriter = objectMapper.writerFor(Coffee[].class);
+        customersWriter = objectMapper.writerFor(Customer[].class);
+        adminUsersWriter = objectMapper.writerFor(AdminUserDTO[].class);
+        coffeesReader = objectMapper.readerFor(Coffee[].class);
+        customersReader = objectMapper.readerFor(Customer[].class);
+        adminUsersReader = objectMapper.readerFor(AdminUserDTO[].class);
+
+        coffees = new Coffee[LIST_SIZE];
+        customers = new Customer[LIST_SIZE];
+        adminUsers = new AdminUserDTO[LIST_SIZE];
+        for (int i = 0; i < LIST_SIZE; i++) {
+            coffees[i] = new Coffee().id(1000L + i).name("Ethiopia Yirgacheffe " + i).price(4.5D + i % 5);
+            customers[i] = new Customer().id(2000L + i).name("Jane Customer " + i).phoneNumber(String.format("1234567%05d", i));
+            adminUsers[i] = adminUser(3000L + i);
+        }
+
+        coffeesPayload = coffeesWriter.writeValueAsBytes(coffees);
+        customersPayload = customersWriter.writeValueAsBytes(customers);
+        adminUsersPayload = adminUsersWriter.writeValueAsBytes(adminUsers);
+    }
+
+    /**
+     * Counts the bytes written by the encode benchmarks, reported by JMH next to their score.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class EncodedBytes {
+
+        public long encodedBytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            encodedBytes = 0;
+        }
+
+        byte[] count(byte[] payload) {
+            encodedBytes += payload.length;
+            return payload;
+        }
+    }
+
+    private static JsonFactory factory(String format) {
+        switch (format) {
+            case "smile":
+                return new SmileFactory();
+            case "cbor":
+                return new CBORFactory();
+            default:
+                return null;
+        }
+    }
+
+    private static AdminUserDTO adminUser(long id) {
+        AdminUserDTO adminUser = new AdminUserDTO();
+        adminUser.setId(id);
+        adminUser.setLogin("jane" + id);
+        adminUser.setFirstName("Jane");
+        adminUser.setLastName("Doe");
+        adminUser.setEmail("jane" + id + "@localhost");
+        adminUser.setImageUrl("http://placehold.it/50x50");
+        adminUser.setActivated(true);
+        adminUser.setLangKey("en");
+        adminUser.setCreatedBy("system");
+        adminUser.setCreatedDate(Instant.parse("2022-01-12T15:06:27Z"));
+        adminUser.setLastModifiedBy("admin");
+        adminUser.setLastModifiedDate(Instant.parse("2022-01-13T09:30:00Z"));
+        adminUser.setAuthorities(Set.of(AuthoritiesConstants.USER, AuthoritiesConstants.ADMIN));
+        return adminUser;
+    }
+
+    @Benchmark
+    public byte[] encodeCoffees(EncodedBytes encodedBytes) throws IOException {
+        return encodedBytes.count(coffeesWriter.writeValueAsBytes(coffees));
+    }
+
+    @Benchmark
+    public byte[] encodeCustomers(EncodedBytes encodedBytes) throws IOException {
+        return encodedBytes.count(customersWriter.writeValueAsBytes(customers));
+    }
+
+    @Benchmark
+    public byte[] encodeAdminUsers(EncodedBytes encodedBytes) throws IOException {
+        return encodedBytes.count(adminUsersWriter.writeValueAsBytes(adminUsers));
+    }
+
+    @Benchmark
+    public Coffee[] decodeCoffees() throws IOException {
+        return coffeesReader.readValue(coffeesPayload);
+    }
+
+    @Benchmark
+    public Customer[] decodeCustomers() throws IOException {
+        return customersReader.readValue(customersPayload);
+    }
+
+    @Benchmark
+    public AdminUserDTO[] decodeAdminUsers() throws IOException {
+        return adminUsersReader.readValue(adminUsersPayload);
+    }
+}
@@ -0,0 +1,165 @@
+package com.comptechco.stabledemojhipster.benchmark;
+
+import com.comptechco.stabledemojhipster.config.JacksonConfiguration;
+import com.comptechco.stabledemojhipster.domain.Coffee;
+import com.comptechco.stabledemojhipster.domain.Customer;
+import com.comptechco.stabledemojhipster.security.AuthoritiesConstants;
+import com.comptechco.stabledemojhipster.service.dto.AdminUserDTO;
+import com.comptechco.stabledemojhipster.service.dto.UserDTO;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Measures the JSON serialization and deserialization of the REST payloads, with the object mapper configured like the
+ * application's: the Spring Boot defaults plus the modules of {@link JacksonConfiguration}, with and without the
+ * generated accessors of the Blackbird module ({@code application.jackson.blackbird}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JacksonSerializationBenchmark {
+
+    @Param({ "false", "true" })
+    private boolean blackbird;
+
+    private ObjectWriter coffeeWriter;
+    private ObjectWriter customerWriter;
+    private ObjectWriter userWriter;
+    private ObjectWriter adminUserWriter;
+
+    private ObjectReader coffeeReader;
+    private ObjectReader customerReader;
+    private ObjectReader userReader;
+    private ObjectReader adminUserReader;
+
+    private Coffee coffee;
+    private Customer customer;
+    private UserDTO user;
+    private AdminUserDTO adminUser;
+
+    private String coffeeJson;
+    private String customerJson;
+    private String userJson;
+    private String adminUserJson;
+
+    @Setup(Level.Trial)
+    public void setup() throws JsonProcessingException {
+        ObjectMapper objectMapper = objectMapper(null, blackbird);
+        coffeeWriter = objectMapper.writerFor(Coffee.class);
+        customerWriter = objectMapper.writerFor(Customer.class);
+        userWriter = objectMapper.writerFor(UserDTO.class);
+        adminUserWriter = objectMapper.writerFor(AdminUserDTO.class);
+        coffeeReader = objectMapper.readerFor(Coffee.class);
+        customerReader = objectMapper.readerFor(Customer.class);
+        userReader = objectMapper.readerFor(UserDTO.class);
+        adminUserReader = objectMapper.readerFor(AdminUserDTO.class);
+
+        coffee = new Coffee().id(1051L).name("Ethiopia Yirgacheffe").price(4.5D);
+        customer = new Customer().id(1052L).name("Jane Customer").phoneNumber("123456789012");
+        user = new UserDTO();
+        user.setId(1053L);
+        user.setLogin("jane");
+        adminUser = new AdminUserDTO();
+        adminUser.setId(1053L);
+        adminUser.setLogin("jane");
+        adminUser.setFirstName("Jane");
+        adminUser.setLastName("Doe");
+        adminUser.setEmail("jane@localhost");
+        adminUser.setImageUrl("http://placehold.it/50x50");
+        adminUser.setActivated(true);
+        adminUser.setLangKey("en");
+        adminUser.setCreatedBy("system");
+        adminUser.setCreatedDate(Instant.parse("2022-01-12T15:06:27Z"));
+        adminUser.setLastModifiedBy("admin");
+        adminUser.setLastModifiedDate(Instant.parse("2022-01-13T09:30:00Z"));
+        adminUser.setAuthorities(Set.of(AuthoritiesConstants.USER, AuthoritiesConstants.ADMIN));
+
+        coffeeJson = coffeeWriter.writeValueAsString(coffee);
+        customerJson = customerWriter.writeValueAsString(customer);
+        userJson = userWriter.writeValueAsString(user);
+        adminUserJson = adminUserWriter.writeValueAsString(adminUser);
+    }
+
+    /**
+     * @param factory the factory of the encoding, or {@code null} for JSON.
+     */
+    static ObjectMapper objectMapper(JsonFactory factory) {
+        return objectMapper(factory, false);
+    }
+
+    /**
+     * @param factory the factory of the encoding, or {@code null} for JSON.
+     * @param blackbird whether to install the {@link BlackbirdModule}, like {@code application.jackson.blackbird}.
+     */
+    static ObjectMapper objectMapper(JsonFactory factory, boolean blackbird) {
+        JacksonConfiguration jacksonConfiguration = new JacksonConfiguration();
+        List<Module> modules = new ArrayList<>(
+            List.of(
+                jacksonConfiguration.javaTimeModule(),
+                jacksonConfiguration.jdk8TimeModule(),
+                jacksonConfiguration.hibernate5Module(),
+                jacksonConfiguration.problemModule(),
+                jacksonConfiguration.constraintViolationProblemModule()
+            )
+        );
+        if (blackbird) {
+            modules.add(jacksonConfiguration.blackbirdModule());
+        }
+        return Jackson2ObjectMapperBuilder.json().factory(factory).modulesToInstall(modules.toArray(new Module[0])).build();
+    }
+
+    @Benchmark
+    public String serializeCoffee() throws JsonProcessingException {
+        return coffeeWriter.writeValueAsString(coffee);
+    }
+
+    @Benchmark
+    public String serializeCustomer() throws JsonProcessingException {
+        return customerWriter.writeValueAsString(customer);
+    }
+
+    @Benchmark
+    public String serializeUser() throws JsonProcessingException {
+        return userWriter.writeValueAsString(user);
+    }
+
+    @Benchmark
+    public String serializeAdminUser() throws JsonProcessingException {
+        return adminUserWriter.writeValueAsString(adminUser);
+    }
+
+    @Benchmark
+    public Coffee deserializeCoffee() throws JsonProcessingException {
+        return coffeeReader.readValue(coffeeJson);
+    }
+
+    @Benchmark
+    public Customer deserializeCustomer() throws JsonProcessingException {
+        return customerReader.readValue(customerJson);
+    }
+
+    @Benchmark
+    public UserDTO deserializeUser() throws JsonProcessingException {
+        return userReader.readValue(userJson);
+    }
+
+    @Benchmark
+    public AdminUserDTO deserializeAdminUser() throws JsonProcessingException {
+        return adminUserReader.readValue(adminUserJson);
+    }
+}
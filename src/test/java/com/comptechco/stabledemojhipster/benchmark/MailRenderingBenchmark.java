@@ -0,0 +1,119 @@
+package com.comptechco.stabledemojhipster.benchmark;
+
+import com.comptechco.stabledemojhipster.domain.User;
+import com.comptechco.stabledemojhipster.service.MailTemplateRenderer;
+import com.comptechco.stabledemojhipster.service.MailTemplateRenderer.RenderedEmail;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.support.ResourceBundleMessageSource;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring5.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Measures the password reset emails rendered per second: one at a time like before (new context and output buffer,
+ * subject resolved on each call), one at a time with the {@link MailTemplateRenderer}, and in bulk on its executor.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MailRenderingBenchmark {
+
+    private static final String TEMPLATE_NAME = "mail/passwordResetEmail";
+
+    private static final String TITLE_KEY = "email.reset.title";
+
+    private static final int BULK_SIZE = 1000;
+
+    private JHipsterProperties jHipsterProperties;
+
+    private ResourceBundleMessageSource messageSource;
+
+    private SpringTemplateEngine templateEngine;
+
+    private ThreadPoolTaskExecutor executor;
+
+    private MailTemplateRenderer mailTemplateRenderer;
+
+    private List<User> users;
+
+    private User user;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getMail().setBaseUrl("http://127.0.0.1:8080");
+
+        messageSource = new ResourceBundleMessageSource();
+        messageSource.setBasename("i18n/messages");
+        messageSource.setDefaultEncoding(StandardCharsets.UTF_8.name());
+
+        ClassLoaderTemplateResolver templateResolver = new ClassLoaderTemplateResolver();
+        templateResolver.setPrefix("templates/");
+        templateResolver.setSuffix(".html");
+        templateResolver.setTemplateMode(TemplateMode.HTML);
+        templateResolver.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        templateResolver.setCacheable(true);
+        templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(templateResolver);
+        templateEngine.setTemplateEngineMessageSource(messageSource);
+
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(Runtime.getRuntime().availableProcessors());
+        executor.setMaxPoolSize(Runtime.getRuntime().availableProcessors());
+        executor.setQueueCapacity(BULK_SIZE);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+
+        mailTemplateRenderer = new MailTemplateRenderer(jHipsterProperties, messageSource, templateEngine, executor);
+
+        users = new ArrayList<>(BULK_SIZE);
+        for (int i = 0; i < BULK_SIZE; i++) {
+            User campaignUser = new User();
+            campaignUser.setLogin("user" + i);
+            campaignUser.setEmail("user" + i + "@localhost");
+            campaignUser.setLangKey("en");
+            campaignUser.setResetKey("resetkey" + i);
+            users.add(campaignUser);
+        }
+        user = users.get(0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Benchmark
+    public String renderWithNewContext() {
+        Locale locale = Locale.forLanguageTag(user.getLangKey());
+        Context context = new Context(locale);
+        context.setVariable("user", user);
+        context.setVariable("baseUrl", jHipsterProperties.getMail().getBaseUrl());
+        String content = templateEngine.process(TEMPLATE_NAME, context);
+        String subject = messageSource.getMessage(TITLE_KEY, null, locale);
+        return subject + content;
+    }
+
+    @Benchmark
+    public RenderedEmail render() {
+        return mailTemplateRenderer.render(user, TEMPLATE_NAME, TITLE_KEY);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BULK_SIZE)
+    public List<RenderedEmail> renderAll() {
+        return mailTemplateRenderer.renderAll(users, TEMPLATE_NAME, TITLE_KEY);
+    }
+}
@@ -0,0 +1,54 @@
+package com.comptechco.stabledemojhipster.benchmark;
+
+import com.comptechco.stabledemojhipster.domain.Customer;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validation;
+import javax.validation.Validator;
+import javax.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Measures the Bean Validation of {@link Customer#getPhoneNumber()}, i.e. its {@code @Size} and {@code @Pattern}
+ * constraints, for a valid and an invalid phone number.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PhoneNumberValidationBenchmark {
+
+    private ValidatorFactory validatorFactory;
+
+    private Validator validator;
+
+    private Customer validCustomer;
+
+    private Customer invalidCustomer;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+        validCustomer = new Customer().name("Jane Customer").phoneNumber("123456789012");
+        invalidCustomer = new Customer().name("Jane Customer").phoneNumber("12345678901X");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<Customer>> validateValidPhoneNumber() {
+        return validator.validateProperty(validCustomer, "phoneNumber");
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<Customer>> validateInvalidPhoneNumber() {
+        return validator.validateProperty(invalidCustomer, "phoneNumber");
+    }
+}
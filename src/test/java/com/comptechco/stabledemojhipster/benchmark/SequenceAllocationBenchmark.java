@@ -0,0 +1,92 @@
+package com.comptechco.stabledemojhipster.benchmark;
+
+import com.comptechco.stabledemojhipster.StabledemojhipsterApp;
+import com.comptechco.stabledemojhipster.domain.Coffee;
+import com.comptechco.stabledemojhipster.domain.SequenceIdGenerator;
+import com.comptechco.stabledemojhipster.repository.CoffeeRepository;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Measures the coffee inserts per second, allocating one id per {@code nextval} ({@code incrementSize = 1}, the "before")
+ * or a block of ids per {@code nextval} with the pooled-lo optimizer ({@code incrementSize = 50}, the "after").
+ * <p>
+ * The {@code database} parameter selects an in-memory H2 database, H2 in PostgreSQL compatibility mode, or a real
+ * PostgreSQL started by Testcontainers ({@code -p database=postgresql}, needs Docker and the "dev" Maven profile).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class SequenceAllocationBenchmark {
+
+    private static final int INSERTS_PER_TRANSACTION = 100;
+
+    @Param({ "h2", "h2-postgresql" })
+    private String database;
+
+    @Param({ "1", "50" })
+    private int incrementSize;
+
+    private ConfigurableApplicationContext context;
+
+    private CoffeeRepository coffeeRepository;
+
+    private TransactionTemplate transactionTemplate;
+
+    private final AtomicLong counter = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context =
+            new SpringApplicationBuilder(StabledemojhipsterApp.class)
+                .web(WebApplicationType.NONE)
+                .profiles("postgresql".equals(database) ? "testcontainers" : "test")
+                .properties(
+                    "spring.datasource.url=" + datasourceUrl(),
+                    "spring.jpa.properties." + SequenceIdGenerator.INCREMENT_SIZE_SETTING + "=" + incrementSize,
+                    "spring.jpa.properties.hibernate.jdbc.batch_size=25",
+                    "spring.jpa.properties.hibernate.order_inserts=true"
+                )
+                .run();
+        coffeeRepository = context.getBean(CoffeeRepository.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+    }
+
+    private String datasourceUrl() {
+        switch (database) {
+            case "h2":
+                return "jdbc:h2:mem:sequence-benchmark;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE";
+            case "h2-postgresql":
+                return "jdbc:h2:mem:sequence-benchmark-pg;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE";
+            case "postgresql":
+                return "jdbc:tc:postgresql:13.5:///stabledemojhipster?TC_TMPFS=/testtmpfs:rw";
+            default:
+                throw new IllegalArgumentException("Unknown database: " + database);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        coffeeRepository.deleteAllInBatch();
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(INSERTS_PER_TRANSACTION)
+    public void insertCoffees() {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < INSERTS_PER_TRANSACTION; i++) {
+                coffeeRepository.save(new Coffee().name("Benchmark coffee " + counter.incrementAndGet()).price(5D));
+            }
+        });
+    }
+}
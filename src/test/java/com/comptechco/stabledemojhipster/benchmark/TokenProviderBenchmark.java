@@ -0,0 +1,92 @@
+package com.comptechco.stabledemojhipster.benchmark;
+
+import com.comptechco.stabledemojhipster.config.ApplicationProperties;
+import com.comptechco.stabledemojhipster.management.SecurityMetersService;
+import com.comptechco.stabledemojhipster.security.AuthoritiesConstants;
+import com.comptechco.stabledemojhipster.security.jwt.TokenProvider;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Measures the JWT operations done on each request: issuing a token at login, and verifying a token and building its
+ * authentication on every API call, with and without the cache of verified tokens.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenProviderBenchmark {
+
+    private static final String BASE64_SECRET =
+        "fd54a45s65fds737b9aafcb3412e07ed99b267f33413274720ddbb7f6c5e64e9f14075f2d7ed041592f0b7657baf8";
+
+    private TokenProvider tokenProvider;
+
+    private TokenProvider uncachedTokenProvider;
+
+    private Authentication authentication;
+
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getSecurity().getAuthentication().getJwt().setBase64Secret(BASE64_SECRET);
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        tokenProvider = new TokenProvider(jHipsterProperties, applicationProperties, new SecurityMetersService(new SimpleMeterRegistry()));
+
+        ApplicationProperties uncachedApplicationProperties = new ApplicationProperties();
+        uncachedApplicationProperties.getSecurity().setTokenCacheMaxEntries(0);
+        uncachedTokenProvider =
+            new TokenProvider(jHipsterProperties, uncachedApplicationProperties, new SecurityMetersService(new SimpleMeterRegistry()));
+
+        authentication =
+            new UsernamePasswordAuthenticationToken(
+                "user",
+                "user",
+                Arrays.asList(new SimpleGrantedAuthority(AuthoritiesConstants.USER), new SimpleGrantedAuthority(AuthoritiesConstants.ADMIN))
+            );
+        token = tokenProvider.createToken(authentication, false);
+    }
+
+    @Benchmark
+    public String createToken() {
+        return tokenProvider.createToken(authentication, false);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return tokenProvider.validateToken(token);
+    }
+
+    @Benchmark
+    public Authentication getAuthentication() {
+        return tokenProvider.getAuthentication(token);
+    }
+
+    /**
+     * What JWTFilter did before the cache: a validation, then a second parse to get the authentication.
+     */
+    @Benchmark
+    public Authentication validateTokenThenGetAuthentication() {
+        return tokenProvider.validateToken(token) ? tokenProvider.getAuthentication(token) : null;
+    }
+
+    @Benchmark
+    public Authentication authenticateUncached() {
+        return uncachedTokenProvider.authenticate(token);
+    }
+
+    @Benchmark
+    public Authentication authenticateCached() {
+        return tokenProvider.authenticate(token);
+    }
+}
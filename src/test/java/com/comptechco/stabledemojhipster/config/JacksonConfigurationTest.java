@@ -0,0 +1,108 @@
+package com.comptechco.stabledemojhipster.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.comptechco.stabledemojhipster.domain.Coffee;
+import com.comptechco.stabledemojhipster.domain.Customer;
+import com.comptechco.stabledemojhipster.security.AuthoritiesConstants;
+import com.comptechco.stabledemojhipster.service.dto.AdminUserDTO;
+import com.comptechco.stabledemojhipster.service.dto.UserDTO;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Tests that the generated accessors of the Blackbird module ({@code application.jackson.blackbird}) read and write
+ * exactly what the reflective accessors do.
+ */
+class JacksonConfigurationTest {
+
+    private JacksonConfiguration jacksonConfiguration;
+
+    private ObjectMapper reflectiveMapper;
+
+    private ObjectMapper blackbirdMapper;
+
+    @BeforeEach
+    void setUp() {
+        jacksonConfiguration = new JacksonConfiguration();
+        reflectiveMapper = objectMapper(false);
+        blackbirdMapper = objectMapper(true);
+    }
+
+    @Test
+    void testCoffeeIsSerializedLikeReflection() throws Exception {
+        Coffee coffee = new Coffee().id(1051L).name("Ethiopia Yirgacheffe").price(4.5D).version(3L);
+        assertSameJson(coffee, Coffee.class);
+        assertSameJson(new Coffee(), Coffee.class);
+    }
+
+    @Test
+    void testCustomerIsSerializedLikeReflection() throws Exception {
+        Customer customer = new Customer().id(1052L).name("Jane Customer").phoneNumber("(123)456-789012").version(2L);
+        assertSameJson(customer, Customer.class);
+        assertSameJson(new Customer(), Customer.class);
+    }
+
+    @Test
+    void testUserIsSerializedLikeReflection() throws Exception {
+        UserDTO user = new UserDTO();
+        user.setId(1053L);
+        user.setLogin("jane");
+        assertSameJson(user, UserDTO.class);
+        assertSameJson(new UserDTO(), UserDTO.class);
+    }
+
+    @Test
+    void testAdminUserIsSerializedLikeReflection() throws Exception {
+        AdminUserDTO adminUser = new AdminUserDTO();
+        adminUser.setId(1053L);
+        adminUser.setLogin("jane");
+        adminUser.setFirstName("Jane");
+        adminUser.setLastName("Doe");
+        adminUser.setEmail("jane@localhost");
+        adminUser.setImageUrl("http://placehold.it/50x50");
+        adminUser.setActivated(true);
+        adminUser.setLangKey("en");
+        adminUser.setCreatedBy("system");
+        adminUser.setCreatedDate(Instant.parse("2022-01-12T15:06:27.123Z"));
+        adminUser.setLastModifiedBy("admin");
+        adminUser.setLastModifiedDate(Instant.parse("2022-01-13T09:30:00Z"));
+        adminUser.setAuthorities(Set.of(AuthoritiesConstants.USER));
+        assertSameJson(adminUser, AdminUserDTO.class);
+        assertSameJson(new AdminUserDTO(), AdminUserDTO.class);
+    }
+
+    private <T> void assertSameJson(T value, Class<T> type) throws Exception {
+        byte[] reflectiveJson = reflectiveMapper.writerFor(type).writeValueAsBytes(value);
+        byte[] blackbirdJson = blackbirdMapper.writerFor(type).writeValueAsBytes(value);
+        assertThat(new String(blackbirdJson)).isEqualTo(new String(reflectiveJson));
+
+        T reflectiveValue = reflectiveMapper.readerFor(type).readValue(reflectiveJson);
+        T blackbirdValue = blackbirdMapper.readerFor(type).readValue(reflectiveJson);
+        assertThat(blackbirdValue).usingRecursiveComparison().isEqualTo(reflectiveValue);
+        assertThat(blackbirdValue).usingRecursiveComparison().isEqualTo(value);
+    }
+
+    private ObjectMapper objectMapper(boolean blackbird) {
+        List<Module> modules = new ArrayList<>(
+            List.of(
+                jacksonConfiguration.javaTimeModule(),
+                jacksonConfiguration.jdk8TimeModule(),
+                jacksonConfiguration.hibernate5Module(),
+                jacksonConfiguration.problemModule(),
+                jacksonConfiguration.constraintViolationProblemModule()
+            )
+        );
+        if (blackbird) {
+            modules.add(jacksonConfiguration.blackbirdModule());
+        }
+        return Jackson2ObjectMapperBuilder.json().modulesToInstall(modules.toArray(new Module[0])).build();
+    }
+}
@@ -0,0 +1,169 @@
+package com.comptechco.stabledemojhipster.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.sql.Connection;
+import java.time.Duration;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Tests for {@link ReplicaRoutingDataSource}, with two H2 databases standing for the primary and the replica.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private static final String PRIMARY_URL = "jdbc:h2:mem:routing-primary;MODE=PostgreSQL;DB_CLOSE_DELAY=-1";
+    private static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;MODE=PostgreSQL;DB_CLOSE_DELAY=-1";
+
+    private DriverManagerDataSource primary;
+    private DriverManagerDataSource replica;
+    private ApplicationProperties.Datasource.Replica replicaProperties;
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    public void setup() {
+        primary = new DriverManagerDataSource(PRIMARY_URL);
+        replica = new DriverManagerDataSource(REPLICA_URL);
+        createDatabase(primary, "primary");
+        createDatabase(replica, "replica");
+
+        replicaProperties = new ApplicationProperties.Datasource.Replica();
+        replicaProperties.setLagQuery("select lag_seconds from replication_status");
+        replicaProperties.setMaxLag(Duration.ofSeconds(10));
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    public void cleanup() {
+        new JdbcTemplate(primary).execute("drop all objects");
+        new JdbcTemplate(replica).execute("drop all objects");
+    }
+
+    private static void createDatabase(DataSource dataSource, String name) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table database_name (name varchar(10))");
+        jdbcTemplate.update("insert into database_name values (?)", name);
+        jdbcTemplate.execute("create table replication_status (lag_seconds double precision)");
+        jdbcTemplate.update("insert into replication_status values (0)");
+    }
+
+    @Test
+    void testReadOnlyTransactionsUseReplica() {
+        ReplicaRoutingDataSource routingDataSource = createRoutingDataSource();
+        routingDataSource.checkReplica();
+
+        assertThat(routingDataSource.isReplicaAvailable()).isTrue();
+        assertThat(queryDatabaseName(routingDataSource, true)).isEqualTo("replica");
+        assertThat(queryDatabaseName(routingDataSource, false)).isEqualTo("primary");
+        assertThat(connections("replica", "true")).isEqualTo(1);
+        assertThat(connections("primary", "false")).isEqualTo(1);
+        assertThat(connections("primary", "true")).isZero();
+    }
+
+    @Test
+    void testReadOnlyTransactionsUsePrimaryUntilReplicaIsChecked() {
+        ReplicaRoutingDataSource routingDataSource = createRoutingDataSource();
+
+        assertThat(routingDataSource.isReplicaAvailable()).isFalse();
+        assertThat(queryDatabaseName(routingDataSource, true)).isEqualTo("primary");
+        assertThat(connections("replica", "true")).isZero();
+
+        routingDataSource.checkReplica();
+
+        assertThat(routingDataSource.isReplicaAvailable()).isTrue();
+        assertThat(queryDatabaseName(routingDataSource, true)).isEqualTo("replica");
+    }
+
+    @Test
+    void testReadOnlyTransactionsUsePrimaryWhenReplicaLags() {
+        ReplicaRoutingDataSource routingDataSource = createRoutingDataSource();
+        new JdbcTemplate(replica).update("update replication_status set lag_seconds = 30");
+
+        routingDataSource.checkReplica();
+
+        assertThat(routingDataSource.isReplicaAvailable()).isFalse();
+        assertThat(queryDatabaseName(routingDataSource, true)).isEqualTo("primary");
+        assertThat(connections("primary", "true")).isEqualTo(1);
+        assertThat(meterRegistry.get(ReplicaRoutingDataSource.REPLICA_LAG_METER_NAME).gauge().value()).isEqualTo(30);
+        assertThat(meterRegistry.get(ReplicaRoutingDataSource.REPLICA_AVAILABLE_METER_NAME).gauge().value()).isZero();
+
+        new JdbcTemplate(replica).update("update replication_status set lag_seconds = 1");
+        routingDataSource.checkReplica();
+
+        assertThat(routingDataSource.isReplicaAvailable()).isTrue();
+        assertThat(queryDatabaseName(routingDataSource, true)).isEqualTo("replica");
+    }
+
+    @Test
+    void testReadOnlyTransactionsUsePrimaryWhenReplicaIsDown() {
+        DataSource unreachableReplica = new DriverManagerDataSource(REPLICA_URL, "unknown", "unknown");
+        ReplicaRoutingDataSource routingDataSource = new ReplicaRoutingDataSource(
+            primary,
+            unreachableReplica,
+            replicaProperties,
+            meterRegistry
+        );
+        routingDataSource.afterPropertiesSet();
+        routingDataSource.checkReplica();
+
+        assertThat(routingDataSource.isReplicaAvailable()).isFalse();
+        assertThat(queryDatabaseName(routingDataSource, true)).isEqualTo("primary");
+        assertThat(connections("replica", "true")).isZero();
+    }
+
+    @Test
+    void testReplicaPoolDisablesAutoCommit() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getDatasource().getReplica().setUrl(REPLICA_URL);
+        applicationProperties.getDatasource().getReplica().setUsername("sa");
+
+        try (
+            HikariDataSource replicaDataSource = new DatabaseConfiguration.ReplicaRoutingConfiguration()
+                .replicaDataSource(new DataSourceProperties(), applicationProperties)
+        ) {
+            assertThat(replicaDataSource.isAutoCommit()).isFalse();
+            assertThat(replicaDataSource.isReadOnly()).isTrue();
+        }
+    }
+
+    private ReplicaRoutingDataSource createRoutingDataSource() {
+        ReplicaRoutingDataSource routingDataSource = new ReplicaRoutingDataSource(primary, replica, replicaProperties, meterRegistry);
+        routingDataSource.afterPropertiesSet();
+        return routingDataSource;
+    }
+
+    private static String queryDatabaseName(ReplicaRoutingDataSource routingDataSource, boolean readOnly) {
+        // Known defaults, so that the proxy does not fetch a connection to find them out
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy();
+        dataSource.setTargetDataSource(routingDataSource);
+        dataSource.setDefaultAutoCommit(true);
+        dataSource.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        dataSource.afterPropertiesSet();
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        transactionTemplate.setReadOnly(readOnly);
+        return transactionTemplate.execute(
+            status -> new JdbcTemplate(dataSource).queryForObject("select name from database_name", String.class)
+        );
+    }
+
+    private double connections(String pool, String readOnly) {
+        return meterRegistry
+            .get(ReplicaRoutingDataSource.CONNECTIONS_METER_NAME)
+            .tag(ReplicaRoutingDataSource.CONNECTIONS_METER_POOL_DIMENSION, pool)
+            .tag(ReplicaRoutingDataSource.CONNECTIONS_METER_READ_ONLY_DIMENSION, readOnly)
+            .counter()
+            .count();
+    }
+}
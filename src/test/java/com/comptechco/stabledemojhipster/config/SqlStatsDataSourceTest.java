@@ -0,0 +1,175 @@
+package com.comptechco.stabledemojhipster.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.comptechco.stabledemojhipster.management.SqlStatsEndpoint;
+import com.comptechco.stabledemojhipster.management.SqlStatsService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+/**
+ * Tests for {@link SqlStatsDataSource}, with an H2 database.
+ */
+class SqlStatsDataSourceTest {
+
+    private static final String URL = "jdbc:h2:mem:sql-stats;MODE=PostgreSQL;DB_CLOSE_DELAY=-1";
+
+    private MeterRegistry meterRegistry;
+
+    private SqlStatsService sqlStatsService;
+
+    private SqlStatsDataSource dataSource;
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        sqlStatsService = new SqlStatsService(meterRegistry, new ApplicationProperties());
+        dataSource = new SqlStatsDataSource(new DriverManagerDataSource(URL), sqlStatsService);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table coffee (id bigint primary key, name varchar(50))");
+    }
+
+    @AfterEach
+    public void cleanup() {
+        jdbcTemplate.execute("drop all objects");
+    }
+
+    @Test
+    void testStatementsAreTimedByFingerprint() {
+        jdbcTemplate.update("insert into coffee values (?, ?)", 1L, "Espresso");
+        jdbcTemplate.update("insert into coffee values (?, ?)", 2L, "Lungo");
+        jdbcTemplate.queryForList("select name from coffee where id = 1", String.class);
+        jdbcTemplate.queryForList("select name from coffee where id = 2", String.class);
+        jdbcTemplate.queryForList("select name from coffee where id = 3", String.class);
+
+        SqlStatsService.StatementStatistics inserts = statistics("insert into coffee values (?, ...)");
+        assertThat(inserts.getCount()).isEqualTo(2);
+        assertThat(inserts.getErrors()).isZero();
+        SqlStatsService.StatementStatistics selects = statistics("select name from coffee where id = ?");
+        assertThat(selects.getCount()).isEqualTo(3);
+        assertThat(meterRegistry.get("sql.statements").tag("fingerprint", selects.getId()).timer().count()).isEqualTo(3);
+    }
+
+    @Test
+    void testFailedStatementsAreCounted() {
+        assertThatThrownBy(() -> jdbcTemplate.queryForList("select missing from coffee", String.class))
+            .isInstanceOf(BadSqlGrammarException.class);
+
+        SqlStatsService.StatementStatistics selects = statistics("select missing from coffee");
+        assertThat(selects.getCount()).isEqualTo(1);
+        assertThat(selects.getErrors()).isEqualTo(1);
+    }
+
+    @Test
+    void testProxiesAreNotBypassed() throws SQLException {
+        try (
+            Connection connection = dataSource.getConnection();
+            PreparedStatement statement = connection.prepareStatement("select name from coffee");
+            ResultSet resultSet = statement.executeQuery()
+        ) {
+            assertThat(statement.getConnection()).isSameAs(connection);
+            assertThat(resultSet.getStatement()).isSameAs(statement);
+            assertThat(connection.unwrap(Connection.class)).isSameAs(connection);
+            assertThat(statement.unwrap(Statement.class)).isSameAs(statement);
+            assertThat(resultSet.unwrap(ResultSet.class)).isSameAs(resultSet);
+            assertThat(connection.isWrapperFor(Connection.class)).isTrue();
+
+            // Statements created through the unwrapped objects are timed too
+            try (Statement otherStatement = statement.getConnection().createStatement()) {
+                otherStatement.executeQuery("select id from coffee").close();
+            }
+        }
+
+        assertThat(statistics("select name from coffee").getCount()).isEqualTo(1);
+        assertThat(statistics("select id from coffee").getCount()).isEqualTo(1);
+    }
+
+    @Test
+    void testParameterTypesAreResetAfterEachExecution() throws SQLException {
+        List<List<String>> recordedParameterTypes = new ArrayList<>();
+        SqlStatsService recordingService = new SqlStatsService(meterRegistry, new ApplicationProperties()) {
+            @Override
+            public void record(String sql, long durationNanos, boolean failed, List<String> parameterTypes) {
+                recordedParameterTypes.add(new ArrayList<>(parameterTypes));
+                super.record(sql, durationNanos, failed, parameterTypes);
+            }
+        };
+        SqlStatsDataSource recordingDataSource = new SqlStatsDataSource(new DriverManagerDataSource(URL), recordingService);
+
+        try (
+            Connection connection = recordingDataSource.getConnection();
+            PreparedStatement statement = connection.prepareStatement("select name from coffee where id = ? or name = ?")
+        ) {
+            statement.setLong(1, 1L);
+            statement.setString(2, "Espresso");
+            statement.executeQuery().close();
+            // The driver keeps the second parameter, which was not set for this execution
+            statement.setLong(1, 2L);
+            statement.executeQuery().close();
+        }
+
+        assertThat(recordedParameterTypes).containsExactly(List.of("Long", "String"), List.of("Long"));
+    }
+
+    @Test
+    void testPercentileHistogramAndServiceLevelObjectivesArePublished() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getSqlStats().setSlo(List.of(Duration.ofMillis(10)));
+        MeterRegistry histogramRegistry = new SimpleMeterRegistry();
+        SqlStatsService histogramService = new SqlStatsService(histogramRegistry, applicationProperties);
+
+        histogramService.record("select name from coffee", TimeUnit.MILLISECONDS.toNanos(5), false, List.of());
+
+        HistogramSnapshot snapshot = histogramRegistry.get("sql.statements").timer().takeSnapshot();
+        assertThat(snapshot.histogramCounts()).hasSizeGreaterThan(1);
+        assertThat(snapshot.histogramCounts())
+            .anySatisfy(bucket -> {
+                assertThat(bucket.bucket(TimeUnit.MILLISECONDS)).isEqualTo(10.0);
+                assertThat(bucket.count()).isEqualTo(1);
+            });
+        assertThat(snapshot.percentileValues()).extracting(ValueAtPercentile::percentile).containsExactly(0.99);
+    }
+
+    @Test
+    void testEndpointListsTopFingerprints() {
+        for (long id = 1; id <= 3; id++) {
+            jdbcTemplate.update("insert into coffee values (?, ?)", id, "Espresso " + id);
+        }
+        jdbcTemplate.queryForList("select name from coffee", String.class);
+
+        Map<String, List<SqlStatsService.StatementStatistics>> sqlStats = new SqlStatsEndpoint(sqlStatsService).sqlStats(1);
+
+        assertThat(sqlStats.get("byTotalTime")).hasSize(1);
+        assertThat(sqlStats.get("byP99Time")).hasSize(1);
+    }
+
+    private SqlStatsService.StatementStatistics statistics(String fingerprint) {
+        return sqlStatsService
+            .getStatistics()
+            .stream()
+            .filter(statistics -> statistics.getFingerprint().equals(fingerprint))
+            .findFirst()
+            .orElseThrow();
+    }
+}
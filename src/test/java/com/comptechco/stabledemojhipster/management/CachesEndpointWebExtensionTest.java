@@ -0,0 +1,73 @@
+package com.comptechco.stabledemojhipster.management;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.cache.CachesEndpoint;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+class CachesEndpointWebExtensionTest {
+
+    private MeterRegistry meterRegistry;
+
+    private CachesEndpointWebExtension cachesEndpointWebExtension;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        CachesEndpoint cachesEndpoint = new CachesEndpoint(Map.of("cacheManager", new ConcurrentMapCacheManager("coffees")));
+
+        cachesEndpointWebExtension = new CachesEndpointWebExtension(cachesEndpoint, meterRegistry);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testCacheStatisticsAreReported() {
+        registerCounter("cache.gets", "hit", 75);
+        registerCounter("cache.gets", "miss", 25);
+        registerCounter("cache.puts", null, 25);
+        registerCounter("cache.evictions", null, 5);
+
+        Map<String, Object> cacheManagers = (Map<String, Object>) cachesEndpointWebExtension.caches().get("cacheManagers");
+        Map<String, Object> cacheManager = (Map<String, Object>) cacheManagers.get("cacheManager");
+        Map<String, CachesEndpointWebExtension.CacheStatisticsDescriptor> caches = (Map<
+                String,
+                CachesEndpointWebExtension.CacheStatisticsDescriptor
+            >) cacheManager.get("caches");
+        CachesEndpointWebExtension.CacheStatisticsDescriptor coffees = caches.get("coffees");
+
+        assertThat(coffees.getHits()).isEqualTo(75);
+        assertThat(coffees.getMisses()).isEqualTo(25);
+        assertThat(coffees.getEvictions()).isEqualTo(5);
+        assertThat(coffees.getHitRatio()).isEqualTo(0.75);
+        assertThat(coffees.getMissRatio()).isEqualTo(0.25);
+        assertThat(coffees.getEvictionRatio()).isEqualTo(0.2);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testCacheWithoutMetersHasEmptyStatistics() {
+        Map<String, Object> cacheManagers = (Map<String, Object>) cachesEndpointWebExtension.caches().get("cacheManagers");
+        Map<String, Object> cacheManager = (Map<String, Object>) cacheManagers.get("cacheManager");
+        Map<String, CachesEndpointWebExtension.CacheStatisticsDescriptor> caches = (Map<
+                String,
+                CachesEndpointWebExtension.CacheStatisticsDescriptor
+            >) cacheManager.get("caches");
+
+        assertThat(caches.get("coffees").getHitRatio()).isZero();
+        assertThat(caches.get("coffees").getEvictionRatio()).isZero();
+    }
+
+    private void registerCounter(String name, String result, double count) {
+        FunctionCounter.Builder<Object> builder = FunctionCounter.builder(name, new Object(), o -> count).tag("cache", "coffees");
+        if (result != null) {
+            builder.tag("result", result);
+        }
+        builder.register(meterRegistry);
+    }
+}
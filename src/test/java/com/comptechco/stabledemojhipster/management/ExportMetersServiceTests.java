@@ -0,0 +1,40 @@
+package com.comptechco.stabledemojhipster.management;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ExportMetersServiceTests {
+
+    private MeterRegistry meterRegistry;
+
+    private ExportMetersService exportMetersService;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+
+        exportMetersService = new ExportMetersService(meterRegistry);
+    }
+
+    @Test
+    void testExportIsTracked() {
+        exportMetersService.trackExport("customer", 500, TimeUnit.MILLISECONDS.toNanos(250));
+
+        assertThat(meterRegistry.get("export.rows").tag("entity", "customer").counter().count()).isEqualTo(500);
+        assertThat(meterRegistry.get("export.duration").tag("entity", "customer").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("export.throughput").tag("entity", "customer").summary().max()).isEqualTo(2000);
+    }
+
+    @Test
+    void testEmptyExportDoesNotRecordThroughput() {
+        exportMetersService.trackExport("customer", 0, 0);
+
+        assertThat(meterRegistry.get("export.rows").tag("entity", "customer").counter().count()).isZero();
+        assertThat(meterRegistry.find("export.throughput").summary()).isNull();
+    }
+}
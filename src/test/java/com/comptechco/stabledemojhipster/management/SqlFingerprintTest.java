@@ -0,0 +1,37 @@
+package com.comptechco.stabledemojhipster.management;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link SqlFingerprint}.
+ */
+class SqlFingerprintTest {
+
+    @Test
+    void testLiteralsAreReplaced() {
+        assertThat(SqlFingerprint.of("select * from customer where name = 'O''Brien' and id > 1051 and price < 4.5"))
+            .isEqualTo("select * from customer where name = ? and id > ? and price < ?");
+    }
+
+    @Test
+    void testIdentifiersAreKept() {
+        assertThat(SqlFingerprint.of("select coffee0_.id as id1_0_ from \"coffee\" coffee0_ where coffee0_.id=?"))
+            .isEqualTo("select coffee0_.id as id1_0_ from \"coffee\" coffee0_ where coffee0_.id=?");
+    }
+
+    @Test
+    void testPlaceholderListsAreCollapsed() {
+        String fingerprint = SqlFingerprint.of("select * from coffee where id in (? , ? , ?)");
+
+        assertThat(fingerprint).isEqualTo("select * from coffee where id in (?, ...)");
+        assertThat(SqlFingerprint.of("select * from coffee where id in (1, 2, 3, 4, 5)")).isEqualTo(fingerprint);
+    }
+
+    @Test
+    void testCommentsAndWhitespaceAreRemoved() {
+        assertThat(SqlFingerprint.of("/* load Coffee */ select *\n  from coffee -- all of them\n where id = ?"))
+            .isEqualTo("select * from coffee where id = ?");
+    }
+}
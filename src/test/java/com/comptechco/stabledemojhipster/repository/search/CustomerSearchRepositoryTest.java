@@ -0,0 +1,112 @@
+package com.comptechco.stabledemojhipster.repository.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.comptechco.stabledemojhipster.config.ApplicationProperties;
+import com.comptechco.stabledemojhipster.domain.Customer;
+import java.io.IOException;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link CustomerSearchRepository}, with an in-memory index.
+ */
+class CustomerSearchRepositoryTest {
+
+    private CustomerSearchRepository customerSearchRepository;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        customerSearchRepository = new CustomerSearchRepository(new ApplicationProperties());
+        customerSearchRepository.open();
+    }
+
+    @AfterEach
+    public void cleanup() throws IOException {
+        customerSearchRepository.close();
+    }
+
+    private static Customer customer(long id, String name, String phoneNumber) {
+        Customer customer = new Customer().name(name).phoneNumber(phoneNumber);
+        customer.setId(id);
+        return customer;
+    }
+
+    @Test
+    void testSearchByName() {
+        customerSearchRepository.index(customer(1L, "Jonathan Smithers", "(555)123-456789"));
+        customerSearchRepository.index(customer(2L, "Joanna Smith", "555123-987654"));
+        customerSearchRepository.index(customer(3L, "Peter Johnson", "(444)321-000000"));
+        customerSearchRepository.refresh();
+
+        assertThat(customerSearchRepository.search("joanna smith", 10)).containsExactly(2L);
+        assertThat(customerSearchRepository.search("Smith", 10)).containsExactly(2L, 1L);
+        assertThat(customerSearchRepository.search("jon", 10)).containsExactly(1L);
+        assertThat(customerSearchRepository.search("Jonathon", 10)).containsExactly(1L);
+        assertThat(customerSearchRepository.search("Smyth Joana", 10)).containsExactly(2L);
+        assertThat(customerSearchRepository.search("Mary", 10)).isEmpty();
+        assertThat(customerSearchRepository.search("  ", 10)).isEmpty();
+    }
+
+    @Test
+    void testSearchByPhoneNumberFragment() {
+        customerSearchRepository.index(customer(1L, "Jonathan Smithers", "(555)123-456789"));
+        customerSearchRepository.index(customer(2L, "Joanna Smith", "555123-987654"));
+        customerSearchRepository.refresh();
+
+        assertThat(customerSearchRepository.search("555 123", 10)).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(customerSearchRepository.search("3-4567", 10)).containsExactly(1L);
+        assertThat(customerSearchRepository.search("87654", 10)).containsExactly(2L);
+        assertThat(customerSearchRepository.search("000", 10)).isEmpty();
+    }
+
+    @Test
+    void testUpdateAndDelete() {
+        customerSearchRepository.index(customer(1L, "Jonathan Smithers", "(555)123-456789"));
+        customerSearchRepository.refresh();
+
+        customerSearchRepository.index(customer(1L, "Peter Johnson", "(555)123-456789"));
+        customerSearchRepository.refresh();
+        assertThat(customerSearchRepository.search("Smithers", 10)).isEmpty();
+        assertThat(customerSearchRepository.search("Johnson", 10)).containsExactly(1L);
+
+        customerSearchRepository.deleteById(1L);
+        customerSearchRepository.refresh();
+        assertThat(customerSearchRepository.search("Johnson", 10)).isEmpty();
+    }
+
+    @Test
+    void testRebuildRemovesDeletedCustomers() {
+        customerSearchRepository.index(customer(1L, "Jonathan Smithers", "(555)123-456789"));
+        customerSearchRepository.index(customer(2L, "Joanna Smith", "555123-987654"));
+        customerSearchRepository.refresh();
+
+        long count = customerSearchRepository.rebuild(
+            Stream.of(customer(2L, "Joanna Smith", "555123-987654"), customer(3L, "Peter Smith", "(444)321-000000"))
+        );
+
+        assertThat(count).isEqualTo(2);
+        assertThat(customerSearchRepository.search("Smith", 10)).containsExactlyInAnyOrder(2L, 3L);
+    }
+
+    @Test
+    void testRebuildKeepsChangesMadeMeanwhile() {
+        long count = customerSearchRepository.rebuild(
+            Stream
+                .of(customer(1L, "Jonathan Smithers", "(555)123-456789"), customer(2L, "Joanna Smith", "555123-987654"))
+                .peek(customer -> {
+                    if (customer.getId() == 1L) {
+                        // Committed while the rebuild reads the customers
+                        customerSearchRepository.index(customer(2L, "Joanna Peters", "555123-987654"));
+                        customerSearchRepository.deleteById(1L);
+                    }
+                })
+        );
+
+        assertThat(count).isEqualTo(2);
+        assertThat(customerSearchRepository.search("Smith", 10)).isEmpty();
+        assertThat(customerSearchRepository.search("Peters", 10)).containsExactly(2L);
+    }
+}
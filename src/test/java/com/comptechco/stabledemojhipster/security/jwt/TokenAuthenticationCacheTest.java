@@ -0,0 +1,91 @@
+package com.comptechco.stabledemojhipster.security.jwt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Collections;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+class TokenAuthenticationCacheTest {
+
+    private static final long NOW = 1_000_000L;
+
+    private final Clock clock = Clock.fixed(Instant.ofEpochMilli(NOW), ZoneOffset.UTC);
+
+    @Test
+    void testEntryIsNotReturnedAfterTokenExpiration() {
+        TokenAuthenticationCache cache = new TokenAuthenticationCache(10, clock);
+        Authentication authentication = createAuthentication("user");
+
+        cache.put("valid", authentication, NOW + 1);
+        cache.put("expired", authentication, NOW);
+
+        assertThat(cache.get("valid")).isSameAs(authentication);
+        assertThat(cache.get("expired")).isNull();
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    void testSizeIsBounded() {
+        TokenAuthenticationCache cache = new TokenAuthenticationCache(3, clock);
+
+        for (int i = 0; i < 10; i++) {
+            cache.put("token-" + i, createAuthentication("user-" + i), NOW + 60000);
+        }
+
+        assertThat(cache.size()).isLessThanOrEqualTo(3);
+        assertThat(cache.get("token-9")).isNotNull();
+    }
+
+    @Test
+    void testEntryClosestToExpirationIsEvictedWhenFull() {
+        TokenAuthenticationCache cache = new TokenAuthenticationCache(3, clock);
+        cache.put("token-0", createAuthentication("user-0"), NOW + 1000);
+        cache.put("token-1", createAuthentication("user-1"), NOW + 60000);
+        cache.put("token-2", createAuthentication("user-2"), NOW + 30000);
+
+        cache.put("token-3", createAuthentication("user-3"), NOW + 60000);
+        cache.put("token-4", createAuthentication("user-4"), NOW + 60000);
+
+        assertThat(cache.size()).isEqualTo(3);
+        assertThat(cache.get("token-0")).isNull();
+        assertThat(cache.get("token-1")).isNotNull();
+        assertThat(cache.get("token-2")).isNull();
+        assertThat(cache.get("token-3")).isNotNull();
+        assertThat(cache.get("token-4")).isNotNull();
+    }
+
+    @Test
+    void testSizeIsBoundedUnderConcurrentPuts() throws InterruptedException {
+        TokenAuthenticationCache cache = new TokenAuthenticationCache(10, clock);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int i = 0; i < 1000; i++) {
+            String token = "token-" + i;
+            executor.execute(() -> {
+                cache.put(token, createAuthentication(token), NOW + 60000);
+                cache.get(token);
+            });
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(cache.size()).isLessThanOrEqualTo(10);
+    }
+
+    @Test
+    void testHashIsStableAndDistinct() {
+        assertThat(TokenAuthenticationCache.hash("a.b.c")).isEqualTo(TokenAuthenticationCache.hash("a.b.c"));
+        assertThat(TokenAuthenticationCache.hash("a.b.c")).isNotEqualTo(TokenAuthenticationCache.hash("a.b.d"));
+    }
+
+    private Authentication createAuthentication(String name) {
+        return new UsernamePasswordAuthenticationToken(name, "token", Collections.emptyList());
+    }
+}
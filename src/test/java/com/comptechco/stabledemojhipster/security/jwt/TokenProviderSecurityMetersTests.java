@@ -2,6 +2,7 @@ package com.comptechco.stabledemojhipster.security.jwt;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import com.comptechco.stabledemojhipster.config.ApplicationProperties;
 import com.comptechco.stabledemojhipster.management.SecurityMetersService;
 import com.comptechco.stabledemojhipster.security.AuthoritiesConstants;
 import io.jsonwebtoken.Jwts;
@@ -28,6 +29,8 @@ class TokenProviderSecurityMetersTests {
 
     private static final long ONE_MINUTE = 60000;
     private static final String INVALID_TOKENS_METER_EXPECTED_NAME = "security.authentication.invalid-tokens";
+    private static final String TOKEN_CACHE_METER_EXPECTED_NAME = "security.authentication.token-cache";
+    private static final String TOKEN_VERIFICATION_METER_EXPECTED_NAME = "security.authentication.token-verification";
 
     private MeterRegistry meterRegistry;
 
@@ -43,7 +46,7 @@ class TokenProviderSecurityMetersTests {
 
         SecurityMetersService securityMetersService = new SecurityMetersService(meterRegistry);
 
-        tokenProvider = new TokenProvider(jHipsterProperties, securityMetersService);
+        tokenProvider = new TokenProvider(jHipsterProperties, new ApplicationProperties(), securityMetersService);
         Key key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(base64Secret));
 
         ReflectionTestUtils.setField(tokenProvider, "key", key);
@@ -107,6 +110,30 @@ class TokenProviderSecurityMetersTests {
         assertThat(meterRegistry.get(INVALID_TOKENS_METER_EXPECTED_NAME).tag("cause", "malformed").counter().count()).isEqualTo(1);
     }
 
+    @Test
+    void testTokenCacheHitAndMissCount() {
+        String validToken = createValidToken();
+
+        tokenProvider.authenticate(validToken);
+        tokenProvider.authenticate(validToken);
+        tokenProvider.authenticate(validToken);
+
+        assertThat(meterRegistry.get(TOKEN_CACHE_METER_EXPECTED_NAME).tag("result", "miss").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(TOKEN_CACHE_METER_EXPECTED_NAME).tag("result", "hit").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get(TOKEN_VERIFICATION_METER_EXPECTED_NAME).timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void testInvalidTokenIsVerifiedOnEachRequest() {
+        String malformedToken = createMalformedToken();
+
+        tokenProvider.authenticate(malformedToken);
+        tokenProvider.authenticate(malformedToken);
+
+        assertThat(meterRegistry.get(TOKEN_CACHE_METER_EXPECTED_NAME).tag("result", "miss").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get(INVALID_TOKENS_METER_EXPECTED_NAME).tag("cause", "malformed").counter().count()).isEqualTo(2);
+    }
+
     private String createValidToken() {
         Authentication authentication = createAuthentication();
 
@@ -2,6 +2,7 @@ package com.comptechco.stabledemojhipster.security.jwt;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import com.comptechco.stabledemojhipster.config.ApplicationProperties;
 import com.comptechco.stabledemojhipster.management.SecurityMetersService;
 import com.comptechco.stabledemojhipster.security.AuthoritiesConstants;
 import io.jsonwebtoken.Jwts;
@@ -24,6 +25,8 @@ import tech.jhipster.config.JHipsterProperties;
 class TokenProviderTest {
 
     private static final long ONE_MINUTE = 60000;
+    private static final String BASE64_SECRET =
+        "fd54a45s65fds737b9aafcb3412e07ed99b267f33413274720ddbb7f6c5e64e9f14075f2d7ed041592f0b7657baf8";
 
     private Key key;
     private TokenProvider tokenProvider;
@@ -36,7 +39,7 @@ class TokenProviderTest {
 
         SecurityMetersService securityMetersService = new SecurityMetersService(new SimpleMeterRegistry());
 
-        tokenProvider = new TokenProvider(jHipsterProperties, securityMetersService);
+        tokenProvider = new TokenProvider(jHipsterProperties, new ApplicationProperties(), securityMetersService);
         key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(base64Secret));
 
         ReflectionTestUtils.setField(tokenProvider, "key", key);
@@ -88,6 +91,49 @@ class TokenProviderTest {
         assertThat(isTokenValid).isFalse();
     }
 
+    @Test
+    void testAuthenticateReturnsCachedAuthenticationForSameToken() {
+        String token = tokenProvider.createToken(createAuthentication(), false);
+
+        Authentication authentication = tokenProvider.authenticate(token);
+
+        assertThat(authentication).isNotNull();
+        assertThat(authentication.getName()).isEqualTo("anonymous");
+        assertThat(authentication.getAuthorities())
+            .extracting(GrantedAuthority::getAuthority)
+            .containsExactly(AuthoritiesConstants.ANONYMOUS);
+        assertThat(tokenProvider.authenticate(token)).isSameAs(authentication);
+    }
+
+    @Test
+    void testAuthenticateReturnsNullWhenJWTisExpired() {
+        ReflectionTestUtils.setField(tokenProvider, "tokenValidityInMilliseconds", -ONE_MINUTE);
+
+        String token = tokenProvider.createToken(createAuthentication(), false);
+
+        assertThat(tokenProvider.authenticate(token)).isNull();
+        assertThat(tokenProvider.authenticate(token)).isNull();
+    }
+
+    @Test
+    void testAuthenticateParsesEveryTimeWhenCacheIsDisabled() {
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getSecurity().getAuthentication().getJwt().setBase64Secret(BASE64_SECRET);
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getSecurity().setTokenCacheMaxEntries(0);
+        TokenProvider tokenProvider = new TokenProvider(
+            jHipsterProperties,
+            applicationProperties,
+            new SecurityMetersService(new SimpleMeterRegistry())
+        );
+
+        String token = tokenProvider.createToken(createAuthentication(), false);
+
+        Authentication authentication = tokenProvider.authenticate(token);
+        assertThat(authentication).isNotNull();
+        assertThat(tokenProvider.authenticate(token)).isNotSameAs(authentication).isEqualTo(authentication);
+    }
+
     @Test
     void testKeyIsSetFromSecretWhenSecretIsNotEmpty() {
         final String secret = "NwskoUmKHZtzGRKJKVjsJF7BtQMMxNWi";
@@ -96,7 +142,7 @@ class TokenProviderTest {
 
         SecurityMetersService securityMetersService = new SecurityMetersService(new SimpleMeterRegistry());
 
-        TokenProvider tokenProvider = new TokenProvider(jHipsterProperties, securityMetersService);
+        TokenProvider tokenProvider = new TokenProvider(jHipsterProperties, new ApplicationProperties(), securityMetersService);
 
         Key key = (Key) ReflectionTestUtils.getField(tokenProvider, "key");
         assertThat(key).isNotNull().isEqualTo(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)));
@@ -110,7 +156,7 @@ class TokenProviderTest {
 
         SecurityMetersService securityMetersService = new SecurityMetersService(new SimpleMeterRegistry());
 
-        TokenProvider tokenProvider = new TokenProvider(jHipsterProperties, securityMetersService);
+        TokenProvider tokenProvider = new TokenProvider(jHipsterProperties, new ApplicationProperties(), securityMetersService);
 
         Key key = (Key) ReflectionTestUtils.getField(tokenProvider, "key");
         assertThat(key).isNotNull().isEqualTo(Keys.hmacShaKeyFor(Decoders.BASE64.decode(base64Secret)));
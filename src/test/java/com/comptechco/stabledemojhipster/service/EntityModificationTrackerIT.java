@@ -0,0 +1,86 @@
+package com.comptechco.stabledemojhipster.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.comptechco.stabledemojhipster.IntegrationTest;
+import com.comptechco.stabledemojhipster.domain.Coffee;
+import com.comptechco.stabledemojhipster.domain.Customer;
+import com.comptechco.stabledemojhipster.domain.User;
+import com.comptechco.stabledemojhipster.repository.CoffeeRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for {@link EntityModificationTracker}.
+ */
+@IntegrationTest
+class EntityModificationTrackerIT {
+
+    @Autowired
+    private EntityModificationTracker entityModificationTracker;
+
+    @Autowired
+    private CoffeeRepository coffeeRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void assertThatEachCommittedModificationChangesTheTag() {
+        // Not transactional: the counter is incremented when the modifications are committed
+        String initialTag = entityModificationTracker.getModificationTag(Coffee.class);
+
+        Coffee coffee = coffeeRepository.saveAndFlush(new Coffee().name("Tracked coffee").price(5D));
+        String insertedTag = entityModificationTracker.getModificationTag(Coffee.class);
+        assertThat(insertedTag).isNotEqualTo(initialTag);
+
+        coffeeRepository.saveAndFlush(coffee.price(6D));
+        String updatedTag = entityModificationTracker.getModificationTag(Coffee.class);
+        assertThat(updatedTag).isNotEqualTo(insertedTag);
+
+        // Back to the initial rows, which an aggregate of the rows would not tell apart
+        coffeeRepository.deleteById(coffee.getId());
+        assertThat(entityModificationTracker.getModificationTag(Coffee.class)).isNotIn(initialTag, insertedTag, updatedTag);
+    }
+
+    @Test
+    void assertThatTheTagIsIncrementedOncePerTransaction() {
+        String initialTag = entityModificationTracker.getModificationTag(Coffee.class);
+        String customerTag = entityModificationTracker.getModificationTag(Customer.class);
+
+        Coffee otherCoffee = new TransactionTemplate(transactionManager)
+            .execute(status -> {
+                Coffee coffee = coffeeRepository.saveAndFlush(new Coffee().name("Tracked coffee").price(5D));
+                coffeeRepository.delete(coffee);
+                return coffeeRepository.saveAndFlush(new Coffee().name("Other tracked coffee").price(5D));
+            });
+        try {
+            long increments = Long.parseLong(entityModificationTracker.getModificationTag(Coffee.class)) - Long.parseLong(initialTag);
+            assertThat(increments).isEqualTo(1);
+            assertThat(entityModificationTracker.getModificationTag(Customer.class)).isEqualTo(customerTag);
+        } finally {
+            coffeeRepository.deleteById(otherCoffee.getId());
+        }
+    }
+
+    @Test
+    void assertThatARolledBackModificationKeepsTheTag() {
+        String initialTag = entityModificationTracker.getModificationTag(Coffee.class);
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.executeWithoutResult(status -> {
+            coffeeRepository.saveAndFlush(new Coffee().name("Rolled back coffee").price(5D));
+            status.setRollbackOnly();
+        });
+
+        assertThat(entityModificationTracker.getModificationTag(Coffee.class)).isEqualTo(initialTag);
+    }
+
+    @Test
+    void assertThatUnversionedEntitiesHaveNoTag() {
+        assertThatThrownBy(() -> entityModificationTracker.getModificationTag(User.class)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,211 @@
+package com.comptechco.stabledemojhipster.service;
+
+import static org.assertj.core.api.Assertions.*;
+
+import com.comptechco.stabledemojhipster.IntegrationTest;
+import com.comptechco.stabledemojhipster.config.ApplicationProperties;
+import com.comptechco.stabledemojhipster.domain.MailOutboxMessage;
+import com.comptechco.stabledemojhipster.domain.enumeration.MailOutboxStatus;
+import com.comptechco.stabledemojhipster.management.MailMetersService;
+import com.comptechco.stabledemojhipster.repository.MailOutboxMessageRepository;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import javax.mail.Multipart;
+import javax.mail.internet.MimeBodyPart;
+import javax.mail.internet.MimeMessage;
+import javax.mail.internet.MimeMultipart;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.transaction.PlatformTransactionManager;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Integration tests for {@link MailOutboxDispatcher}, sending to a GreenMail SMTP server.
+ */
+@IntegrationTest
+class MailOutboxDispatcherIT {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Autowired
+    private MailService mailService;
+
+    @Autowired
+    private MailOutboxMessageRepository mailOutboxMessageRepository;
+
+    @Autowired
+    private JHipsterProperties jHipsterProperties;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private ApplicationProperties applicationProperties;
+
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    public void setup() {
+        mailOutboxMessageRepository.deleteAll();
+        applicationProperties = new ApplicationProperties();
+        applicationProperties.getMail().setMaxMessagesPerSecond(0);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    public void cleanup() {
+        mailOutboxMessageRepository.deleteAll();
+    }
+
+    @Test
+    void testDispatchSendsQueuedEmails() throws Exception {
+        mailService.sendEmail("john.doe@example.com", "plainSubject", "testContent", false, false);
+        mailService.sendEmail("john.doe@example.com", "htmlSubject", "testContent", false, true);
+        mailService.sendEmail("john.doe@example.com", "multipartSubject", "testContent", true, false);
+
+        int sent = createDispatcher(greenMail.getSmtp().getPort()).dispatch();
+
+        assertThat(sent).isEqualTo(3);
+        MimeMessage[] receivedMessages = greenMail.getReceivedMessages();
+        assertThat(receivedMessages).hasSize(3);
+        for (MimeMessage message : receivedMessages) {
+            assertThat(message.getAllRecipients()[0]).hasToString("john.doe@example.com");
+            assertThat(message.getFrom()[0]).hasToString(jHipsterProperties.getMail().getFrom());
+        }
+        assertThat(getReceivedMessage("plainSubject").getContentType()).startsWith("text/plain; charset=UTF-8");
+        assertThat(getReceivedMessage("plainSubject").getContent()).hasToString("testContent");
+        assertThat(getReceivedMessage("htmlSubject").getContentType()).startsWith("text/html;charset=UTF-8");
+        MimeMessage multipartMessage = getReceivedMessage("multipartSubject");
+        assertThat(multipartMessage.getContent()).isInstanceOf(Multipart.class);
+        MimeMultipart mp = (MimeMultipart) multipartMessage.getContent();
+        MimeBodyPart part = (MimeBodyPart) ((MimeMultipart) mp.getBodyPart(0).getContent()).getBodyPart(0);
+        ByteArrayOutputStream aos = new ByteArrayOutputStream();
+        part.writeTo(aos);
+        assertThat(aos.toString()).endsWith("testContent");
+
+        assertThat(mailOutboxMessageRepository.findAll())
+            .allSatisfy(message -> {
+                assertThat(message.getStatus()).isEqualTo(MailOutboxStatus.SENT);
+                assertThat(message.getAttempts()).isEqualTo(1);
+                assertThat(message.getSentDate()).isNotNull();
+            });
+        assertThat(meterRegistry.get(MailMetersService.OUTBOX_MESSAGES_METER_NAME).tag("result", "sent").counter().count()).isEqualTo(3);
+        assertThat(meterRegistry.get(MailMetersService.SEND_LATENCY_METER_NAME).timer().count()).isEqualTo(3);
+        assertThat(meterRegistry.get(MailMetersService.BATCH_DURATION_METER_NAME).timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(MailMetersService.OUTBOX_PENDING_METER_NAME).gauge().value()).isZero();
+    }
+
+    @Test
+    void testDispatchSendsInBatches() {
+        applicationProperties.getMail().setBatchSize(2);
+        for (int i = 0; i < 5; i++) {
+            mailService.sendEmail("john.doe@example.com", "testSubject " + i, "testContent", false, false);
+        }
+
+        int sent = createDispatcher(greenMail.getSmtp().getPort()).dispatch();
+
+        assertThat(sent).isEqualTo(5);
+        assertThat(greenMail.getReceivedMessages()).hasSize(5);
+        assertThat(meterRegistry.get(MailMetersService.BATCH_DURATION_METER_NAME).timer().count()).isEqualTo(3);
+    }
+
+    @Test
+    void testDispatchDoesNotSendEmailsTwice() {
+        mailService.sendEmail("john.doe@example.com", "testSubject", "testContent", false, false);
+        MailOutboxDispatcher dispatcher = createDispatcher(greenMail.getSmtp().getPort());
+
+        assertThat(dispatcher.dispatch()).isEqualTo(1);
+        assertThat(dispatcher.dispatch()).isZero();
+        assertThat(greenMail.getReceivedMessages()).hasSize(1);
+    }
+
+    @Test
+    void testDispatchRetriesWithBackoffWhenServerIsUnavailable() throws IOException {
+        mailService.sendEmail("john.doe@example.com", "testSubject", "testContent", false, false);
+        MailOutboxDispatcher dispatcher = createDispatcher(findClosedPort());
+        Instant before = Instant.now();
+
+        assertThat(dispatcher.dispatch()).isZero();
+
+        MailOutboxMessage message = mailOutboxMessageRepository.findAll().get(0);
+        assertThat(message.getStatus()).isEqualTo(MailOutboxStatus.PENDING);
+        assertThat(message.getAttempts()).isEqualTo(1);
+        assertThat(message.getLastError()).isNotBlank();
+        assertThat(message.getNextAttemptAt()).isAfterOrEqualTo(before.plus(applicationProperties.getMail().getInitialBackoff()));
+        assertThat(meterRegistry.get(MailMetersService.OUTBOX_MESSAGES_METER_NAME).tag("result", "retried").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(MailMetersService.OUTBOX_PENDING_METER_NAME).gauge().value()).isEqualTo(1);
+
+        // Not due before the end of the backoff
+        assertThat(dispatcher.dispatch()).isZero();
+        assertThat(mailOutboxMessageRepository.findAll().get(0).getAttempts()).isEqualTo(1);
+    }
+
+    @Test
+    void testDispatchGivesUpAfterMaxAttempts() throws IOException {
+        applicationProperties.getMail().setMaxAttempts(1);
+        mailService.sendEmail("john.doe@example.com", "testSubject", "testContent", false, false);
+
+        assertThat(createDispatcher(findClosedPort()).dispatch()).isZero();
+
+        MailOutboxMessage message = mailOutboxMessageRepository.findAll().get(0);
+        assertThat(message.getStatus()).isEqualTo(MailOutboxStatus.FAILED);
+        assertThat(message.getAttempts()).isEqualTo(1);
+        assertThat(meterRegistry.get(MailMetersService.OUTBOX_MESSAGES_METER_NAME).tag("result", "failed").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(MailMetersService.OUTBOX_PENDING_METER_NAME).gauge().value()).isZero();
+    }
+
+    @Test
+    void testBackoffIsExponentialAndCapped() {
+        applicationProperties.getMail().setInitialBackoff(Duration.ofSeconds(30));
+        applicationProperties.getMail().setMaxBackoff(Duration.ofHours(1));
+        MailOutboxDispatcher dispatcher = createDispatcher(greenMail.getSmtp().getPort());
+
+        assertThat(dispatcher.backoff(1)).isEqualTo(Duration.ofSeconds(30));
+        assertThat(dispatcher.backoff(2)).isEqualTo(Duration.ofSeconds(60));
+        assertThat(dispatcher.backoff(3)).isEqualTo(Duration.ofSeconds(120));
+        assertThat(dispatcher.backoff(8)).isEqualTo(Duration.ofHours(1));
+        assertThat(dispatcher.backoff(100)).isEqualTo(Duration.ofHours(1));
+    }
+
+    private MailOutboxDispatcher createDispatcher(int smtpPort) {
+        JavaMailSenderImpl javaMailSender = new JavaMailSenderImpl();
+        javaMailSender.setHost("localhost");
+        javaMailSender.setPort(smtpPort);
+        return new MailOutboxDispatcher(
+            mailOutboxMessageRepository,
+            javaMailSender,
+            jHipsterProperties,
+            applicationProperties,
+            transactionManager,
+            new MailMetersService(meterRegistry)
+        );
+    }
+
+    private MimeMessage getReceivedMessage(String subject) throws Exception {
+        List<MimeMessage> messages = List.of(greenMail.getReceivedMessages());
+        for (MimeMessage message : messages) {
+            if (subject.equals(message.getSubject())) {
+                return message;
+            }
+        }
+        return fail("No message with subject " + subject);
+    }
+
+    private static int findClosedPort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -1,43 +1,34 @@
 package com.comptechco.stabledemojhipster.service;
 
 import static org.assertj.core.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.*;
 
 import com.comptechco.stabledemojhipster.IntegrationTest;
 import com.comptechco.stabledemojhipster.config.Constants;
+import com.comptechco.stabledemojhipster.domain.MailOutboxMessage;
 import com.comptechco.stabledemojhipster.domain.User;
-import java.io.ByteArrayOutputStream;
+import com.comptechco.stabledemojhipster.domain.enumeration.MailOutboxStatus;
+import com.comptechco.stabledemojhipster.repository.MailOutboxMessageRepository;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.InputStreamReader;
 import java.net.URI;
 import java.net.URL;
 import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Properties;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
-import javax.mail.Multipart;
-import javax.mail.internet.MimeBodyPart;
-import javax.mail.internet.MimeMessage;
-import javax.mail.internet.MimeMultipart;
-import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.ArgumentCaptor;
-import org.mockito.Captor;
-import org.mockito.MockitoAnnotations;
-import org.mockito.Spy;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.context.MessageSource;
-import org.springframework.mail.MailSendException;
-import org.springframework.mail.javamail.JavaMailSenderImpl;
-import org.thymeleaf.spring5.SpringTemplateEngine;
-import tech.jhipster.config.JHipsterProperties;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Integration tests for {@link MailService}.
  */
 @IntegrationTest
+@Transactional
 class MailServiceIT {
 
     private static final String[] languages = {
@@ -48,157 +39,141 @@ class MailServiceIT {
     private static final Pattern PATTERN_LOCALE_2 = Pattern.compile("([a-z]{2})-([a-z]{2})");
 
     @Autowired
-    private JHipsterProperties jHipsterProperties;
-
-    @Autowired
-    private MessageSource messageSource;
-
-    @Autowired
-    private SpringTemplateEngine templateEngine;
-
-    @Spy
-    private JavaMailSenderImpl javaMailSender;
-
-    @Captor
-    private ArgumentCaptor<MimeMessage> messageCaptor;
-
     private MailService mailService;
 
-    @BeforeEach
-    public void setup() {
-        MockitoAnnotations.openMocks(this);
-        doNothing().when(javaMailSender).send(any(MimeMessage.class));
-        mailService = new MailService(jHipsterProperties, javaMailSender, messageSource, templateEngine);
-    }
+    @Autowired
+    private MailOutboxMessageRepository mailOutboxMessageRepository;
 
     @Test
-    void testSendEmail() throws Exception {
+    void testSendEmail() {
         mailService.sendEmail("john.doe@example.com", "testSubject", "testContent", false, false);
-        verify(javaMailSender).send(messageCaptor.capture());
-        MimeMessage message = messageCaptor.getValue();
+        MailOutboxMessage message = getQueuedMessage();
         assertThat(message.getSubject()).isEqualTo("testSubject");
-        assertThat(message.getAllRecipients()[0]).hasToString("john.doe@example.com");
-        assertThat(message.getFrom()[0]).hasToString(jHipsterProperties.getMail().getFrom());
-        assertThat(message.getContent()).isInstanceOf(String.class);
-        assertThat(message.getContent()).hasToString("testContent");
-        assertThat(message.getDataHandler().getContentType()).isEqualTo("text/plain; charset=UTF-8");
+        assertThat(message.getRecipient()).isEqualTo("john.doe@example.com");
+        assertThat(message.getContent()).isEqualTo("testContent");
+        assertThat(message.isMultipart()).isFalse();
+        assertThat(message.isHtml()).isFalse();
+        assertThat(message.getStatus()).isEqualTo(MailOutboxStatus.PENDING);
+        assertThat(message.getAttempts()).isZero();
+        assertThat(message.getNextAttemptAt()).isEqualTo(message.getCreatedDate());
+        assertThat(message.getSentDate()).isNull();
     }
 
     @Test
-    void testSendHtmlEmail() throws Exception {
+    void testSendHtmlEmail() {
         mailService.sendEmail("john.doe@example.com", "testSubject", "testContent", false, true);
-        verify(javaMailSender).send(messageCaptor.capture());
-        MimeMessage message = messageCaptor.getValue();
-        assertThat(message.getSubject()).isEqualTo("testSubject");
-        assertThat(message.getAllRecipients()[0]).hasToString("john.doe@example.com");
-        assertThat(message.getFrom()[0]).hasToString(jHipsterProperties.getMail().getFrom());
-        assertThat(message.getContent()).isInstanceOf(String.class);
-        assertThat(message.getContent()).hasToString("testContent");
-        assertThat(message.getDataHandler().getContentType()).isEqualTo("text/html;charset=UTF-8");
+        MailOutboxMessage message = getQueuedMessage();
+        assertThat(message.isMultipart()).isFalse();
+        assertThat(message.isHtml()).isTrue();
     }
 
     @Test
-    void testSendMultipartEmail() throws Exception {
+    void testSendMultipartEmail() {
         mailService.sendEmail("john.doe@example.com", "testSubject", "testContent", true, false);
-        verify(javaMailSender).send(messageCaptor.capture());
-        MimeMessage message = messageCaptor.getValue();
-        MimeMultipart mp = (MimeMultipart) message.getContent();
-        MimeBodyPart part = (MimeBodyPart) ((MimeMultipart) mp.getBodyPart(0).getContent()).getBodyPart(0);
-        ByteArrayOutputStream aos = new ByteArrayOutputStream();
-        part.writeTo(aos);
-        assertThat(message.getSubject()).isEqualTo("testSubject");
-        assertThat(message.getAllRecipients()[0]).hasToString("john.doe@example.com");
-        assertThat(message.getFrom()[0]).hasToString(jHipsterProperties.getMail().getFrom());
-        assertThat(message.getContent()).isInstanceOf(Multipart.class);
-        assertThat(aos).hasToString("\r\ntestContent");
-        assertThat(part.getDataHandler().getContentType()).isEqualTo("text/plain; charset=UTF-8");
+        MailOutboxMessage message = getQueuedMessage();
+        assertThat(message.isMultipart()).isTrue();
+        assertThat(message.isHtml()).isFalse();
     }
 
     @Test
-    void testSendMultipartHtmlEmail() throws Exception {
+    void testSendMultipartHtmlEmail() {
         mailService.sendEmail("john.doe@example.com", "testSubject", "testContent", true, true);
-        verify(javaMailSender).send(messageCaptor.capture());
-        MimeMessage message = messageCaptor.getValue();
-        MimeMultipart mp = (MimeMultipart) message.getContent();
-        MimeBodyPart part = (MimeBodyPart) ((MimeMultipart) mp.getBodyPart(0).getContent()).getBodyPart(0);
-        ByteArrayOutputStream aos = new ByteArrayOutputStream();
-        part.writeTo(aos);
-        assertThat(message.getSubject()).isEqualTo("testSubject");
-        assertThat(message.getAllRecipients()[0]).hasToString("john.doe@example.com");
-        assertThat(message.getFrom()[0]).hasToString(jHipsterProperties.getMail().getFrom());
-        assertThat(message.getContent()).isInstanceOf(Multipart.class);
-        assertThat(aos).hasToString("\r\ntestContent");
-        assertThat(part.getDataHandler().getContentType()).isEqualTo("text/html;charset=UTF-8");
+        MailOutboxMessage message = getQueuedMessage();
+        assertThat(message.isMultipart()).isTrue();
+        assertThat(message.isHtml()).isTrue();
     }
 
     @Test
-    void testSendEmailFromTemplate() throws Exception {
+    void testSendEmailFromTemplate() {
         User user = new User();
         user.setLogin("john");
         user.setEmail("john.doe@example.com");
         user.setLangKey("en");
         mailService.sendEmailFromTemplate(user, "mail/testEmail", "email.test.title");
-        verify(javaMailSender).send(messageCaptor.capture());
-        MimeMessage message = messageCaptor.getValue();
+        MailOutboxMessage message = getQueuedMessage();
         assertThat(message.getSubject()).isEqualTo("test title");
-        assertThat(message.getAllRecipients()[0]).hasToString(user.getEmail());
-        assertThat(message.getFrom()[0]).hasToString(jHipsterProperties.getMail().getFrom());
-        assertThat(message.getContent().toString()).isEqualToNormalizingNewlines("<html>test title, http://127.0.0.1:8080, john</html>\n");
-        assertThat(message.getDataHandler().getContentType()).isEqualTo("text/html;charset=UTF-8");
+        assertThat(message.getRecipient()).isEqualTo(user.getEmail());
+        assertThat(message.getContent()).isEqualToNormalizingNewlines("<html>test title, http://127.0.0.1:8080, john</html>\n");
+        assertThat(message.isHtml()).isTrue();
     }
 
     @Test
-    void testSendActivationEmail() throws Exception {
+    void testSendEmailFromTemplateWithoutEmail() {
+        User user = new User();
+        user.setLogin("john");
+        user.setLangKey("en");
+        mailService.sendEmailFromTemplate(user, "mail/testEmail", "email.test.title");
+        assertThat(mailOutboxMessageRepository.findAll()).isEmpty();
+    }
+
+    @Test
+    void testSendActivationEmail() {
         User user = new User();
         user.setLangKey(Constants.DEFAULT_LANGUAGE);
         user.setLogin("john");
         user.setEmail("john.doe@example.com");
         mailService.sendActivationEmail(user);
-        verify(javaMailSender).send(messageCaptor.capture());
-        MimeMessage message = messageCaptor.getValue();
-        assertThat(message.getAllRecipients()[0]).hasToString(user.getEmail());
-        assertThat(message.getFrom()[0]).hasToString(jHipsterProperties.getMail().getFrom());
-        assertThat(message.getContent().toString()).isNotEmpty();
-        assertThat(message.getDataHandler().getContentType()).isEqualTo("text/html;charset=UTF-8");
+        MailOutboxMessage message = getQueuedMessage();
+        assertThat(message.getRecipient()).isEqualTo(user.getEmail());
+        assertThat(message.getContent()).isNotEmpty();
+        assertThat(message.isHtml()).isTrue();
     }
 
     @Test
-    void testCreationEmail() throws Exception {
+    void testCreationEmail() {
         User user = new User();
         user.setLangKey(Constants.DEFAULT_LANGUAGE);
         user.setLogin("john");
         user.setEmail("john.doe@example.com");
         mailService.sendCreationEmail(user);
-        verify(javaMailSender).send(messageCaptor.capture());
-        MimeMessage message = messageCaptor.getValue();
-        assertThat(message.getAllRecipients()[0]).hasToString(user.getEmail());
-        assertThat(message.getFrom()[0]).hasToString(jHipsterProperties.getMail().getFrom());
-        assertThat(message.getContent().toString()).isNotEmpty();
-        assertThat(message.getDataHandler().getContentType()).isEqualTo("text/html;charset=UTF-8");
+        MailOutboxMessage message = getQueuedMessage();
+        assertThat(message.getRecipient()).isEqualTo(user.getEmail());
+        assertThat(message.getContent()).isNotEmpty();
+        assertThat(message.isHtml()).isTrue();
     }
 
     @Test
-    void testSendPasswordResetMail() throws Exception {
+    void testSendPasswordResetMail() {
         User user = new User();
         user.setLangKey(Constants.DEFAULT_LANGUAGE);
         user.setLogin("john");
         user.setEmail("john.doe@example.com");
         mailService.sendPasswordResetMail(user);
-        verify(javaMailSender).send(messageCaptor.capture());
-        MimeMessage message = messageCaptor.getValue();
-        assertThat(message.getAllRecipients()[0]).hasToString(user.getEmail());
-        assertThat(message.getFrom()[0]).hasToString(jHipsterProperties.getMail().getFrom());
-        assertThat(message.getContent().toString()).isNotEmpty();
-        assertThat(message.getDataHandler().getContentType()).isEqualTo("text/html;charset=UTF-8");
+        MailOutboxMessage message = getQueuedMessage();
+        assertThat(message.getRecipient()).isEqualTo(user.getEmail());
+        assertThat(message.getContent()).isNotEmpty();
+        assertThat(message.isHtml()).isTrue();
     }
 
     @Test
-    void testSendEmailWithException() {
-        doThrow(MailSendException.class).when(javaMailSender).send(any(MimeMessage.class));
-        try {
-            mailService.sendEmail("john.doe@example.com", "testSubject", "testContent", false, false);
-        } catch (Exception e) {
-            fail("Exception shouldn't have been thrown");
+    void testSendEmailsFromTemplate() {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            User user = new User();
+            user.setLogin("john" + i);
+            user.setEmail("john.doe" + i + "@example.com");
+            user.setLangKey("en");
+            users.add(user);
+        }
+        User userWithoutEmail = new User();
+        userWithoutEmail.setLogin("jane");
+        userWithoutEmail.setLangKey("en");
+        users.add(userWithoutEmail);
+
+        int queued = mailService.sendEmailsFromTemplate(users, "mail/testEmail", "email.test.title");
+
+        assertThat(queued).isEqualTo(50);
+        List<MailOutboxMessage> messages = mailOutboxMessageRepository.findAll();
+        messages.sort(Comparator.comparing(MailOutboxMessage::getId));
+        assertThat(messages).hasSize(50);
+        for (int i = 0; i < 50; i++) {
+            MailOutboxMessage message = messages.get(i);
+            assertThat(message.getRecipient()).isEqualTo("john.doe" + i + "@example.com");
+            assertThat(message.getSubject()).isEqualTo("test title");
+            assertThat(message.getContent())
+                .isEqualToNormalizingNewlines("<html>test title, http://127.0.0.1:8080, john" + i + "</html>\n");
+            assertThat(message.isHtml()).isTrue();
+            assertThat(message.getStatus()).isEqualTo(MailOutboxStatus.PENDING);
         }
     }
 
@@ -208,10 +183,10 @@ class MailServiceIT {
         user.setLogin("john");
         user.setEmail("john.doe@example.com");
         for (String langKey : languages) {
+            mailOutboxMessageRepository.deleteAll();
             user.setLangKey(langKey);
             mailService.sendEmailFromTemplate(user, "mail/testEmail", "email.test.title");
-            verify(javaMailSender, atLeastOnce()).send(messageCaptor.capture());
-            MimeMessage message = messageCaptor.getValue();
+            MailOutboxMessage message = getQueuedMessage();
 
             String propertyFilePath = "i18n/messages_" + getJavaLocale(langKey) + ".properties";
             URL resource = this.getClass().getClassLoader().getResource(propertyFilePath);
@@ -221,11 +196,16 @@ class MailServiceIT {
 
             String emailTitle = (String) properties.get("email.test.title");
             assertThat(message.getSubject()).isEqualTo(emailTitle);
-            assertThat(message.getContent().toString())
-                .isEqualToNormalizingNewlines("<html>" + emailTitle + ", http://127.0.0.1:8080, john</html>\n");
+            assertThat(message.getContent()).isEqualToNormalizingNewlines("<html>" + emailTitle + ", http://127.0.0.1:8080, john</html>\n");
         }
     }
 
+    private MailOutboxMessage getQueuedMessage() {
+        List<MailOutboxMessage> messages = mailOutboxMessageRepository.findAll();
+        assertThat(messages).hasSize(1);
+        return messages.get(0);
+    }
+
     /**
      * Convert a lang key to the Java locale.
      */
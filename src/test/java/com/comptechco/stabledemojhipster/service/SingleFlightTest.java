@@ -0,0 +1,164 @@
+package com.comptechco.stabledemojhipster.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.comptechco.stabledemojhipster.management.SingleFlightMetersService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link SingleFlight}.
+ */
+class SingleFlightTest {
+
+    private static final int READERS = 8;
+
+    private MeterRegistry meterRegistry;
+
+    private SingleFlight<Long, String> singleFlight;
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        singleFlight = new SingleFlight<>("coffee", new SingleFlightMetersService(meterRegistry));
+        executor = Executors.newFixedThreadPool(READERS);
+    }
+
+    @AfterEach
+    public void cleanup() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testConcurrentReadsOfSameKeyShareOneLoad() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loadStarted = new CountDownLatch(1);
+        CountDownLatch releaseLoad = new CountDownLatch(1);
+
+        Future<String> leader = executor.submit(() ->
+            singleFlight.load(
+                1L,
+                () -> {
+                    loads.incrementAndGet();
+                    loadStarted.countDown();
+                    await(releaseLoad);
+                    return "Espresso";
+                }
+            )
+        );
+        assertThat(loadStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        List<Future<String>> followers = new ArrayList<>();
+        for (int i = 1; i < READERS; i++) {
+            followers.add(
+                executor.submit(() ->
+                    singleFlight.load(
+                        1L,
+                        () -> {
+                            loads.incrementAndGet();
+                            return "Espresso";
+                        }
+                    )
+                )
+            );
+        }
+        while (coalesced() < READERS - 1) {
+            Thread.onSpinWait();
+        }
+        releaseLoad.countDown();
+
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("Espresso");
+        for (Future<String> follower : followers) {
+            assertThat(follower.get(5, TimeUnit.SECONDS)).isEqualTo("Espresso");
+        }
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(loaded()).isEqualTo(1);
+
+        // The load is not kept once completed
+        assertThat(singleFlight.load(1L, () -> "Ristretto")).isEqualTo("Ristretto");
+        assertThat(loaded()).isEqualTo(2);
+    }
+
+    @Test
+    void testReadsOfOtherKeysDoNotWait() throws Exception {
+        CountDownLatch loadStarted = new CountDownLatch(1);
+        CountDownLatch releaseLoad = new CountDownLatch(1);
+        Future<String> slowRead = executor.submit(() ->
+            singleFlight.load(
+                1L,
+                () -> {
+                    loadStarted.countDown();
+                    await(releaseLoad);
+                    return "Espresso";
+                }
+            )
+        );
+        assertThat(loadStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(singleFlight.load(2L, () -> "Lungo")).isEqualTo("Lungo");
+        assertThat(coalesced()).isZero();
+
+        releaseLoad.countDown();
+        assertThat(slowRead.get(5, TimeUnit.SECONDS)).isEqualTo("Espresso");
+    }
+
+    @Test
+    void testReadersFailLikeTheLoad() throws Exception {
+        CountDownLatch loadStarted = new CountDownLatch(1);
+        CountDownLatch releaseLoad = new CountDownLatch(1);
+        Future<String> leader = executor.submit(() ->
+            singleFlight.load(
+                1L,
+                () -> {
+                    loadStarted.countDown();
+                    await(releaseLoad);
+                    throw new IllegalStateException("database is down");
+                }
+            )
+        );
+        assertThat(loadStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        Future<String> follower = executor.submit(() -> singleFlight.load(1L, () -> "Espresso"));
+        while (coalesced() < 1) {
+            Thread.onSpinWait();
+        }
+        releaseLoad.countDown();
+
+        assertThatThrownBy(() -> leader.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> follower.get(5, TimeUnit.SECONDS))
+            .hasCauseInstanceOf(IllegalStateException.class)
+            .hasRootCauseMessage("database is down");
+
+        // A failed load is not kept either
+        assertThat(singleFlight.load(1L, () -> "Espresso")).isEqualTo("Espresso");
+    }
+
+    private double loaded() {
+        return meterRegistry.get("single.flight.requests").tag("name", "coffee").tag("outcome", "loaded").counter().count();
+    }
+
+    private double coalesced() {
+        return meterRegistry.get("single.flight.requests").tag("name", "coffee").tag("outcome", "coalesced").counter().count();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
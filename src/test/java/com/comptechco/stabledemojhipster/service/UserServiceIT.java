@@ -5,7 +5,9 @@ import static org.mockito.Mockito.when;
 
 import com.comptechco.stabledemojhipster.IntegrationTest;
 import com.comptechco.stabledemojhipster.config.Constants;
+import com.comptechco.stabledemojhipster.domain.MailOutboxMessage;
 import com.comptechco.stabledemojhipster.domain.User;
+import com.comptechco.stabledemojhipster.repository.MailOutboxMessageRepository;
 import com.comptechco.stabledemojhipster.repository.UserRepository;
 import com.comptechco.stabledemojhipster.service.dto.AdminUserDTO;
 import java.time.Instant;
@@ -13,6 +15,7 @@ import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -22,7 +25,10 @@ import org.springframework.data.auditing.AuditingHandler;
 import org.springframework.data.auditing.DateTimeProvider;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import tech.jhipster.security.RandomUtil;
 
 /**
@@ -50,6 +56,12 @@ class UserServiceIT {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private MailOutboxMessageRepository mailOutboxMessageRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
     @Autowired
     private AuditingHandler auditingHandler;
 
@@ -88,6 +100,56 @@ class UserServiceIT {
         assertThat(maybeUser.orElse(null).getResetKey()).isNotNull();
     }
 
+    @Test
+    @Transactional
+    void assertThatPasswordResetQueuesTheEmailInItsTransaction() {
+        userRepository.saveAndFlush(user);
+
+        userService.requestPasswordReset(user.getEmail());
+
+        assertThat(outboxMessagesTo(user.getEmail())).hasSize(1);
+    }
+
+    @Test
+    @Transactional
+    void assertThatRegistrationQueuesTheActivationEmailInItsTransaction() {
+        User newUser = userService.registerUser(newUserDTO(), "password");
+
+        assertThat(outboxMessagesTo(newUser.getEmail())).hasSize(1);
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void assertThatARolledBackRegistrationQueuesNoEmail() {
+        // Not transactional: the registration runs in its own transaction, which rolls back
+        new TransactionTemplate(transactionManager)
+            .executeWithoutResult(status -> {
+                userService.registerUser(newUserDTO(), "password");
+                status.setRollbackOnly();
+            });
+
+        assertThat(userRepository.findOneByLogin(DEFAULT_LOGIN)).isNotPresent();
+        assertThat(outboxMessagesTo(DEFAULT_EMAIL)).isEmpty();
+    }
+
+    private AdminUserDTO newUserDTO() {
+        AdminUserDTO userDTO = new AdminUserDTO();
+        userDTO.setLogin(DEFAULT_LOGIN);
+        userDTO.setEmail(DEFAULT_EMAIL);
+        userDTO.setFirstName(DEFAULT_FIRSTNAME);
+        userDTO.setLastName(DEFAULT_LASTNAME);
+        userDTO.setLangKey(Constants.DEFAULT_LANGUAGE);
+        return userDTO;
+    }
+
+    private List<MailOutboxMessage> outboxMessagesTo(String recipient) {
+        return mailOutboxMessageRepository
+            .findAll()
+            .stream()
+            .filter(message -> message.getRecipient().equals(recipient))
+            .collect(Collectors.toList());
+    }
+
     @Test
     @Transactional
     void assertThatOnlyActivatedUserCanRequestPasswordReset() {
@@ -1,6 +1,7 @@
 package com.comptechco.stabledemojhipster.web.rest;
 
 import static com.comptechco.stabledemojhipster.web.rest.AccountResourceIT.TEST_USER_LOGIN;
+import static com.comptechco.stabledemojhipster.web.rest.QueryCount.performWithin;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -9,6 +10,7 @@ import com.comptechco.stabledemojhipster.IntegrationTest;
 import com.comptechco.stabledemojhipster.config.Constants;
 import com.comptechco.stabledemojhipster.domain.User;
 import com.comptechco.stabledemojhipster.repository.AuthorityRepository;
+import com.comptechco.stabledemojhipster.repository.MailOutboxMessageRepository;
 import com.comptechco.stabledemojhipster.repository.UserRepository;
 import com.comptechco.stabledemojhipster.security.AuthoritiesConstants;
 import com.comptechco.stabledemojhipster.service.UserService;
@@ -45,6 +47,9 @@ class AccountResourceIT {
     @Autowired
     private AuthorityRepository authorityRepository;
 
+    @Autowired
+    private MailOutboxMessageRepository mailOutboxMessageRepository;
+
     @Autowired
     private UserService userService;
 
@@ -757,4 +762,77 @@ class AccountResourceIT {
             )
             .andExpect(status().isInternalServerError());
     }
+
+    @Test
+    @WithMockUser("query-budget")
+    void accountEndpointsStayWithinQueryBudgets() throws Exception {
+        // Not transactional: the users must be read from the database, and the modifications flushed, to be counted
+        User user = new User();
+        String currentPassword = RandomStringUtils.random(60);
+        user.setPassword(passwordEncoder.encode(currentPassword));
+        user.setActivated(true);
+        user.setLogin("query-budget");
+        user.setEmail("query-budget@example.com");
+        userRepository.saveAndFlush(user);
+        ManagedUserVM newUser = new ManagedUserVM();
+        newUser.setLogin("query-budget-register");
+        newUser.setPassword("password");
+        newUser.setEmail("query-budget-register@example.com");
+        newUser.setLangKey(Constants.DEFAULT_LANGUAGE);
+        try {
+            performWithin(restAccountMockMvc, 0, get("/api/authenticate")).andExpect(status().isOk());
+            // The user with its authorities
+            performWithin(restAccountMockMvc, 1, get("/api/account")).andExpect(status().isOk());
+
+            // The email and login checks, the user, then its update
+            AdminUserDTO userDTO = new AdminUserDTO();
+            userDTO.setLogin("query-budget");
+            userDTO.setFirstName("firstname");
+            userDTO.setEmail("query-budget@example.com");
+            userDTO.setLangKey(Constants.DEFAULT_LANGUAGE);
+            performWithin(
+                restAccountMockMvc,
+                4,
+                post("/api/account").contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(userDTO))
+            )
+                .andExpect(status().isOk());
+            // The user, then its update
+            performWithin(
+                restAccountMockMvc,
+                2,
+                post("/api/account/change-password")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(new PasswordChangeDTO(currentPassword, "new password")))
+            )
+                .andExpect(status().isOk());
+            // The user and its update, then the email
+            performWithin(restAccountMockMvc, 4, post("/api/account/reset-password/init").content("query-budget@example.com"))
+                .andExpect(status().isOk());
+            KeyAndPasswordVM keyAndPassword = new KeyAndPasswordVM();
+            keyAndPassword.setKey(userRepository.findOneByLogin("query-budget").orElseThrow().getResetKey());
+            keyAndPassword.setNewPassword("new password");
+            performWithin(
+                restAccountMockMvc,
+                2,
+                post("/api/account/reset-password/finish")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(keyAndPassword))
+            )
+                .andExpect(status().isOk());
+
+            // The login and email checks, the authority, the user and its authority, then the email
+            performWithin(
+                restAccountMockMvc,
+                8,
+                post("/api/register").contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(newUser))
+            )
+                .andExpect(status().isCreated());
+            String activationKey = userRepository.findOneByLogin("query-budget-register").orElseThrow().getActivationKey();
+            performWithin(restAccountMockMvc, 2, get("/api/activate?key={activationKey}", activationKey)).andExpect(status().isOk());
+        } finally {
+            userRepository.findOneByLogin("query-budget").ifPresent(userRepository::delete);
+            userRepository.findOneByLogin("query-budget-register").ifPresent(userRepository::delete);
+            mailOutboxMessageRepository.deleteAll();
+        }
+    }
 }
@@ -1,22 +1,38 @@
 package com.comptechco.stabledemojhipster.web.rest;
 
+import static com.comptechco.stabledemojhipster.web.rest.QueryCount.performWithin;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 import com.comptechco.stabledemojhipster.IntegrationTest;
 import com.comptechco.stabledemojhipster.domain.Coffee;
 import com.comptechco.stabledemojhipster.repository.CoffeeRepository;
+import com.comptechco.stabledemojhipster.service.CoffeeCatalogService;
+import com.comptechco.stabledemojhipster.service.CoffeeService;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import java.util.zip.GZIPInputStream;
 import javax.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
@@ -35,6 +51,8 @@ class CoffeeResourceIT {
     private static final Double DEFAULT_PRICE = 5D;
     private static final Double UPDATED_PRICE = 6D;
 
+    private static final MediaType SMILE = new MediaType("application", "x-jackson-smile");
+
     private static final String ENTITY_API_URL = "/api/coffees";
     private static final String ENTITY_API_URL_ID = ENTITY_API_URL + "/{id}";
 
@@ -44,9 +62,18 @@ class CoffeeResourceIT {
     @Autowired
     private CoffeeRepository coffeeRepository;
 
+    @Autowired
+    private CoffeeService coffeeService;
+
+    @Autowired
+    private CoffeeCatalogService coffeeCatalogService;
+
     @Autowired
     private EntityManager em;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     @Autowired
     private MockMvc restCoffeeMockMvc;
 
@@ -96,6 +123,23 @@ class CoffeeResourceIT {
         assertThat(testCoffee.getPrice()).isEqualTo(DEFAULT_PRICE);
     }
 
+    @Test
+    @Transactional
+    void createCoffeeFromCbor() throws Exception {
+        int databaseSizeBeforeCreate = coffeeRepository.findAll().size();
+        // Create the Coffee, sent as CBOR
+        restCoffeeMockMvc
+            .perform(post(ENTITY_API_URL).contentType(MediaType.APPLICATION_CBOR).content(new CBORMapper().writeValueAsBytes(coffee)))
+            .andExpect(status().isCreated());
+
+        // Validate the Coffee in the database
+        List<Coffee> coffeeList = coffeeRepository.findAll();
+        assertThat(coffeeList).hasSize(databaseSizeBeforeCreate + 1);
+        Coffee testCoffee = coffeeList.get(coffeeList.size() - 1);
+        assertThat(testCoffee.getName()).isEqualTo(DEFAULT_NAME);
+        assertThat(testCoffee.getPrice()).isEqualTo(DEFAULT_PRICE);
+    }
+
     @Test
     @Transactional
     void createCoffeeWithExistingId() throws Exception {
@@ -114,6 +158,37 @@ class CoffeeResourceIT {
         assertThat(coffeeList).hasSize(databaseSizeBeforeCreate);
     }
 
+    @Test
+    void bulkUpsertCoffees() throws Exception {
+        // The bulk upsert commits its own transactions, so this test cleans up after itself
+        Coffee existingCoffee = coffeeRepository.saveAndFlush(new Coffee().name("Bulk existing coffee").price(DEFAULT_PRICE));
+        List<Coffee> coffees = List.of(
+            new Coffee().name("Bulk new coffee").price(DEFAULT_PRICE),
+            new Coffee().name("Bulk existing coffee").price(UPDATED_PRICE),
+            new Coffee().name("Bulk invalid coffee").price(20D)
+        );
+        try {
+            restCoffeeMockMvc
+                .perform(
+                    post(ENTITY_API_URL + "/bulk").contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(coffees))
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[0].status").value("CREATED"))
+                .andExpect(jsonPath("$.[0].id").isNumber())
+                .andExpect(jsonPath("$.[1].status").value("UPDATED"))
+                .andExpect(jsonPath("$.[1].id").value(existingCoffee.getId().intValue()))
+                .andExpect(jsonPath("$.[2].status").value("INVALID"))
+                .andExpect(jsonPath("$.[2].errors.[0]").value(containsString("price")));
+
+            // Validate the Coffees in the database
+            assertThat(coffeeRepository.findAllByNameIn(List.of("Bulk new coffee", "Bulk existing coffee", "Bulk invalid coffee")))
+                .extracting(Coffee::getName, Coffee::getPrice)
+                .containsExactlyInAnyOrder(tuple("Bulk new coffee", DEFAULT_PRICE), tuple("Bulk existing coffee", UPDATED_PRICE));
+        } finally {
+            coffeeRepository.deleteAll(coffeeRepository.findAllByNameIn(List.of("Bulk new coffee", "Bulk existing coffee")));
+        }
+    }
+
     @Test
     @Transactional
     void getAllCoffees() throws Exception {
@@ -130,6 +205,137 @@ class CoffeeResourceIT {
             .andExpect(jsonPath("$.[*].price").value(hasItem(DEFAULT_PRICE.doubleValue())));
     }
 
+    @Test
+    @Transactional
+    void getAllCoffeesFields() throws Exception {
+        // Initialize the database
+        coffeeRepository.saveAndFlush(coffee);
+
+        // Get only the requested fields of the matching coffees
+        restCoffeeMockMvc
+            .perform(get(ENTITY_API_URL + "?fields=name,id&id.equals=" + coffee.getId()))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(header().exists(HttpHeaders.ETAG))
+            .andExpect(header().string("X-Total-Count", "1"))
+            .andExpect(jsonPath("$.[0].name").value(DEFAULT_NAME))
+            .andExpect(jsonPath("$.[0].id").value(coffee.getId().intValue()))
+            .andExpect(jsonPath("$.[0].price").doesNotExist())
+            .andExpect(jsonPath("$.[0].version").doesNotExist());
+
+        restCoffeeMockMvc
+            .perform(get(ENTITY_API_URL + "?fields=price&count=false&id.equals=" + coffee.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().string(CoffeeResource.HAS_NEXT_PAGE_HEADER, "false"))
+            .andExpect(jsonPath("$.[0].price").value(DEFAULT_PRICE))
+            .andExpect(jsonPath("$.[0].name").doesNotExist());
+
+        restCoffeeMockMvc.perform(get(ENTITY_API_URL + "?fields=name,unknown")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    void getAllCoffeesByNameStartsWithSomething() throws Exception {
+        // Initialize the database
+        coffeeRepository.saveAndFlush(coffee);
+
+        // Get all the coffeeList where name starts with the beginning of DEFAULT_NAME, ignoring case
+        defaultCoffeeShouldBeFound("name.startsWith=" + DEFAULT_NAME.substring(0, 3).toLowerCase());
+
+        // Get all the coffeeList where name starts with UPDATED_NAME
+        defaultCoffeeShouldNotBeFound("name.startsWith=" + UPDATED_NAME);
+    }
+
+    @Test
+    @Transactional
+    void getAllCoffeesByNameContainsSomething() throws Exception {
+        // Initialize the database
+        coffeeRepository.saveAndFlush(coffee);
+
+        // Get all the coffeeList where name contains DEFAULT_NAME
+        defaultCoffeeShouldBeFound("name.contains=" + DEFAULT_NAME);
+
+        // Get all the coffeeList where name contains UPDATED_NAME
+        defaultCoffeeShouldNotBeFound("name.contains=" + UPDATED_NAME);
+    }
+
+    @Test
+    @Transactional
+    void getAllCoffeesByPriceIsInRange() throws Exception {
+        // Initialize the database
+        coffeeRepository.saveAndFlush(coffee);
+
+        // Get all the coffeeList where price is between DEFAULT_PRICE and UPDATED_PRICE
+        defaultCoffeeShouldBeFound("price.greaterThanOrEqual=" + DEFAULT_PRICE + "&price.lessThanOrEqual=" + UPDATED_PRICE);
+
+        // Get all the coffeeList where price is between UPDATED_PRICE and more
+        defaultCoffeeShouldNotBeFound("price.greaterThanOrEqual=" + UPDATED_PRICE + "&price.lessThanOrEqual=" + (UPDATED_PRICE + 1));
+    }
+
+    @Test
+    @Transactional
+    void getAllCoffeesWithoutCount() throws Exception {
+        // Initialize the database
+        coffeeRepository.saveAndFlush(coffee);
+        Coffee otherCoffee = coffeeRepository.saveAndFlush(new Coffee().name(UPDATED_NAME).price(UPDATED_PRICE));
+        String filter = "id.in=" + coffee.getId() + "," + otherCoffee.getId() + "&sort=id,asc&size=1&count=false";
+
+        restCoffeeMockMvc
+            .perform(get(ENTITY_API_URL + "?" + filter))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$.[0].id").value(coffee.getId().intValue()))
+            .andExpect(header().string(CoffeeResource.HAS_NEXT_PAGE_HEADER, "true"))
+            .andExpect(header().string(HttpHeaders.LINK, containsString("rel=\"next\"")))
+            .andExpect(header().doesNotExist("X-Total-Count"));
+
+        restCoffeeMockMvc
+            .perform(get(ENTITY_API_URL + "?" + filter + "&page=1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].id").value(otherCoffee.getId().intValue()))
+            .andExpect(header().string(CoffeeResource.HAS_NEXT_PAGE_HEADER, "false"))
+            .andExpect(header().string(HttpHeaders.LINK, not(containsString("rel=\"next\""))));
+    }
+
+    /**
+     * Executes the search, and checks that the default entity is returned.
+     */
+    private void defaultCoffeeShouldBeFound(String filter) throws Exception {
+        restCoffeeMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc&" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(coffee.getId().intValue())))
+            .andExpect(jsonPath("$.[*].name").value(hasItem(DEFAULT_NAME)))
+            .andExpect(jsonPath("$.[*].price").value(hasItem(DEFAULT_PRICE.doubleValue())));
+
+        // Check, that the count call also returns 1
+        restCoffeeMockMvc
+            .perform(get(ENTITY_API_URL + "/count?sort=id,desc&" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(content().string("1"));
+    }
+
+    /**
+     * Executes the search, and checks that the default entity is not returned.
+     */
+    private void defaultCoffeeShouldNotBeFound(String filter) throws Exception {
+        restCoffeeMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc&" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$").isArray())
+            .andExpect(jsonPath("$").isEmpty());
+
+        // Check, that the count call also returns 0
+        restCoffeeMockMvc
+            .perform(get(ENTITY_API_URL + "/count?sort=id,desc&" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(content().string("0"));
+    }
+
     @Test
     @Transactional
     void getCoffee() throws Exception {
@@ -146,6 +352,248 @@ class CoffeeResourceIT {
             .andExpect(jsonPath("$.price").value(DEFAULT_PRICE.doubleValue()));
     }
 
+    @Test
+    @Transactional
+    void getCoffeeAsSmile() throws Exception {
+        // Initialize the database
+        coffeeRepository.saveAndFlush(coffee);
+
+        // Get the coffee, encoded as Smile
+        byte[] smile = restCoffeeMockMvc
+            .perform(get(ENTITY_API_URL_ID, coffee.getId()).accept(SMILE))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(SMILE))
+            .andExpect(header().string(HttpHeaders.VARY, containsString(HttpHeaders.ACCEPT)))
+            .andReturn()
+            .getResponse()
+            .getContentAsByteArray();
+
+        Coffee testCoffee = new SmileMapper().readValue(smile, Coffee.class);
+        assertThat(testCoffee.getId()).isEqualTo(coffee.getId());
+        assertThat(testCoffee.getName()).isEqualTo(DEFAULT_NAME);
+        assertThat(testCoffee.getPrice()).isEqualTo(DEFAULT_PRICE);
+    }
+
+    @Test
+    @Transactional
+    void getAllCoffeesAsCbor() throws Exception {
+        // Initialize the database
+        coffeeRepository.saveAndFlush(coffee);
+
+        // Get all the coffees, streamed as CBOR
+        byte[] cbor = restCoffeeMockMvc
+            .perform(get(ENTITY_API_URL).accept(MediaType.APPLICATION_CBOR))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+            .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT)))
+            .andReturn()
+            .getResponse()
+            .getContentAsByteArray();
+
+        assertThat(new CBORMapper().readValue(cbor, Coffee[].class))
+            .extracting(Coffee::getId, Coffee::getName)
+            .contains(tuple(coffee.getId(), DEFAULT_NAME));
+    }
+
+    @Test
+    @Transactional
+    void getCoffeeNotModified() throws Exception {
+        // Initialize the database
+        coffeeRepository.saveAndFlush(coffee);
+        String eTag = "\"" + coffee.getVersion() + "\"";
+
+        restCoffeeMockMvc
+            .perform(get(ENTITY_API_URL_ID, coffee.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, eTag));
+
+        // The client already has this version
+        restCoffeeMockMvc
+            .perform(get(ENTITY_API_URL_ID, coffee.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified())
+            .andExpect(content().string(""));
+
+        // The client has an older version
+        restCoffeeMockMvc
+            .perform(get(ENTITY_API_URL_ID, coffee.getId()).header(HttpHeaders.IF_NONE_MATCH, "\"" + (coffee.getVersion() - 1) + "\""))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.id").value(coffee.getId().intValue()));
+    }
+
+    @Test
+    void getAllCoffeesNotModified() throws Exception {
+        // Not transactional: the modification tag changes when a modification is committed
+        String eTag = restCoffeeMockMvc
+            .perform(get(ENTITY_API_URL))
+            .andExpect(status().isOk())
+            .andExpect(header().exists(HttpHeaders.ETAG))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+        restCoffeeMockMvc
+            .perform(get(ENTITY_API_URL).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified())
+            .andExpect(content().string(""));
+        restCoffeeMockMvc
+            .perform(get(ENTITY_API_URL + "?cursor=&size=1").header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified());
+
+        coffeeRepository.saveAndFlush(coffee);
+        try {
+            restCoffeeMockMvc
+                .perform(get(ENTITY_API_URL).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(eTag)))
+                .andExpect(jsonPath("$.[*].id").value(hasItem(coffee.getId().intValue())));
+        } finally {
+            coffeeRepository.deleteById(coffee.getId());
+        }
+    }
+
+    @Test
+    void getAllCoffeesModifiedElsewhere() throws Exception {
+        // Not transactional: the coffee is updated behind the back of this instance, with the modification counter
+        coffeeService.save(coffee);
+        coffeeCatalogService.rebuild();
+        try {
+            String eTag = restCoffeeMockMvc
+                .perform(get(ENTITY_API_URL))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+
+            jdbcTemplate.update("update coffee set price = ?, version = version + 1 where id = ?", UPDATED_PRICE, coffee.getId());
+            jdbcTemplate.update("update table_version set version = version + 1 where table_name = 'coffee'");
+
+            // Neither the collection tag nor the catalog snapshot are stale
+            String pricePath = "$.[?(@.id == " + coffee.getId() + ")].price";
+            restCoffeeMockMvc
+                .perform(get(ENTITY_API_URL).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(eTag)))
+                .andExpect(jsonPath(pricePath).value(hasItem(UPDATED_PRICE)));
+
+            coffeeCatalogService.rebuild();
+            restCoffeeMockMvc
+                .perform(get(ENTITY_API_URL))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath(pricePath).value(hasItem(UPDATED_PRICE)));
+        } finally {
+            coffeeService.delete(coffee.getId());
+        }
+    }
+
+    @Test
+    void getAllCoffeesFromCatalogSnapshot() throws Exception {
+        // Not transactional: the snapshot is only served outside of a transaction, and rebuilt after a commit
+        coffeeCatalogService.rebuild();
+        String json = restCoffeeMockMvc
+            .perform(get(ENTITY_API_URL))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(header().string(HttpHeaders.VARY, containsString(HttpHeaders.ACCEPT_ENCODING)))
+            .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+
+        byte[] gzippedJson = restCoffeeMockMvc
+            .perform(get(ENTITY_API_URL).header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+            .andReturn()
+            .getResponse()
+            .getContentAsByteArray();
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(gzippedJson))) {
+            assertThat(new String(gzip.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(json);
+        }
+
+        coffeeService.save(coffee);
+        try {
+            // Streamed from the database until the snapshot is rebuilt
+            restCoffeeMockMvc
+                .perform(get(ENTITY_API_URL))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[*].id").value(hasItem(coffee.getId().intValue())));
+
+            coffeeCatalogService.rebuild();
+            restCoffeeMockMvc
+                .perform(get(ENTITY_API_URL).header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(jsonPath("$.[*].id").value(hasItem(coffee.getId().intValue())));
+        } finally {
+            coffeeService.delete(coffee.getId());
+        }
+    }
+
+    @Test
+    @Transactional
+    void getCoffeesAfterCursor() throws Exception {
+        // Initialize the database
+        coffeeRepository.saveAndFlush(coffee);
+        Coffee otherCoffee = coffeeRepository.saveAndFlush(createUpdatedEntity(em));
+
+        // Get the first page, which has a next cursor
+        restCoffeeMockMvc
+            .perform(get(ENTITY_API_URL + "?cursor={cursor}&size=1", coffee.getId() - 1))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$.[0].id").value(coffee.getId().intValue()))
+            .andExpect(header().string(CoffeeResource.NEXT_CURSOR_HEADER, coffee.getId().toString()))
+            .andExpect(header().string(HttpHeaders.LINK, containsString("cursor=" + coffee.getId())));
+
+        // Get the last page, which has no next cursor
+        restCoffeeMockMvc
+            .perform(get(ENTITY_API_URL + "?cursor={cursor}&size=1", otherCoffee.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(0))
+            .andExpect(header().doesNotExist(CoffeeResource.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    @Transactional
+    void getCoffeesWithInvalidCursorPageSize() throws Exception {
+        restCoffeeMockMvc.perform(get(ENTITY_API_URL + "?cursor=&size=0")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    void getCoffeesByIds() throws Exception {
+        // Initialize the database
+        coffeeRepository.saveAndFlush(coffee);
+        Coffee otherCoffee = coffeeRepository.saveAndFlush(createUpdatedEntity(em));
+
+        // Get the coffees in the requested order, with the ids that do not exist
+        restCoffeeMockMvc
+            .perform(get(ENTITY_API_URL + "?ids={ids}", otherCoffee.getId() + "," + Long.MAX_VALUE + "," + coffee.getId()))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.items.[*].id").value(contains(otherCoffee.getId().intValue(), coffee.getId().intValue())))
+            .andExpect(jsonPath("$.items.[*].name").value(contains(UPDATED_NAME, DEFAULT_NAME)))
+            .andExpect(jsonPath("$.missingIds").value(contains(Long.MAX_VALUE)));
+    }
+
+    @Test
+    @Transactional
+    void getCoffeesWithIdsAndCursor() throws Exception {
+        // Initialize the database
+        coffeeRepository.saveAndFlush(coffee);
+
+        // Each combination of the ids, cursor and fields parameters is handled by a single mapping
+        restCoffeeMockMvc.perform(get(ENTITY_API_URL + "?ids={ids}&cursor=", coffee.getId())).andExpect(status().isOk());
+        restCoffeeMockMvc.perform(get(ENTITY_API_URL + "?fields=id&cursor=")).andExpect(status().isOk());
+    }
+
+    @Test
+    void getTooManyCoffeesByIds() throws Exception {
+        String ids = LongStream.rangeClosed(1, 101).mapToObj(Long::toString).collect(Collectors.joining(","));
+        restCoffeeMockMvc.perform(get(ENTITY_API_URL + "?ids={ids}", ids)).andExpect(status().isBadRequest());
+    }
+
     @Test
     @Transactional
     void getNonExistingCoffee() throws Exception {
@@ -173,7 +621,9 @@ class CoffeeResourceIT {
                     .contentType(MediaType.APPLICATION_JSON)
                     .content(TestUtil.convertObjectToJsonBytes(updatedCoffee))
             )
-            .andExpect(status().isOk());
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+            .andExpect(jsonPath("$.version").value(1));
 
         // Validate the Coffee in the database
         List<Coffee> coffeeList = coffeeRepository.findAll();
@@ -355,6 +805,60 @@ class CoffeeResourceIT {
         assertThat(coffeeList).hasSize(databaseSizeBeforeUpdate);
     }
 
+    @Test
+    @Transactional
+    void putStaleCoffee() throws Exception {
+        // Initialize the database
+        coffeeRepository.saveAndFlush(coffee);
+
+        // The body has the version of a read made before another update
+        Coffee updatedCoffee = new Coffee().id(coffee.getId()).name(UPDATED_NAME).price(UPDATED_PRICE).version(coffee.getVersion() - 1);
+
+        restCoffeeMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, updatedCoffee.getId())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(updatedCoffee))
+            )
+            .andExpect(status().isConflict());
+
+        // Validate the Coffee in the database
+        Coffee testCoffee = coffeeRepository.findById(coffee.getId()).get();
+        assertThat(testCoffee.getName()).isEqualTo(DEFAULT_NAME);
+        assertThat(testCoffee.getVersion()).isEqualTo(coffee.getVersion());
+    }
+
+    @Test
+    @Transactional
+    void patchWithIfMatchCoffee() throws Exception {
+        // Initialize the database
+        coffeeRepository.saveAndFlush(coffee);
+        String eTag = "\"" + coffee.getVersion() + "\"";
+
+        Coffee partialUpdatedCoffee = new Coffee().id(coffee.getId()).name(UPDATED_NAME);
+
+        restCoffeeMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, partialUpdatedCoffee.getId())
+                    .header(HttpHeaders.IF_MATCH, eTag)
+                    .contentType("application/merge-patch+json")
+                    .content(TestUtil.convertObjectToJsonBytes(partialUpdatedCoffee))
+            )
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, not(eTag)))
+            .andExpect(jsonPath("$.name").value(UPDATED_NAME));
+
+        // The same precondition no longer holds
+        restCoffeeMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, partialUpdatedCoffee.getId())
+                    .header(HttpHeaders.IF_MATCH, eTag)
+                    .contentType("application/merge-patch+json")
+                    .content(TestUtil.convertObjectToJsonBytes(partialUpdatedCoffee))
+            )
+            .andExpect(status().isPreconditionFailed());
+    }
+
     @Test
     @Transactional
     void deleteCoffee() throws Exception {
@@ -372,4 +876,84 @@ class CoffeeResourceIT {
         List<Coffee> coffeeList = coffeeRepository.findAll();
         assertThat(coffeeList).hasSize(databaseSizeBeforeDelete - 1);
     }
+
+    @Test
+    void coffeeEndpointsStayWithinQueryBudgets() throws Exception {
+        // Not transactional: the coffees must be read from the database, and the modifications flushed, to be counted
+        coffeeService.save(coffee);
+        Coffee otherCoffee = coffeeService.save(createUpdatedEntity(em));
+        Coffee newCoffee = new Coffee().name("Budget new coffee").price(DEFAULT_PRICE);
+        List<Coffee> bulkCoffees = List.of(
+            new Coffee().name("Budget bulk coffee 1").price(DEFAULT_PRICE),
+            new Coffee().name("Budget bulk coffee 2").price(DEFAULT_PRICE),
+            new Coffee().name(UPDATED_NAME).price(DEFAULT_PRICE)
+        );
+        try {
+            // The whole catalog is a single query, when it is not answered from the snapshot
+            performWithin(restCoffeeMockMvc, 1, get(ENTITY_API_URL)).andExpect(status().isOk());
+            // and none when it is: only the modification counter is read, by primary key
+            coffeeCatalogService.rebuild();
+            performWithin(restCoffeeMockMvc, 0, get(ENTITY_API_URL)).andExpect(status().isOk());
+            // The full pages are counted
+            performWithin(restCoffeeMockMvc, 2, get(ENTITY_API_URL + "?sort=id,asc&size=1")).andExpect(status().isOk());
+            performWithin(restCoffeeMockMvc, 1, get(ENTITY_API_URL + "?sort=id,asc&size=1&count=false")).andExpect(status().isOk());
+            performWithin(restCoffeeMockMvc, 2, get(ENTITY_API_URL + "?fields=id,name&size=1")).andExpect(status().isOk());
+            performWithin(restCoffeeMockMvc, 1, get(ENTITY_API_URL + "/count")).andExpect(status().isOk());
+            performWithin(restCoffeeMockMvc, 1, get(ENTITY_API_URL + "?cursor=&size=1")).andExpect(status().isOk());
+            performWithin(restCoffeeMockMvc, 1, get(ENTITY_API_URL + "?ids={ids}", coffee.getId() + "," + otherCoffee.getId()))
+                .andExpect(status().isOk());
+            performWithin(restCoffeeMockMvc, 1, get("/api/_search/coffees?q={query}", DEFAULT_NAME)).andExpect(status().isOk());
+            performWithin(restCoffeeMockMvc, 1, get(ENTITY_API_URL_ID, coffee.getId())).andExpect(status().isOk());
+            // Only the version is read
+            performWithin(
+                restCoffeeMockMvc,
+                1,
+                get(ENTITY_API_URL_ID, coffee.getId()).header(HttpHeaders.IF_NONE_MATCH, "\"" + coffee.getVersion() + "\"")
+            )
+                .andExpect(status().isNotModified());
+
+            // The creation may allocate a block of ids, then inserts
+            performWithin(
+                restCoffeeMockMvc,
+                2,
+                post(ENTITY_API_URL).contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(newCoffee))
+            )
+                .andExpect(status().isCreated());
+            // The updates read the coffee, then update it
+            Coffee updatedCoffee = new Coffee().id(coffee.getId()).name(DEFAULT_NAME).price(UPDATED_PRICE);
+            performWithin(
+                restCoffeeMockMvc,
+                2,
+                put(ENTITY_API_URL_ID, coffee.getId())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(updatedCoffee))
+            )
+                .andExpect(status().isOk());
+            Coffee partialUpdatedCoffee = new Coffee().id(coffee.getId()).price(DEFAULT_PRICE);
+            performWithin(
+                restCoffeeMockMvc,
+                2,
+                patch(ENTITY_API_URL_ID, coffee.getId())
+                    .contentType("application/merge-patch+json")
+                    .content(TestUtil.convertObjectToJsonBytes(partialUpdatedCoffee))
+            )
+                .andExpect(status().isOk());
+            // The bulk upsert reads the existing coffees at once, then sends the inserts and the updates as JDBC batches
+            performWithin(
+                restCoffeeMockMvc,
+                4,
+                post(ENTITY_API_URL + "/bulk")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(bulkCoffees))
+            )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[*].status").value(contains("CREATED", "CREATED", "UPDATED")));
+            // The deletion reads the coffee, then deletes it
+            performWithin(restCoffeeMockMvc, 2, delete(ENTITY_API_URL_ID, otherCoffee.getId())).andExpect(status().isNoContent());
+        } finally {
+            coffeeRepository
+                .findAllByNameIn(List.of(DEFAULT_NAME, UPDATED_NAME, "Budget new coffee", "Budget bulk coffee 1", "Budget bulk coffee 2"))
+                .forEach(budgetCoffee -> coffeeService.delete(budgetCoffee.getId()));
+        }
+    }
 }
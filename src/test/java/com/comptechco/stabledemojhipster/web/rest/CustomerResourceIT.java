@@ -1,14 +1,23 @@
 package com.comptechco.stabledemojhipster.web.rest;
 
+import static com.comptechco.stabledemojhipster.web.rest.QueryCount.performWithin;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.endsWith;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 import com.comptechco.stabledemojhipster.IntegrationTest;
 import com.comptechco.stabledemojhipster.domain.Customer;
 import com.comptechco.stabledemojhipster.repository.CustomerRepository;
+import com.comptechco.stabledemojhipster.repository.search.CustomerSearchRepository;
+import com.comptechco.stabledemojhipster.service.CustomerService;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicLong;
 import javax.persistence.EntityManager;
@@ -16,6 +25,8 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
@@ -32,8 +43,8 @@ class CustomerResourceIT {
     private static final String DEFAULT_NAME = "AAAAAAAAAA";
     private static final String UPDATED_NAME = "BBBBBBBBBB";
 
-    private static final String DEFAULT_PHONE_NUMBER = "AAAAAAAAAA";
-    private static final String UPDATED_PHONE_NUMBER = "BBBBBBBBBB";
+    private static final String DEFAULT_PHONE_NUMBER = "123456789012";
+    private static final String UPDATED_PHONE_NUMBER = "210987654321";
 
     private static final String ENTITY_API_URL = "/api/customers";
     private static final String ENTITY_API_URL_ID = ENTITY_API_URL + "/{id}";
@@ -44,6 +55,15 @@ class CustomerResourceIT {
     @Autowired
     private CustomerRepository customerRepository;
 
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private CustomerSearchRepository customerSearchRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
     @Autowired
     private EntityManager em;
 
@@ -76,6 +96,7 @@ class CustomerResourceIT {
 
     @BeforeEach
     public void initTest() {
+        Objects.requireNonNull(cacheManager.getCache(CustomerRepository.CUSTOMERS_BY_PHONE_DIGITS_CACHE)).clear();
         customer = createEntity(em);
     }
 
@@ -114,6 +135,24 @@ class CustomerResourceIT {
         assertThat(customerList).hasSize(databaseSizeBeforeCreate);
     }
 
+    @Test
+    @Transactional
+    void createCustomerWithUnbalancedParentheses() throws Exception {
+        int databaseSizeBeforeCreate = customerRepository.findAll().size();
+
+        // The area code is either in parentheses or not, so these API calls must fail
+        for (String phoneNumber : new String[] { "(123456-789012", "123)456-789012", "(123456789012", "123)456789012" }) {
+            customer.setPhoneNumber(phoneNumber);
+            restCustomerMockMvc
+                .perform(post(ENTITY_API_URL).contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(customer)))
+                .andExpect(status().isBadRequest());
+        }
+
+        // Validate the Customer in the database
+        List<Customer> customerList = customerRepository.findAll();
+        assertThat(customerList).hasSize(databaseSizeBeforeCreate);
+    }
+
     @Test
     @Transactional
     void getAllCustomers() throws Exception {
@@ -146,6 +185,117 @@ class CustomerResourceIT {
             .andExpect(jsonPath("$.phoneNumber").value(DEFAULT_PHONE_NUMBER));
     }
 
+    @Test
+    @Transactional
+    void getCustomerNotModified() throws Exception {
+        // Initialize the database
+        customerRepository.saveAndFlush(customer);
+        String eTag = "\"" + customer.getVersion() + "\"";
+
+        restCustomerMockMvc
+            .perform(get(ENTITY_API_URL_ID, customer.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, eTag));
+
+        // The client already has this version
+        restCustomerMockMvc
+            .perform(get(ENTITY_API_URL_ID, customer.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified())
+            .andExpect(content().string(""));
+
+        // The client has an older version
+        restCustomerMockMvc
+            .perform(get(ENTITY_API_URL_ID, customer.getId()).header(HttpHeaders.IF_NONE_MATCH, "\"" + (customer.getVersion() - 1) + "\""))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.id").value(customer.getId().intValue()));
+    }
+
+    @Test
+    void getAllCustomersNotModified() throws Exception {
+        // Not transactional: the modification tag changes when a modification is committed
+        String eTag = restCustomerMockMvc
+            .perform(get(ENTITY_API_URL))
+            .andExpect(status().isOk())
+            .andExpect(header().exists(HttpHeaders.ETAG))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+        restCustomerMockMvc
+            .perform(get(ENTITY_API_URL).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified())
+            .andExpect(content().string(""));
+
+        customerRepository.saveAndFlush(customer);
+        try {
+            restCustomerMockMvc
+                .perform(get(ENTITY_API_URL).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(eTag)))
+                .andExpect(jsonPath("$.[*].id").value(hasItem(customer.getId().intValue())));
+        } finally {
+            customerRepository.deleteById(customer.getId());
+        }
+    }
+
+    @Test
+    @Transactional
+    void getAllCustomersFields() throws Exception {
+        // Initialize the database
+        customerRepository.saveAndFlush(customer);
+
+        // Get only the requested fields of all the customers
+        restCustomerMockMvc
+            .perform(get(ENTITY_API_URL + "?fields=id,name"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(header().exists(HttpHeaders.ETAG))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(customer.getId().intValue())))
+            .andExpect(jsonPath("$.[*].name").value(hasItem(DEFAULT_NAME)))
+            .andExpect(jsonPath("$.[*].phoneNumber").doesNotExist())
+            .andExpect(jsonPath("$.[*].phoneDigits").doesNotExist());
+
+        restCustomerMockMvc.perform(get(ENTITY_API_URL + "?fields=phoneDigits")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    void exportCustomers() throws Exception {
+        // Initialize the database
+        customerRepository.saveAndFlush(customer);
+
+        // Export all the customers, one JSON document per line
+        restCustomerMockMvc
+            .perform(get(ENTITY_API_URL + "/export").accept(MediaType.APPLICATION_NDJSON))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_NDJSON_VALUE))
+            .andExpect(content().string(containsString("{\"id\":" + customer.getId() + ",\"name\":\"" + DEFAULT_NAME + "\"")))
+            .andExpect(content().string(endsWith("}\n")));
+    }
+
+    @Test
+    void getCustomersByIds() throws Exception {
+        // Not transactional: the committed customers are read from the second-level cache, the missing id from the database
+        customerRepository.saveAndFlush(customer);
+        Customer otherCustomer = customerRepository.saveAndFlush(createUpdatedEntity(em));
+        try {
+            List<Long> ids = List.of(otherCustomer.getId(), Long.MAX_VALUE, customer.getId(), otherCustomer.getId());
+            restCustomerMockMvc
+                .perform(
+                    post(ENTITY_API_URL + "/_batch-get")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(TestUtil.convertObjectToJsonBytes(Map.of("ids", ids)))
+                )
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+                .andExpect(jsonPath("$.items.[*].id").value(contains(otherCustomer.getId().intValue(), customer.getId().intValue())))
+                .andExpect(jsonPath("$.items.[*].name").value(contains(UPDATED_NAME, DEFAULT_NAME)))
+                .andExpect(jsonPath("$.missingIds").value(contains(Long.MAX_VALUE)));
+        } finally {
+            customerRepository.deleteAllById(List.of(customer.getId(), otherCustomer.getId()));
+        }
+    }
+
     @Test
     @Transactional
     void getNonExistingCustomer() throws Exception {
@@ -173,7 +323,9 @@ class CustomerResourceIT {
                     .contentType(MediaType.APPLICATION_JSON)
                     .content(TestUtil.convertObjectToJsonBytes(updatedCustomer))
             )
-            .andExpect(status().isOk());
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+            .andExpect(jsonPath("$.version").value(1));
 
         // Validate the Customer in the database
         List<Customer> customerList = customerRepository.findAll();
@@ -355,6 +507,64 @@ class CustomerResourceIT {
         assertThat(customerList).hasSize(databaseSizeBeforeUpdate);
     }
 
+    @Test
+    @Transactional
+    void putStaleCustomer() throws Exception {
+        // Initialize the database
+        customerRepository.saveAndFlush(customer);
+
+        // The body has the version of a read made before another update
+        Customer updatedCustomer = new Customer()
+            .id(customer.getId())
+            .name(UPDATED_NAME)
+            .phoneNumber(UPDATED_PHONE_NUMBER)
+            .version(customer.getVersion() - 1);
+
+        restCustomerMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, updatedCustomer.getId())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(updatedCustomer))
+            )
+            .andExpect(status().isConflict());
+
+        // Validate the Customer in the database
+        Customer testCustomer = customerRepository.findById(customer.getId()).get();
+        assertThat(testCustomer.getName()).isEqualTo(DEFAULT_NAME);
+        assertThat(testCustomer.getVersion()).isEqualTo(customer.getVersion());
+    }
+
+    @Test
+    @Transactional
+    void patchWithIfMatchCustomer() throws Exception {
+        // Initialize the database
+        customerRepository.saveAndFlush(customer);
+        String eTag = "\"" + customer.getVersion() + "\"";
+
+        Customer partialUpdatedCustomer = new Customer().id(customer.getId()).name(UPDATED_NAME);
+
+        restCustomerMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, partialUpdatedCustomer.getId())
+                    .header(HttpHeaders.IF_MATCH, eTag)
+                    .contentType("application/merge-patch+json")
+                    .content(TestUtil.convertObjectToJsonBytes(partialUpdatedCustomer))
+            )
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, not(eTag)))
+            .andExpect(jsonPath("$.name").value(UPDATED_NAME));
+
+        // The same precondition no longer holds
+        restCustomerMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, partialUpdatedCustomer.getId())
+                    .header(HttpHeaders.IF_MATCH, eTag)
+                    .contentType("application/merge-patch+json")
+                    .content(TestUtil.convertObjectToJsonBytes(partialUpdatedCustomer))
+            )
+            .andExpect(status().isPreconditionFailed());
+    }
+
     @Test
     @Transactional
     void deleteCustomer() throws Exception {
@@ -372,4 +582,160 @@ class CustomerResourceIT {
         List<Customer> customerList = customerRepository.findAll();
         assertThat(customerList).hasSize(databaseSizeBeforeDelete - 1);
     }
+
+    @Test
+    @Transactional
+    void getCustomerByPhoneNumber() throws Exception {
+        // Initialize the database
+        customerRepository.saveAndFlush(customer);
+
+        // Get the customer by its phone number, in another format
+        restCustomerMockMvc
+            .perform(get(ENTITY_API_URL + "/by-phone/{number}", "(123)456-789012"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.id").value(customer.getId().intValue()))
+            .andExpect(jsonPath("$.phoneNumber").value(DEFAULT_PHONE_NUMBER))
+            .andExpect(jsonPath("$.phoneDigits").doesNotExist());
+
+        restCustomerMockMvc.perform(get(ENTITY_API_URL + "/by-phone/{number}", UPDATED_PHONE_NUMBER)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    @Transactional
+    void getCustomerByPhoneNumberInLongestFormat() throws Exception {
+        // Create the Customer with a phone number in its longest format
+        customer.setPhoneNumber("(555)123-456789");
+        restCustomerMockMvc
+            .perform(post(ENTITY_API_URL).contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(customer)))
+            .andExpect(status().isCreated());
+
+        // Get the customer by its phone number, without formatting
+        restCustomerMockMvc
+            .perform(get(ENTITY_API_URL + "/by-phone/{number}", "555123456789"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.name").value(DEFAULT_NAME))
+            .andExpect(jsonPath("$.phoneNumber").value("(555)123-456789"));
+    }
+
+    @Test
+    void getCustomerByPhoneNumberAfterUpdate() throws Exception {
+        // Not transactional: the lookups are evicted from the cache when the update is committed
+        customerService.save(customer);
+        try {
+            restCustomerMockMvc.perform(get(ENTITY_API_URL + "/by-phone/{number}", UPDATED_PHONE_NUMBER)).andExpect(status().isNotFound());
+            restCustomerMockMvc
+                .perform(get(ENTITY_API_URL + "/by-phone/{number}", DEFAULT_PHONE_NUMBER))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(customer.getId().intValue()));
+
+            customerService.partialUpdate(new Customer().id(customer.getId()).phoneNumber(UPDATED_PHONE_NUMBER));
+
+            restCustomerMockMvc.perform(get(ENTITY_API_URL + "/by-phone/{number}", DEFAULT_PHONE_NUMBER)).andExpect(status().isNotFound());
+            restCustomerMockMvc
+                .perform(get(ENTITY_API_URL + "/by-phone/{number}", UPDATED_PHONE_NUMBER))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(customer.getId().intValue()))
+                .andExpect(jsonPath("$.phoneNumber").value(UPDATED_PHONE_NUMBER));
+        } finally {
+            customerService.delete(customer.getId());
+        }
+
+        restCustomerMockMvc.perform(get(ENTITY_API_URL + "/by-phone/{number}", UPDATED_PHONE_NUMBER)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void searchCustomers() throws Exception {
+        // Not transactional: the customers are indexed when their creation is committed
+        customerService.save(customer);
+        try {
+            customerSearchRepository.refresh();
+
+            // Search by a misspelled name, by a name prefix, and by a fragment of the phone number
+            for (String query : List.of("AAAAAAAAAB", "aaaa", "(567) 890")) {
+                restCustomerMockMvc
+                    .perform(get("/api/_search/customers").param("q", query))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+                    .andExpect(jsonPath("$.[*].id").value(hasItem(customer.getId().intValue())))
+                    .andExpect(jsonPath("$.[*].name").value(hasItem(DEFAULT_NAME)));
+            }
+
+            restCustomerMockMvc
+                .perform(get("/api/_search/customers").param("q", UPDATED_NAME))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[*].id").value(not(hasItem(customer.getId().intValue()))));
+        } finally {
+            customerService.delete(customer.getId());
+        }
+
+        customerSearchRepository.refresh();
+        restCustomerMockMvc
+            .perform(get("/api/_search/customers").param("q", DEFAULT_NAME))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(not(hasItem(customer.getId().intValue()))));
+    }
+
+    @Test
+    void customerEndpointsStayWithinQueryBudgets() throws Exception {
+        // Not transactional: the customers must be read from the database, and the modifications flushed, to be counted
+        customerService.save(customer);
+        Customer otherCustomer = customerService.save(createUpdatedEntity(em));
+        Customer newCustomer = new Customer().name("Budget new customer").phoneNumber("900000000001");
+        try {
+            performWithin(restCustomerMockMvc, 1, get(ENTITY_API_URL)).andExpect(status().isOk());
+            performWithin(restCustomerMockMvc, 1, get(ENTITY_API_URL + "?fields=id,name")).andExpect(status().isOk());
+            performWithin(restCustomerMockMvc, 1, get(ENTITY_API_URL + "/export").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(status().isOk());
+            performWithin(restCustomerMockMvc, 1, get(ENTITY_API_URL + "/by-phone/{number}", DEFAULT_PHONE_NUMBER))
+                .andExpect(status().isOk());
+            // A single query, whatever the number of ids
+            List<Long> ids = List.of(customer.getId(), otherCustomer.getId(), Long.MAX_VALUE);
+            performWithin(
+                restCustomerMockMvc,
+                1,
+                post(ENTITY_API_URL + "/_batch-get")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(Map.of("ids", ids)))
+            )
+                .andExpect(status().isOk());
+            performWithin(restCustomerMockMvc, 1, get("/api/_search/customers").param("q", DEFAULT_NAME)).andExpect(status().isOk());
+            performWithin(restCustomerMockMvc, 1, get(ENTITY_API_URL_ID, customer.getId())).andExpect(status().isOk());
+
+            // The creation may allocate a block of ids, then inserts
+            performWithin(
+                restCustomerMockMvc,
+                2,
+                post(ENTITY_API_URL).contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(newCustomer))
+            )
+                .andExpect(status().isCreated());
+            // The updates read the customer, then update it
+            Customer updatedCustomer = new Customer().id(customer.getId()).name(DEFAULT_NAME).phoneNumber("900000000002");
+            performWithin(
+                restCustomerMockMvc,
+                2,
+                put(ENTITY_API_URL_ID, customer.getId())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(updatedCustomer))
+            )
+                .andExpect(status().isOk());
+            Customer partialUpdatedCustomer = new Customer().id(customer.getId()).phoneNumber(DEFAULT_PHONE_NUMBER);
+            performWithin(
+                restCustomerMockMvc,
+                2,
+                patch(ENTITY_API_URL_ID, customer.getId())
+                    .contentType("application/merge-patch+json")
+                    .content(TestUtil.convertObjectToJsonBytes(partialUpdatedCustomer))
+            )
+                .andExpect(status().isOk());
+            // The deletion reads the customer, then deletes it
+            performWithin(restCustomerMockMvc, 2, delete(ENTITY_API_URL_ID, otherCustomer.getId())).andExpect(status().isNoContent());
+        } finally {
+            customerRepository
+                .findAll()
+                .stream()
+                .filter(budgetCustomer -> List.of(DEFAULT_NAME, UPDATED_NAME, "Budget new customer").contains(budgetCustomer.getName()))
+                .forEach(budgetCustomer -> customerService.delete(budgetCustomer.getId()));
+        }
+    }
 }
@@ -1,5 +1,6 @@
 package com.comptechco.stabledemojhipster.web.rest;
 
+import static com.comptechco.stabledemojhipster.web.rest.QueryCount.performWithin;
 import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.hasItems;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -72,6 +73,23 @@ class PublicUserResourceIT {
             .andExpect(jsonPath("$.[*].langKey").doesNotExist());
     }
 
+    @Test
+    @Transactional
+    void getAllPublicUsersFields() throws Exception {
+        // Initialize the database
+        userRepository.saveAndFlush(user);
+
+        // Get only the requested fields of all the users
+        restUserMockMvc
+            .perform(get("/api/users?fields=login&sort=id,desc").accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.[*].login").value(hasItem(DEFAULT_LOGIN)))
+            .andExpect(jsonPath("$.[*].id").doesNotExist());
+
+        restUserMockMvc.perform(get("/api/users?fields=login,email").accept(MediaType.APPLICATION_JSON)).andExpect(status().isBadRequest());
+    }
+
     @Test
     @Transactional
     void getAllAuthorities() throws Exception {
@@ -96,4 +114,13 @@ class PublicUserResourceIT {
             .andExpect(status().isBadRequest());
         restUserMockMvc.perform(get("/api/users?sort=id,desc").accept(MediaType.APPLICATION_JSON)).andExpect(status().isOk());
     }
+
+    @Test
+    void publicUserEndpointsStayWithinQueryBudgets() throws Exception {
+        // Not transactional: the users must be read from the database to be counted
+        // The page of users, and their count when the page is full
+        performWithin(restUserMockMvc, 2, get("/api/users?sort=id,desc&size=1")).andExpect(status().isOk());
+        performWithin(restUserMockMvc, 2, get("/api/users?fields=login&sort=id,desc&size=1")).andExpect(status().isOk());
+        performWithin(restUserMockMvc, 1, get("/api/authorities")).andExpect(status().isOk());
+    }
 }
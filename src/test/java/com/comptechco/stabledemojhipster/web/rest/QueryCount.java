@@ -0,0 +1,60 @@
+package com.comptechco.stabledemojhipster.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+
+/**
+ * Counts the SQL statements of a request, to check it against a query budget: a request which suddenly runs more
+ * statements, like an n+1 fetch, fails its test.
+ * <p>
+ * This is the Hibernate statement inspector of the tests, see {@code hibernate.session_factory.statement_inspector} in
+ * the test {@code application.yml}. Only the statements prepared on the thread of the request are counted, not the
+ * ones of the work it hands over to other threads, like the rebuild of the coffee catalog snapshot. The requests
+ * should run outside of a test transaction, so that the entities are read from the database and the modifications
+ * are flushed.
+ */
+public class QueryCount implements StatementInspector {
+
+    private static final ThreadLocal<List<String>> STATEMENTS = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        List<String> statements = STATEMENTS.get();
+        if (statements != null) {
+            statements.add(sql);
+        }
+        return sql;
+    }
+
+    /**
+     * Perform a request, and check that it runs at most the given number of SQL statements.
+     *
+     * @param mockMvc the MockMvc to perform the request with.
+     * @param maxStatements the query budget of the request.
+     * @param request the request.
+     * @return the result of the request, for further expectations.
+     * @throws Exception if the request fails.
+     */
+    public static ResultActions performWithin(MockMvc mockMvc, int maxStatements, RequestBuilder request) throws Exception {
+        List<String> statements = new ArrayList<>();
+        STATEMENTS.set(statements);
+        ResultActions result;
+        try {
+            result = mockMvc.perform(request);
+        } finally {
+            STATEMENTS.remove();
+        }
+        MockHttpServletRequest performedRequest = result.andReturn().getRequest();
+        assertThat(statements)
+            .as("SQL statements of %s %s", performedRequest.getMethod(), performedRequest.getRequestURI())
+            .hasSizeLessThanOrEqualTo(maxStatements);
+        return result;
+    }
+}
@@ -1,5 +1,6 @@
 package com.comptechco.stabledemojhipster.web.rest;
 
+import static com.comptechco.stabledemojhipster.web.rest.QueryCount.performWithin;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.hasItems;
@@ -9,6 +10,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import com.comptechco.stabledemojhipster.IntegrationTest;
 import com.comptechco.stabledemojhipster.domain.Authority;
 import com.comptechco.stabledemojhipster.domain.User;
+import com.comptechco.stabledemojhipster.repository.MailOutboxMessageRepository;
 import com.comptechco.stabledemojhipster.repository.UserRepository;
 import com.comptechco.stabledemojhipster.security.AuthoritiesConstants;
 import com.comptechco.stabledemojhipster.service.dto.AdminUserDTO;
@@ -64,6 +66,9 @@ class UserResourceIT {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private MailOutboxMessageRepository mailOutboxMessageRepository;
+
     @Autowired
     private UserMapper userMapper;
 
@@ -259,6 +264,32 @@ class UserResourceIT {
             .andExpect(jsonPath("$.[*].langKey").value(hasItem(DEFAULT_LANGKEY)));
     }
 
+    @Test
+    @Transactional
+    void getAllUsersFields() throws Exception {
+        // Initialize the database
+        userRepository.saveAndFlush(user);
+
+        // Get only the requested fields of all the users
+        restUserMockMvc
+            .perform(get("/api/admin/users?fields=login,firstName&sort=id,desc").accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(header().exists("X-Total-Count"))
+            .andExpect(jsonPath("$.[*].login").value(hasItem(DEFAULT_LOGIN)))
+            .andExpect(jsonPath("$.[*].firstName").value(hasItem(DEFAULT_FIRSTNAME)))
+            .andExpect(jsonPath("$.[*].id").doesNotExist())
+            .andExpect(jsonPath("$.[*].email").doesNotExist())
+            .andExpect(jsonPath("$.[*].authorities").doesNotExist());
+
+        restUserMockMvc
+            .perform(get("/api/admin/users?fields=login,password").accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().isBadRequest());
+        restUserMockMvc
+            .perform(get("/api/admin/users?fields=authorities").accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().isBadRequest());
+    }
+
     @Test
     @Transactional
     void getUser() throws Exception {
@@ -577,6 +608,59 @@ class UserResourceIT {
         assertThat(authorityA).isEqualTo(authorityB).hasSameHashCodeAs(authorityB);
     }
 
+    @Test
+    void userEndpointsStayWithinQueryBudgets() throws Exception {
+        // Not transactional: the users must be read from the database, and the modifications flushed, to be counted
+        Authority authority = new Authority();
+        authority.setName(AuthoritiesConstants.USER);
+        user.getAuthorities().add(authority);
+        userRepository.saveAndFlush(user);
+        ManagedUserVM newUser = new ManagedUserVM();
+        newUser.setLogin(UPDATED_LOGIN);
+        newUser.setEmail(UPDATED_EMAIL);
+        newUser.setLangKey(DEFAULT_LANGKEY);
+        newUser.setAuthorities(Collections.singleton(AuthoritiesConstants.USER));
+        try {
+            // The page of users, then the authorities of up to 20 users at once
+            performWithin(restUserMockMvc, 3, get("/api/admin/users?sort=id,desc")).andExpect(status().isOk());
+            performWithin(restUserMockMvc, 2, get("/api/admin/users?fields=id,login&sort=id,desc")).andExpect(status().isOk());
+            performWithin(restUserMockMvc, 1, get("/api/admin/users/{login}", user.getLogin())).andExpect(status().isOk());
+
+            // The login and email checks, a single query for the authorities, the user and its authorities, then the email
+            performWithin(
+                restUserMockMvc,
+                8,
+                post("/api/admin/users").contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(newUser))
+            )
+                .andExpect(status().isCreated());
+            // The login and email checks, the user with its authorities, a single query for the new authorities, then the
+            // update of the user and of its authorities
+            ManagedUserVM updatedUser = new ManagedUserVM();
+            updatedUser.setId(user.getId());
+            updatedUser.setLogin(user.getLogin());
+            updatedUser.setEmail(user.getEmail());
+            updatedUser.setFirstName(UPDATED_FIRSTNAME);
+            updatedUser.setActivated(true);
+            updatedUser.setLangKey(UPDATED_LANGKEY);
+            updatedUser.setAuthorities(Set.of(AuthoritiesConstants.USER, AuthoritiesConstants.ADMIN));
+            performWithin(
+                restUserMockMvc,
+                8,
+                put("/api/admin/users").contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(updatedUser))
+            )
+                .andExpect(status().isOk());
+            // The user, then its authorities and itself
+            performWithin(restUserMockMvc, 3, delete("/api/admin/users/{login}", UPDATED_LOGIN)).andExpect(status().isNoContent());
+        } finally {
+            userRepository
+                .findAll()
+                .stream()
+                .filter(budgetUser -> List.of(DEFAULT_LOGIN, UPDATED_LOGIN).contains(budgetUser.getLogin()))
+                .forEach(userRepository::delete);
+            mailOutboxMessageRepository.deleteAll();
+        }
+    }
+
     private void assertPersistedUsers(Consumer<List<User>> userAssertion) {
         userAssertion.accept(userRepository.findAll());
     }